@@ -2,6 +2,7 @@ package ai;
 
 import map.GridMap;
 import map.Node;
+import util.Constants;
 import java.util.List;
 import java.util.Random;
 
@@ -18,13 +19,14 @@ public class AIController {
     private int targetY;
     private List<Node> currentPath;
     private Random random;
-    private int[][] heatMap;
+    private DecayingHeatMap heatMap;
 
     public AIController(GridMap map) {
         this.map = map;
-        this.pathfinder = new AStar();
+        this.pathfinder = new AStar(map);
+        this.pathfinder.enableLandmarks(Constants.ALT_LANDMARK_COUNT);
         this.random = new Random();
-        this.heatMap = new int[map.getSize()][map.getSize()];
+        this.heatMap = new DecayingHeatMap(map.getSize(), map.getSize());
         
         // Start AI at random position
         aiX = random.nextInt(map.getSize());
@@ -35,7 +37,7 @@ public class AIController {
     public void update() {
         // Record position in heat map
         if (aiX >= 0 && aiX < map.getSize() && aiY >= 0 && aiY < map.getSize()) {
-            heatMap[aiX][aiY]++;
+            heatMap.add(aiX, aiY, 1, System.currentTimeMillis());
         }
 
         // Move towards target
@@ -86,6 +88,13 @@ public class AIController {
     public AStar getPathfinder() { return pathfinder; }
     public int getAIX() { return aiX; }
     public int getAIY() { return aiY; }
-    public int[][] getHeatMap() { return heatMap; }
+    public DecayingHeatMap getHeatMap() { return heatMap; }
+    
+    /**
+     * Total (decayed) heat inside the inclusive rectangle.
+     */
+    public double getHeatInRegion(int x1, int y1, int x2, int y2) {
+        return heatMap.sumRegion(x1, y1, x2, y2, System.currentTimeMillis());
+    }
     public List<Node> getCurrentPath() { return currentPath; }
 }
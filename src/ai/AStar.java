@@ -1,5 +1,7 @@
 package ai;
 
+import dsa.LandmarkIndex;
+import map.GridMap;
 import map.Node;
 import java.util.*;
 
@@ -7,64 +9,114 @@ import java.util.*;
  * A* Pathfinding Algorithm
  */
 public class AStar {
+    private static final int[][] DIRS = {{0,-1}, {0,1}, {-1,0}, {1,0}};
+
+    private GridMap map;
+    private LandmarkIndex landmarks;
+    private GridMap.TileListener landmarkRefresher;
+    private int lastExpandedCount = 0;
+
+    public AStar() {
+        this(null);
+    }
+
+    /**
+     * Pathfinder bound to a map: neighbors come from the grid and walls are respected.
+     */
+    public AStar(GridMap map) {
+        this.map = map;
+    }
+
+    /**
+     * Enable ALT heuristics with the given number of landmarks.
+     * Distance tables are kept in sync with GridMap.modifyTile.
+     */
+    public void enableLandmarks(int landmarkCount) {
+        if (map == null) return;
+        disableLandmarks();
+
+        landmarks = new LandmarkIndex(new GridTopology(map), landmarkCount);
+        int size = map.getSize();
+        landmarkRefresher = (x, y, walkable) -> landmarks.onVertexChanged(x * size + y);
+        map.addTileListener(landmarkRefresher);
+    }
+
+    public void disableLandmarks() {
+        if (landmarkRefresher != null) {
+            map.removeTileListener(landmarkRefresher);
+        }
+        landmarks = null;
+        landmarkRefresher = null;
+    }
 
     public List<Node> findPath(Node start, Node goal) {
-        PriorityQueue<Node> openSet = new PriorityQueue<>(
-            Comparator.comparingInt(n -> n.fCost)
+        // Entries snapshot fCost so re-queued nodes never reorder the heap in place
+        PriorityQueue<OpenEntry> openSet = new PriorityQueue<>(
+            Comparator.comparingInt(e -> e.fCost)
         );
         Set<Node> closedSet = new HashSet<>();
         Map<Node, Integer> gScore = new HashMap<>();
-        
+        lastExpandedCount = 0;
+
         gScore.put(start, 0);
         start.gCost = 0;
         start.hCost = heuristic(start, goal);
         start.fCost = start.gCost + start.hCost;
         start.parent = null;
-        
-        openSet.add(start);
-        
+
+        openSet.add(new OpenEntry(start));
+
         while (!openSet.isEmpty()) {
-            Node current = openSet.poll();
-            
+            Node current = openSet.poll().node;
+
             if (current.x == goal.x && current.y == goal.y) {
                 return reconstructPath(current);
             }
-            
-            closedSet.add(current);
-            
+
+            if (!closedSet.add(current)) continue;
+            lastExpandedCount++;
+
             // Check 4 neighbors (up, down, left, right)
-            int[][] dirs = {{0,-1}, {0,1}, {-1,0}, {1,0}};
-            for (int[] dir : dirs) {
+            for (int[] dir : DIRS) {
                 int nx = current.x + dir[0];
                 int ny = current.y + dir[1];
-                
-                // Create neighbor node (in real impl, get from GridMap)
-                Node neighbor = new Node(nx, ny);
-                
+
+                Node neighbor;
+                if (map != null) {
+                    neighbor = map.getNode(nx, ny);
+                    if (neighbor == null || !neighbor.isWalkable()) continue;
+                } else {
+                    neighbor = new Node(nx, ny);
+                }
+
                 if (closedSet.contains(neighbor)) continue;
-                
+
                 int tentativeG = gScore.getOrDefault(current, Integer.MAX_VALUE) + 1;
-                
+
                 if (tentativeG < gScore.getOrDefault(neighbor, Integer.MAX_VALUE)) {
                     neighbor.parent = current;
                     neighbor.gCost = tentativeG;
                     neighbor.hCost = heuristic(neighbor, goal);
                     neighbor.fCost = neighbor.gCost + neighbor.hCost;
                     gScore.put(neighbor, tentativeG);
-                    
-                    if (!openSet.contains(neighbor)) {
-                        openSet.add(neighbor);
-                    }
+
+                    // Re-insert on improvement; stale entries are skipped via closedSet
+                    openSet.add(new OpenEntry(neighbor));
                 }
             }
         }
-        
+
         return new ArrayList<>(); // No path found
     }
 
     private int heuristic(Node a, Node b) {
         // Manhattan distance
-        return Math.abs(a.x - b.x) + Math.abs(a.y - b.y);
+        int manhattan = Math.abs(a.x - b.x) + Math.abs(a.y - b.y);
+        if (landmarks == null) return manhattan;
+
+        // ALT bound is usually much tighter around walls; both are admissible
+        int size = map.getSize();
+        return Math.max(manhattan, landmarks.estimate(a.x * size + a.y, b.x * size + b.y));
     }
 
     private List<Node> reconstructPath(Node node) {
@@ -76,4 +128,61 @@ public class AStar {
         Collections.reverse(path);
         return path;
     }
+
+    /**
+     * Number of nodes expanded by the last findPath call.
+     */
+    public int getLastExpandedCount() { return lastExpandedCount; }
+    public LandmarkIndex getLandmarks() { return landmarks; }
+
+    private static class OpenEntry {
+        final Node node;
+        final int fCost;
+
+        OpenEntry(Node node) {
+            this.node = node;
+            this.fCost = node.fCost;
+        }
+    }
+
+    /**
+     * 4-connected walkable grid exposed as an int graph (id = x * size + y).
+     */
+    private static class GridTopology implements LandmarkIndex.Topology {
+        private final GridMap map;
+        private final int size;
+
+        GridTopology(GridMap map) {
+            this.map = map;
+            this.size = map.getSize();
+        }
+
+        @Override
+        public int vertexCount() { return size * size; }
+
+        @Override
+        public int maxDegree() { return DIRS.length; }
+
+        @Override
+        public boolean isOpen(int vertex) {
+            return map.getNode(vertex / size, vertex % size).isWalkable();
+        }
+
+        @Override
+        public int neighbors(int vertex, int[] out) {
+            int x = vertex / size;
+            int y = vertex % size;
+            int count = 0;
+            for (int[] dir : DIRS) {
+                Node n = map.getNode(x + dir[0], y + dir[1]);
+                if (n != null && n.isWalkable()) {
+                    out[count++] = n.x * size + n.y;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public int weight(int from, int to) { return 1; }
+    }
 }
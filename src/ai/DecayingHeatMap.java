@@ -0,0 +1,188 @@
+package ai;
+
+import util.Constants;
+
+/**
+ * Heat map with lazy exponential decay.
+ *
+ * Each cell stores its heat and the time it was last written; decay is
+ * applied on read as factor^(elapsed / interval), so there is no periodic
+ * pass over the grid. Only touched cells are tracked, which keeps top-K and
+ * snapshot queries O(touched cells) on large maps. Cells that cool below
+ * MIN_HEAT are dropped from the touched list the next time it is scanned.
+ */
+public class DecayingHeatMap {
+    public static final double MIN_HEAT = 0.01;
+
+    private final int width;
+    private final int height;
+    private final double decayFactor;
+    private final long decayInterval;
+
+    private final float[] values;
+    private final long[] lastUpdate;
+    private final int[] touched;
+    private final boolean[] isTouched;
+    private int touchedCount = 0;
+
+    public DecayingHeatMap(int width, int height) {
+        this(width, height, Constants.HEAT_MAP_DECAY_FACTOR, Constants.HEAT_MAP_DECAY_INTERVAL);
+    }
+
+    public DecayingHeatMap(int width, int height, double decayFactor, long decayInterval) {
+        this.width = width;
+        this.height = height;
+        this.decayFactor = decayFactor;
+        this.decayInterval = decayInterval;
+        this.values = new float[width * height];
+        this.lastUpdate = new long[width * height];
+        this.touched = new int[width * height];
+        this.isTouched = new boolean[width * height];
+    }
+
+    private double decayed(int cell, long now) {
+        float value = values[cell];
+        if (value == 0) return 0;
+        long elapsed = now - lastUpdate[cell];
+        if (elapsed <= 0) return value;
+        return value * Math.pow(decayFactor, (double) elapsed / decayInterval);
+    }
+
+    /**
+     * Add heat to a cell, first bringing its stored value up to date.
+     */
+    public void add(int x, int y, double amount, long now) {
+        if (x < 0 || x >= width || y < 0 || y >= height) return;
+        int cell = x * height + y;
+        values[cell] = (float) (decayed(cell, now) + amount);
+        lastUpdate[cell] = now;
+        if (!isTouched[cell]) {
+            isTouched[cell] = true;
+            touched[touchedCount++] = cell;
+        }
+    }
+
+    public double get(int x, int y, long now) {
+        if (x < 0 || x >= width || y < 0 || y >= height) return 0;
+        return decayed(x * height + y, now);
+    }
+
+    /**
+     * Total heat inside the inclusive rectangle.
+     */
+    public double sumRegion(int x1, int y1, int x2, int y2, long now) {
+        double sum = 0;
+        for (int i = 0; i < touchedCount; i++) {
+            int cell = touched[i];
+            int x = cell / height;
+            int y = cell % height;
+            if (x >= x1 && x <= x2 && y >= y1 && y <= y2) {
+                sum += decayed(cell, now);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Write the k hottest cells (hottest first) into outCells / outHeat and
+     * return how many were written. Cells are encoded as x * height + y.
+     */
+    public int topK(int k, long now, int[] outCells, float[] outHeat) {
+        k = Math.min(k, Math.min(outCells.length, outHeat.length));
+        if (k <= 0) return 0;
+
+        // Insertion into a small sorted buffer; k is expected to be tiny
+        int count = 0;
+        int i = 0;
+        while (i < touchedCount) {
+            int cell = touched[i];
+            double heat = decayed(cell, now);
+            if (heat < MIN_HEAT) {
+                evict(i);
+                continue;
+            }
+            i++;
+
+            if (count == k && heat <= outHeat[count - 1]) continue;
+            int pos = count < k ? count++ : k - 1;
+            while (pos > 0 && outHeat[pos - 1] < heat) {
+                outHeat[pos] = outHeat[pos - 1];
+                outCells[pos] = outCells[pos - 1];
+                pos--;
+            }
+            outHeat[pos] = (float) heat;
+            outCells[pos] = cell;
+        }
+        return count;
+    }
+
+    /**
+     * Sparse copy of every cell at or above minHeat, decayed to now.
+     */
+    public Snapshot snapshot(long now, double minHeat) {
+        int[] cells = new int[touchedCount];
+        float[] heat = new float[touchedCount];
+        int count = 0;
+        int i = 0;
+        while (i < touchedCount) {
+            int cell = touched[i];
+            double value = decayed(cell, now);
+            if (value < MIN_HEAT) {
+                evict(i);
+                continue;
+            }
+            i++;
+            if (value >= minHeat) {
+                cells[count] = cell;
+                heat[count] = (float) value;
+                count++;
+            }
+        }
+        return new Snapshot(width, height, now, cells, heat, count);
+    }
+
+    private void evict(int index) {
+        int cell = touched[index];
+        values[cell] = 0;
+        isTouched[cell] = false;
+        touched[index] = touched[--touchedCount];
+    }
+
+    public void clear() {
+        for (int i = 0; i < touchedCount; i++) {
+            values[touched[i]] = 0;
+            isTouched[touched[i]] = false;
+        }
+        touchedCount = 0;
+    }
+
+    public int getTouchedCount() { return touchedCount; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+
+    /**
+     * Immutable sparse heat snapshot for overlays.
+     */
+    public static class Snapshot {
+        public final int width;
+        public final int height;
+        public final long time;
+        private final int[] cells;
+        private final float[] heat;
+        private final int size;
+
+        Snapshot(int width, int height, long time, int[] cells, float[] heat, int size) {
+            this.width = width;
+            this.height = height;
+            this.time = time;
+            this.cells = cells;
+            this.heat = heat;
+            this.size = size;
+        }
+
+        public int size() { return size; }
+        public int getX(int i) { return cells[i] / height; }
+        public int getY(int i) { return cells[i] % height; }
+        public float getHeat(int i) { return heat[i]; }
+    }
+}
@@ -0,0 +1,107 @@
+package dsa;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Uniform-grid spatial index over points, rebuilt in bulk.
+ *
+ * Usage per frame: clear(), add() every item, build(), then any number of
+ * rectangle queries. build() is a counting sort by cell, so a rebuild is
+ * O(n + cells) with no per-item allocation once the arrays have grown.
+ * Queries return items in the order they were added, so callers that draw
+ * from the index keep their original draw order.
+ */
+public class GridIndex<T> {
+    private final double cellSize;
+    private final int cols;
+    private final int rows;
+    private final int[] cellStart;
+
+    private Object[] items = new Object[64];
+    private int[] itemCell = new int[64];
+    private int[] sorted = new int[64];
+    private int[] scratch = new int[64];
+    private int count = 0;
+    private boolean built = false;
+
+    public GridIndex(double width, double height, double cellSize) {
+        this.cellSize = cellSize;
+        this.cols = Math.max(1, (int) Math.ceil(width / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        this.cellStart = new int[cols * rows + 1];
+    }
+
+    public void clear() {
+        Arrays.fill(items, 0, count, null);
+        count = 0;
+        built = false;
+    }
+
+    /**
+     * Add an item at a point; points outside the grid go to the edge cells.
+     */
+    public void add(T item, double x, double y) {
+        if (count == items.length) {
+            int capacity = count * 2;
+            items = Arrays.copyOf(items, capacity);
+            itemCell = Arrays.copyOf(itemCell, capacity);
+            sorted = new int[capacity];
+            scratch = new int[capacity];
+        }
+        items[count] = item;
+        itemCell[count] = col(x) * rows + row(y);
+        count++;
+        built = false;
+    }
+
+    public void build() {
+        Arrays.fill(cellStart, 0);
+        for (int i = 0; i < count; i++) cellStart[itemCell[i] + 1]++;
+        for (int c = 0; c < cols * rows; c++) cellStart[c + 1] += cellStart[c];
+        for (int i = 0; i < count; i++) sorted[cellStart[itemCell[i]]++] = i;
+        // Shift starts back after the placement pass advanced them
+        for (int c = cols * rows; c > 0; c--) cellStart[c] = cellStart[c - 1];
+        cellStart[0] = 0;
+        built = true;
+    }
+
+    /**
+     * Append every item whose cell overlaps the inclusive rectangle, in
+     * insertion order. Items in edge cells may lie slightly outside the
+     * rectangle; callers needing exact bounds should check positions.
+     */
+    @SuppressWarnings("unchecked")
+    public <C extends Collection<? super T>> C query(double minX, double minY, double maxX, double maxY, C out) {
+        if (!built) build();
+        int c0 = col(minX), c1 = col(maxX);
+        int r0 = row(minY), r1 = row(maxY);
+
+        int n = 0;
+        for (int c = c0; c <= c1; c++) {
+            int base = c * rows;
+            for (int k = cellStart[base + r0]; k < cellStart[base + r1 + 1]; k++) {
+                scratch[n++] = sorted[k];
+            }
+        }
+        Arrays.sort(scratch, 0, n);
+        for (int i = 0; i < n; i++) {
+            out.add((T) items[scratch[i]]);
+        }
+        return out;
+    }
+
+    private int col(double x) {
+        int c = (int) Math.floor(x / cellSize);
+        return c < 0 ? 0 : c >= cols ? cols - 1 : c;
+    }
+
+    private int row(double y) {
+        int r = (int) Math.floor(y / cellSize);
+        return r < 0 ? 0 : r >= rows ? rows - 1 : r;
+    }
+
+    public int size() { return count; }
+    public int getCols() { return cols; }
+    public int getRows() { return rows; }
+}
@@ -0,0 +1,296 @@
+package dsa;
+
+import java.util.Arrays;
+
+/**
+ * ALT (A*, Landmarks, Triangle inequality) preprocessing.
+ * Stores shortest-path distances from a few landmark vertices and uses
+ * |d(L, a) - d(L, b)| as an admissible lower bound for d(a, b).
+ *
+ * Vertices are plain ints so the distance tables stay as primitive arrays.
+ * The graph itself is supplied through {@link Topology}; edges are treated
+ * as undirected.
+ */
+public class LandmarkIndex {
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    /**
+     * Int-indexed view of an undirected graph whose vertices can be
+     * opened or closed (e.g. walkable / wall tiles).
+     */
+    public interface Topology {
+        int vertexCount();
+
+        int maxDegree();
+
+        boolean isOpen(int vertex);
+
+        /**
+         * Write the open neighbors of vertex into out and return how many there are.
+         * Must work for closed vertices too (their open neighbors are still reported).
+         */
+        int neighbors(int vertex, int[] out);
+
+        int weight(int from, int to);
+    }
+
+    private final Topology topology;
+    private final int[] landmarks;
+    private final int[][] distances; // [landmark][vertex]
+    private final int[][] parents;   // shortest-path tree per landmark
+    private final int[] neighborBuffer;
+    private final IntMinHeap heap;
+    private final int[] stack;
+    private final int[] affectedList;
+    private int lastRefreshTouched = 0;
+
+    public LandmarkIndex(Topology topology, int landmarkCount) {
+        this.topology = topology;
+        int n = topology.vertexCount();
+        this.neighborBuffer = new int[topology.maxDegree()];
+        this.heap = new IntMinHeap(n);
+        this.stack = new int[n];
+        this.affectedList = new int[n];
+
+        int count = Math.max(0, Math.min(landmarkCount, n));
+        this.landmarks = new int[count];
+        this.distances = new int[count][n];
+        this.parents = new int[count][n];
+        selectLandmarks();
+    }
+
+    /**
+     * Farthest-point selection: each new landmark is the reachable vertex
+     * furthest from all landmarks chosen so far.
+     */
+    private void selectLandmarks() {
+        int n = topology.vertexCount();
+        int first = -1;
+        for (int v = 0; v < n && first < 0; v++) {
+            if (topology.isOpen(v)) first = v;
+        }
+
+        int[] minDist = new int[n];
+        Arrays.fill(minDist, UNREACHABLE);
+        int next = first;
+
+        for (int i = 0; i < landmarks.length; i++) {
+            landmarks[i] = next;
+            computeFrom(i);
+            if (next < 0) continue;
+
+            int best = -1;
+            int bestDist = -1;
+            for (int v = 0; v < n; v++) {
+                int d = distances[i][v];
+                if (d < minDist[v]) minDist[v] = d;
+                if (minDist[v] != UNREACHABLE && minDist[v] > bestDist) {
+                    bestDist = minDist[v];
+                    best = v;
+                }
+            }
+            next = best;
+        }
+    }
+
+    private void computeFrom(int index) {
+        int[] dist = distances[index];
+        int[] parent = parents[index];
+        Arrays.fill(dist, UNREACHABLE);
+        Arrays.fill(parent, -1);
+
+        int source = landmarks[index];
+        if (source < 0 || !topology.isOpen(source)) return;
+
+        dist[source] = 0;
+        heap.clear();
+        heap.push(source, 0);
+        relax(dist, parent);
+    }
+
+    /**
+     * Dijkstra over whatever is currently in the heap.
+     */
+    private int relax(int[] dist, int[] parent) {
+        int settled = 0;
+        while (!heap.isEmpty()) {
+            int d = heap.peekKey();
+            int v = heap.pop();
+            if (d > dist[v]) continue;
+            settled++;
+
+            int count = topology.neighbors(v, neighborBuffer);
+            for (int k = 0; k < count; k++) {
+                int u = neighborBuffer[k];
+                int nd = d + topology.weight(v, u);
+                if (nd < dist[u]) {
+                    dist[u] = nd;
+                    parent[u] = v;
+                    heap.push(u, nd);
+                }
+            }
+        }
+        return settled;
+    }
+
+    /**
+     * Lower bound on the shortest-path distance between two vertices.
+     * Landmarks that cannot reach either endpoint are ignored.
+     */
+    public int estimate(int from, int to) {
+        int best = 0;
+        for (int i = 0; i < landmarks.length; i++) {
+            int da = distances[i][from];
+            int db = distances[i][to];
+            if (da == UNREACHABLE || db == UNREACHABLE) continue;
+            int bound = Math.abs(da - db);
+            if (bound > best) best = bound;
+        }
+        return best;
+    }
+
+    /**
+     * Refresh the distance tables after a vertex was opened or closed.
+     * Only the part of each shortest-path tree that can actually change is
+     * recomputed, so a single tile edit costs O(affected vertices).
+     */
+    public void onVertexChanged(int vertex) {
+        lastRefreshTouched = 0;
+        for (int i = 0; i < landmarks.length; i++) {
+            if (landmarks[i] < 0) continue;
+            if (landmarks[i] == vertex) {
+                computeFrom(i);
+                lastRefreshTouched += topology.vertexCount();
+            } else if (topology.isOpen(vertex)) {
+                lastRefreshTouched += vertexOpened(i, vertex);
+            } else {
+                lastRefreshTouched += vertexClosed(i, vertex);
+            }
+        }
+    }
+
+    private int vertexOpened(int index, int vertex) {
+        int[] dist = distances[index];
+        int[] parent = parents[index];
+
+        // A newly opened vertex can only shorten paths: seed it from its
+        // best neighbor and let Dijkstra push the improvement outwards.
+        int best = UNREACHABLE;
+        int bestParent = -1;
+        int count = topology.neighbors(vertex, neighborBuffer);
+        for (int k = 0; k < count; k++) {
+            int u = neighborBuffer[k];
+            if (dist[u] == UNREACHABLE) continue;
+            int d = dist[u] + topology.weight(u, vertex);
+            if (d < best) {
+                best = d;
+                bestParent = u;
+            }
+        }
+        if (best >= dist[vertex]) return 0;
+
+        dist[vertex] = best;
+        parent[vertex] = bestParent;
+        heap.clear();
+        heap.push(vertex, best);
+        return relax(dist, parent);
+    }
+
+    private int vertexClosed(int index, int vertex) {
+        int[] dist = distances[index];
+        int[] parent = parents[index];
+        if (dist[vertex] == UNREACHABLE) return 0;
+
+        // Invalidate the subtree hanging off the closed vertex. Children in the
+        // shortest-path tree are always adjacent, so walk adjacency.
+        int top = 0;
+        int affected = 0;
+        stack[top++] = vertex;
+        dist[vertex] = UNREACHABLE;
+        parent[vertex] = -1;
+        while (top > 0) {
+            int v = stack[--top];
+            affectedList[affected++] = v;
+            int count = topology.neighbors(v, neighborBuffer);
+            for (int k = 0; k < count; k++) {
+                int u = neighborBuffer[k];
+                if (parent[u] == v) {
+                    dist[u] = UNREACHABLE;
+                    parent[u] = -1;
+                    stack[top++] = u;
+                }
+            }
+        }
+
+        // Re-seed affected vertices from their unaffected neighbors.
+        heap.clear();
+        for (int a = 0; a < affected; a++) {
+            int v = affectedList[a];
+            if (!topology.isOpen(v)) continue;
+            int count = topology.neighbors(v, neighborBuffer);
+            for (int k = 0; k < count; k++) {
+                int u = neighborBuffer[k];
+                if (dist[u] == UNREACHABLE) continue;
+                int d = dist[u] + topology.weight(u, v);
+                if (d < dist[v]) {
+                    dist[v] = d;
+                    parent[v] = u;
+                }
+            }
+            if (dist[v] != UNREACHABLE) heap.push(v, dist[v]);
+        }
+        relax(dist, parent);
+        return affected;
+    }
+
+    public int getLandmarkCount() { return landmarks.length; }
+    public int getLandmark(int index) { return landmarks[index]; }
+    public int getDistance(int landmarkIndex, int vertex) { return distances[landmarkIndex][vertex]; }
+    public int getLastRefreshTouched() { return lastRefreshTouched; }
+
+    /**
+     * Binary min-heap of (vertex, key) pairs packed into longs.
+     * Duplicate vertices are allowed; stale entries are skipped by the caller.
+     */
+    private static class IntMinHeap {
+        private long[] items;
+        private int size;
+
+        IntMinHeap(int capacity) {
+            items = new long[Math.max(16, capacity)];
+        }
+
+        void clear() { size = 0; }
+        boolean isEmpty() { return size == 0; }
+        int peekKey() { return (int) (items[0] >>> 32); }
+
+        void push(int vertex, int key) {
+            if (size == items.length) items = Arrays.copyOf(items, size * 2);
+            long item = ((long) key << 32) | (vertex & 0xffffffffL);
+            int i = size++;
+            while (i > 0) {
+                int p = (i - 1) >>> 1;
+                if (items[p] <= item) break;
+                items[i] = items[p];
+                i = p;
+            }
+            items[i] = item;
+        }
+
+        int pop() {
+            long top = items[0];
+            long last = items[--size];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int c = 2 * i + 1;
+                if (c + 1 < size && items[c + 1] < items[c]) c++;
+                if (last <= items[c]) break;
+                items[i] = items[c];
+                i = c;
+            }
+            if (size > 0) items[i] = last;
+            return (int) top;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package dsa;
+
+import java.util.Arrays;
+
+/**
+ * Iterative (bottom-up) segment tree over long values with lazy range updates.
+ *
+ * Works with any LongMonoid (sum, min, max or custom) and supports
+ * range-add and range-assign in O(log n). Storage is 2 * size where size is
+ * the next power of two, all in primitive arrays.
+ *
+ * Ranges are inclusive, matching SegmentTree.
+ */
+public class LazySegmentTree {
+    private final LongMonoid monoid;
+    private final int n;
+    private final int size;
+    private final int log;
+    private final long[] tree;
+    // Lazy tags for internal nodes; a pending assign absorbs later adds
+    private final long[] addTag;
+    private final long[] assignTag;
+    private final boolean[] hasAssign;
+
+    public LazySegmentTree(int n, LongMonoid monoid) {
+        this.monoid = monoid;
+        this.n = n;
+        int lg = 0;
+        while ((1 << lg) < n) lg++;
+        this.log = lg;
+        this.size = 1 << lg;
+        this.tree = new long[2 * size];
+        this.addTag = new long[size];
+        this.assignTag = new long[size];
+        this.hasAssign = new boolean[size];
+        Arrays.fill(tree, monoid.identity());
+    }
+
+    public LazySegmentTree(long[] values, LongMonoid monoid) {
+        this(values.length, monoid);
+        System.arraycopy(values, 0, tree, size, values.length);
+        for (int k = size - 1; k >= 1; k--) {
+            pull(k);
+        }
+    }
+
+    public LazySegmentTree(int[] values, LongMonoid monoid) {
+        this(values.length, monoid);
+        for (int i = 0; i < values.length; i++) {
+            tree[size + i] = values[i];
+        }
+        for (int k = size - 1; k >= 1; k--) {
+            pull(k);
+        }
+    }
+
+    private int length(int node) {
+        // depth of node = floor(log2(node)); leaves sit at depth log
+        int depth = 31 - Integer.numberOfLeadingZeros(node);
+        return size >> depth;
+    }
+
+    private void pull(int node) {
+        tree[node] = monoid.combine(tree[2 * node], tree[2 * node + 1]);
+    }
+
+    private void applyAssign(int node, long value) {
+        tree[node] = monoid.repeat(value, length(node));
+        if (node < size) {
+            hasAssign[node] = true;
+            assignTag[node] = value;
+            addTag[node] = 0;
+        }
+    }
+
+    private void applyAdd(int node, long delta) {
+        tree[node] = monoid.addToAll(tree[node], delta, length(node));
+        if (node < size) {
+            if (hasAssign[node]) {
+                assignTag[node] += delta;
+            } else {
+                addTag[node] += delta;
+            }
+        }
+    }
+
+    private void push(int node) {
+        if (hasAssign[node]) {
+            applyAssign(2 * node, assignTag[node]);
+            applyAssign(2 * node + 1, assignTag[node]);
+            hasAssign[node] = false;
+        }
+        if (addTag[node] != 0) {
+            applyAdd(2 * node, addTag[node]);
+            applyAdd(2 * node + 1, addTag[node]);
+            addTag[node] = 0;
+        }
+    }
+
+    private void pushPath(int leaf) {
+        for (int i = log; i >= 1; i--) {
+            push(leaf >> i);
+        }
+    }
+
+    public void update(int index, long value) {
+        int p = index + size;
+        pushPath(p);
+        tree[p] = value;
+        for (int i = 1; i <= log; i++) {
+            pull(p >> i);
+        }
+    }
+
+    public long get(int index) {
+        int p = index + size;
+        pushPath(p);
+        return tree[p];
+    }
+
+    public long query(int left, int right) {
+        if (left > right) return monoid.identity();
+
+        int l = left + size;
+        int r = right + 1 + size;
+        for (int i = log; i >= 1; i--) {
+            if (((l >> i) << i) != l) push(l >> i);
+            if (((r >> i) << i) != r) push((r - 1) >> i);
+        }
+
+        long leftAgg = monoid.identity();
+        long rightAgg = monoid.identity();
+        while (l < r) {
+            if ((l & 1) != 0) leftAgg = monoid.combine(leftAgg, tree[l++]);
+            if ((r & 1) != 0) rightAgg = monoid.combine(tree[--r], rightAgg);
+            l >>= 1;
+            r >>= 1;
+        }
+        return monoid.combine(leftAgg, rightAgg);
+    }
+
+    public long queryAll() {
+        return tree[1];
+    }
+
+    /**
+     * Add delta to every element in [left, right].
+     */
+    public void rangeAdd(int left, int right, long delta) {
+        rangeApply(left, right, delta, false);
+    }
+
+    /**
+     * Set every element in [left, right] to value.
+     */
+    public void rangeAssign(int left, int right, long value) {
+        rangeApply(left, right, value, true);
+    }
+
+    private void rangeApply(int left, int right, long value, boolean assign) {
+        if (left > right) return;
+
+        int l = left + size;
+        int r = right + 1 + size;
+        for (int i = log; i >= 1; i--) {
+            if (((l >> i) << i) != l) push(l >> i);
+            if (((r >> i) << i) != r) push((r - 1) >> i);
+        }
+
+        int l2 = l;
+        int r2 = r;
+        while (l < r) {
+            if ((l & 1) != 0) apply(l++, value, assign);
+            if ((r & 1) != 0) apply(--r, value, assign);
+            l >>= 1;
+            r >>= 1;
+        }
+
+        for (int i = 1; i <= log; i++) {
+            if (((l2 >> i) << i) != l2) pull(l2 >> i);
+            if (((r2 >> i) << i) != r2) pull((r2 - 1) >> i);
+        }
+    }
+
+    private void apply(int node, long value, boolean assign) {
+        if (assign) {
+            applyAssign(node, value);
+        } else {
+            applyAdd(node, value);
+        }
+    }
+
+    public int getSize() {
+        return n;
+    }
+
+    public LongMonoid getMonoid() {
+        return monoid;
+    }
+}
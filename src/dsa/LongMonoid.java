@@ -0,0 +1,52 @@
+package dsa;
+
+/**
+ * Associative long operation with an identity element, used by LazySegmentTree.
+ * Kept primitive so aggregates never box.
+ */
+public interface LongMonoid {
+    long identity();
+
+    long combine(long left, long right);
+
+    /**
+     * Aggregate of a segment after adding delta to each of its length elements.
+     */
+    long addToAll(long aggregate, long delta, int length);
+
+    /**
+     * Aggregate of a segment where all length elements equal value.
+     * Default doubles up with combine, so custom monoids only need combine.
+     */
+    default long repeat(long value, int length) {
+        long result = identity();
+        long power = value;
+        while (length > 0) {
+            if ((length & 1) != 0) result = combine(result, power);
+            power = combine(power, power);
+            length >>>= 1;
+        }
+        return result;
+    }
+
+    LongMonoid SUM = new LongMonoid() {
+        @Override public long identity() { return 0; }
+        @Override public long combine(long left, long right) { return left + right; }
+        @Override public long addToAll(long aggregate, long delta, int length) { return aggregate + delta * length; }
+        @Override public long repeat(long value, int length) { return value * length; }
+    };
+
+    LongMonoid MIN = new LongMonoid() {
+        @Override public long identity() { return Long.MAX_VALUE; }
+        @Override public long combine(long left, long right) { return Math.min(left, right); }
+        @Override public long addToAll(long aggregate, long delta, int length) { return aggregate + delta; }
+        @Override public long repeat(long value, int length) { return value; }
+    };
+
+    LongMonoid MAX = new LongMonoid() {
+        @Override public long identity() { return Long.MIN_VALUE; }
+        @Override public long combine(long left, long right) { return Math.max(left, right); }
+        @Override public long addToAll(long aggregate, long delta, int length) { return aggregate + delta; }
+        @Override public long repeat(long value, int length) { return value; }
+    };
+}
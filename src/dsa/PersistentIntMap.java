@@ -0,0 +1,280 @@
+package dsa;
+
+import java.util.Objects;
+
+/**
+ * Immutable int-keyed hash array mapped trie (HAMT).
+ *
+ * Each node holds a 32-bit bitmap and a packed array of its occupied
+ * slots; a slot is either an entry or a child node one level (5 key bits)
+ * deeper. Keys are used as their own hash, so distinct keys always split
+ * and there are no collision nodes. Depth is at most 7, in practice
+ * log32(n).
+ *
+ * put() and remove() copy only the path from the root to the changed
+ * slot and return a new map; every other node is shared with the old one.
+ * Keeping many versions therefore costs O(changes), and diff() walks only
+ * the subtrees that are not shared, so comparing two versions is also
+ * O(changes) rather than O(size).
+ *
+ * Values are compared with equals() by diff(); store immutable values.
+ */
+public final class PersistentIntMap<V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final PersistentIntMap<?> EMPTY = new PersistentIntMap<>(new Node(0, new Object[0]), 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentIntMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <V> PersistentIntMap<V> empty() {
+        return (PersistentIntMap<V>) EMPTY;
+    }
+
+    /**
+     * Changes reported by diff(), from the old version's point of view.
+     */
+    public interface DiffVisitor<V> {
+        void added(int key, V value);
+        void removed(int key, V value);
+        void changed(int key, V before, V after);
+    }
+
+    public interface EntryVisitor<V> {
+        void visit(int key, V value);
+    }
+
+    private static final class Entry {
+        final int key;
+        final Object value;
+
+        Entry(int key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private static final class Node {
+        final int bitmap;
+        final Object[] slots; // Entry or Node, in bit order
+
+        Node(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        Node with(int bit, Object slot) {
+            int i = index(bit);
+            Object[] copy;
+            if ((bitmap & bit) != 0) {
+                copy = slots.clone();
+                copy[i] = slot;
+                return new Node(bitmap, copy);
+            }
+            copy = new Object[slots.length + 1];
+            System.arraycopy(slots, 0, copy, 0, i);
+            copy[i] = slot;
+            System.arraycopy(slots, i, copy, i + 1, slots.length - i);
+            return new Node(bitmap | bit, copy);
+        }
+
+        Node without(int bit) {
+            int i = index(bit);
+            Object[] copy = new Object[slots.length - 1];
+            System.arraycopy(slots, 0, copy, 0, i);
+            System.arraycopy(slots, i + 1, copy, i, slots.length - i - 1);
+            return new Node(bitmap & ~bit, copy);
+        }
+    }
+
+    private static int bit(int key, int shift) {
+        return 1 << ((key >>> shift) & MASK);
+    }
+
+    // ==================== LOOKUP ====================
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        Object slot = find(root, key, 0);
+        return slot == null ? null : (V) ((Entry) slot).value;
+    }
+
+    public boolean containsKey(int key) {
+        return find(root, key, 0) != null;
+    }
+
+    private static Entry find(Node node, int key, int shift) {
+        while (true) {
+            int bit = bit(key, shift);
+            if ((node.bitmap & bit) == 0) return null;
+            Object slot = node.slots[node.index(bit)];
+            if (slot instanceof Entry) {
+                Entry entry = (Entry) slot;
+                return entry.key == key ? entry : null;
+            }
+            node = (Node) slot;
+            shift += BITS;
+        }
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    // ==================== UPDATE ====================
+
+    /**
+     * Map with key bound to value; this map when it already was.
+     */
+    public PersistentIntMap<V> put(int key, V value) {
+        Entry existing = find(root, key, 0);
+        if (existing != null && existing.value == value) return this;
+        Node next = put(root, new Entry(key, value), 0);
+        return new PersistentIntMap<>(next, existing == null ? size + 1 : size);
+    }
+
+    private static Node put(Node node, Entry entry, int shift) {
+        int bit = bit(entry.key, shift);
+        if ((node.bitmap & bit) == 0) {
+            return node.with(bit, entry);
+        }
+        Object slot = node.slots[node.index(bit)];
+        if (slot instanceof Node) {
+            return node.with(bit, put((Node) slot, entry, shift + BITS));
+        }
+        Entry other = (Entry) slot;
+        if (other.key == entry.key) {
+            return node.with(bit, entry);
+        }
+        return node.with(bit, split(other, entry, shift + BITS));
+    }
+
+    private static Node split(Entry a, Entry b, int shift) {
+        int bitA = bit(a.key, shift);
+        int bitB = bit(b.key, shift);
+        if (bitA == bitB) {
+            return new Node(bitA, new Object[] { split(a, b, shift + BITS) });
+        }
+        return Integer.compareUnsigned(bitA, bitB) < 0
+            ? new Node(bitA | bitB, new Object[] { a, b })
+            : new Node(bitA | bitB, new Object[] { b, a });
+    }
+
+    /**
+     * Map without key; this map when it was absent.
+     */
+    public PersistentIntMap<V> remove(int key) {
+        if (find(root, key, 0) == null) return this;
+        Node next = (Node) remove(root, key, 0); // The root never collapses into an entry
+        return new PersistentIntMap<>(next == null ? EMPTY.root : next, size - 1);
+    }
+
+    /**
+     * Remove key below node; returns the replacement slot: a node, a lone
+     * entry to pull up into the parent, or null when nothing is left.
+     */
+    private static Object remove(Node node, int key, int shift) {
+        int bit = bit(key, shift);
+        int i = node.index(bit);
+        Object slot = node.slots[i];
+        Object replacement = slot instanceof Entry ? null : remove((Node) slot, key, shift + BITS);
+        if (replacement == null) {
+            if (node.slots.length == 1) return null;
+            if (node.slots.length == 2 && shift > 0) {
+                Object survivor = node.slots[1 - i];
+                if (survivor instanceof Entry) return survivor; // Collapse the chain
+            }
+            return node.without(bit);
+        }
+        if (replacement instanceof Entry && node.slots.length == 1 && shift > 0) {
+            return replacement;
+        }
+        return node.with(bit, replacement);
+    }
+
+    // ==================== TRAVERSAL ====================
+
+    public void forEach(EntryVisitor<V> visitor) {
+        forEach(root, visitor);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> void forEach(Object slot, EntryVisitor<V> visitor) {
+        if (slot instanceof Entry) {
+            Entry entry = (Entry) slot;
+            visitor.visit(entry.key, (V) entry.value);
+            return;
+        }
+        for (Object child : ((Node) slot).slots) {
+            forEach(child, visitor);
+        }
+    }
+
+    /**
+     * Report how other differs from this map. Subtrees the two versions
+     * share are skipped, so the cost follows the number of changes.
+     */
+    public void diff(PersistentIntMap<V> other, DiffVisitor<V> visitor) {
+        diffSlots(root, other.root, 0, visitor);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> void diffSlots(Object a, Object b, int shift, DiffVisitor<V> visitor) {
+        if (a == b) return;
+        if (a == null) {
+            forEach(b, (key, value) -> visitor.added(key, (V) value));
+        } else if (b == null) {
+            forEach(a, (key, value) -> visitor.removed(key, (V) value));
+        } else if (a instanceof Node && b instanceof Node) {
+            Node na = (Node) a;
+            Node nb = (Node) b;
+            int bits = na.bitmap | nb.bitmap;
+            while (bits != 0) {
+                int bit = bits & -bits;
+                bits &= ~bit;
+                Object sa = (na.bitmap & bit) != 0 ? na.slots[na.index(bit)] : null;
+                Object sb = (nb.bitmap & bit) != 0 ? nb.slots[nb.index(bit)] : null;
+                diffSlots(sa, sb, shift + BITS, visitor);
+            }
+        } else if (a instanceof Entry && b instanceof Entry) {
+            Entry ea = (Entry) a;
+            Entry eb = (Entry) b;
+            if (ea.key == eb.key) {
+                if (!Objects.equals(ea.value, eb.value)) visitor.changed(ea.key, (V) ea.value, (V) eb.value);
+            } else {
+                visitor.removed(ea.key, (V) ea.value);
+                visitor.added(eb.key, (V) eb.value);
+            }
+        } else if (a instanceof Entry) {
+            Entry ea = (Entry) a;
+            forEach(b, (key, value) -> {
+                if (key != ea.key) {
+                    visitor.added(key, (V) value);
+                } else if (!Objects.equals(ea.value, value)) {
+                    visitor.changed(key, (V) ea.value, (V) value);
+                }
+            });
+            if (find((Node) b, ea.key, shift) == null) visitor.removed(ea.key, (V) ea.value);
+        } else {
+            Entry eb = (Entry) b;
+            forEach(a, (key, value) -> {
+                if (key != eb.key) {
+                    visitor.removed(key, (V) value);
+                } else if (!Objects.equals(value, eb.value)) {
+                    visitor.changed(key, (V) value, (V) eb.value);
+                }
+            });
+            if (find((Node) a, eb.key, shift) == null) visitor.added(eb.key, (V) eb.value);
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package dsa;
+
+import java.util.*;
+
+/**
+ * Path-compressed (radix) trie.
+ * Same case-insensitive API as Trie, but each edge holds a char[] label,
+ * children are kept in arrays sorted by first char (binary search, no boxing),
+ * and every node tracks how many words live below it, so word counts are O(1)
+ * and prefix enumeration can stop after a fixed number of results.
+ */
+public class RadixTrie {
+    private static final char[] EMPTY = new char[0];
+
+    private final RadixNode root = new RadixNode(EMPTY);
+
+    private static final class RadixNode {
+        char[] label;           // edge label from parent, lowercase
+        char[] firstChars = EMPTY;
+        RadixNode[] children = new RadixNode[0];
+        int childCount = 0;
+        boolean isEndOfWord = false;
+        String value;           // original word at end nodes
+        int wordCount = 0;      // words in this subtree, including this node
+
+        RadixNode(char[] label) {
+            this.label = label;
+        }
+
+        int indexOf(char c) {
+            int lo = 0;
+            int hi = childCount - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                char m = firstChars[mid];
+                if (m < c) lo = mid + 1;
+                else if (m > c) hi = mid - 1;
+                else return mid;
+            }
+            return -(lo + 1);
+        }
+
+        void insertChild(int pos, RadixNode child) {
+            if (childCount == children.length) {
+                int capacity = Math.max(2, childCount * 2);
+                children = Arrays.copyOf(children, capacity);
+                firstChars = Arrays.copyOf(firstChars, capacity);
+            }
+            System.arraycopy(children, pos, children, pos + 1, childCount - pos);
+            System.arraycopy(firstChars, pos, firstChars, pos + 1, childCount - pos);
+            children[pos] = child;
+            firstChars[pos] = child.label[0];
+            childCount++;
+        }
+
+        void removeChild(int pos) {
+            System.arraycopy(children, pos + 1, children, pos, childCount - pos - 1);
+            System.arraycopy(firstChars, pos + 1, firstChars, pos, childCount - pos - 1);
+            childCount--;
+            children[childCount] = null;
+        }
+    }
+
+    private static char lower(String s, int i) {
+        return Character.toLowerCase(s.charAt(i));
+    }
+
+    private static char[] lowerSlice(String s, int from) {
+        char[] out = new char[s.length() - from];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = lower(s, from + i);
+        }
+        return out;
+    }
+
+    /**
+     * Insert a word into the trie.
+     */
+    public void insert(String word) {
+        if (word == null || word.isEmpty()) return;
+
+        RadixNode existing = findExact(word);
+        if (existing != null && existing.isEndOfWord) {
+            existing.value = word;
+            return;
+        }
+
+        RadixNode node = root;
+        node.wordCount++;
+        int i = 0;
+        int len = word.length();
+        while (true) {
+            if (i == len) {
+                node.isEndOfWord = true;
+                node.value = word;
+                return;
+            }
+
+            int idx = node.indexOf(lower(word, i));
+            if (idx < 0) {
+                node.insertChild(-idx - 1, newLeaf(word, i));
+                return;
+            }
+
+            RadixNode child = node.children[idx];
+            int m = matchLength(child.label, word, i);
+            if (m == child.label.length) {
+                child.wordCount++;
+                node = child;
+                i += m;
+                continue;
+            }
+
+            // Split the edge at the first mismatch
+            RadixNode mid = new RadixNode(Arrays.copyOf(child.label, m));
+            mid.wordCount = child.wordCount + 1;
+            child.label = Arrays.copyOfRange(child.label, m, child.label.length);
+            mid.insertChild(0, child);
+            node.children[idx] = mid;
+
+            i += m;
+            if (i == len) {
+                mid.isEndOfWord = true;
+                mid.value = word;
+            } else {
+                RadixNode leaf = newLeaf(word, i);
+                mid.insertChild(leaf.label[0] < child.label[0] ? 0 : 1, leaf);
+            }
+            return;
+        }
+    }
+
+    private static RadixNode newLeaf(String word, int from) {
+        RadixNode leaf = new RadixNode(lowerSlice(word, from));
+        leaf.isEndOfWord = true;
+        leaf.value = word;
+        leaf.wordCount = 1;
+        return leaf;
+    }
+
+    private static int matchLength(char[] label, String s, int from) {
+        int max = Math.min(label.length, s.length() - from);
+        int m = 0;
+        while (m < max && label[m] == lower(s, from + m)) m++;
+        return m;
+    }
+
+    /**
+     * Search for exact word match.
+     */
+    public boolean search(String word) {
+        RadixNode node = findExact(word);
+        return node != null && node.isEndOfWord;
+    }
+
+    /**
+     * Check if any word starts with given prefix.
+     */
+    public boolean startsWith(String prefix) {
+        return findPrefix(prefix) != null;
+    }
+
+    /**
+     * Get all words with given prefix (autocomplete).
+     */
+    public List<String> getWordsWithPrefix(String prefix) {
+        return getWordsWithPrefix(prefix, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get at most limit words with given prefix, in lexicographic order.
+     */
+    public List<String> getWordsWithPrefix(String prefix, int limit) {
+        List<String> results = new ArrayList<>();
+        RadixNode start = findPrefix(prefix);
+        if (start == null || limit <= 0) return results;
+
+        Deque<RadixNode> stack = new ArrayDeque<>();
+        stack.push(start);
+        while (!stack.isEmpty() && results.size() < limit) {
+            RadixNode node = stack.pop();
+            if (node.isEndOfWord) {
+                results.add(node.value);
+            }
+            for (int c = node.childCount - 1; c >= 0; c--) {
+                stack.push(node.children[c]);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Number of words with given prefix, in O(prefix length).
+     */
+    public int countWordsWithPrefix(String prefix) {
+        RadixNode node = findPrefix(prefix);
+        return node == null ? 0 : node.wordCount;
+    }
+
+    /**
+     * Node whose path spells exactly the word, or null.
+     */
+    private RadixNode findExact(String word) {
+        if (word == null) return null;
+
+        RadixNode node = root;
+        int i = 0;
+        int len = word.length();
+        while (i < len) {
+            int idx = node.indexOf(lower(word, i));
+            if (idx < 0) return null;
+            RadixNode child = node.children[idx];
+            int m = matchLength(child.label, word, i);
+            if (m != child.label.length) return null;
+            node = child;
+            i += m;
+        }
+        return node;
+    }
+
+    /**
+     * Topmost node whose subtree holds every word with the prefix, or null.
+     * The prefix may end part-way along that node's edge label.
+     */
+    private RadixNode findPrefix(String prefix) {
+        if (prefix == null) return null;
+
+        RadixNode node = root;
+        int i = 0;
+        int len = prefix.length();
+        while (i < len) {
+            int idx = node.indexOf(lower(prefix, i));
+            if (idx < 0) return null;
+            RadixNode child = node.children[idx];
+            int m = matchLength(child.label, prefix, i);
+            if (i + m == len) return child;
+            if (m != child.label.length) return null;
+            node = child;
+            i += m;
+        }
+        return node;
+    }
+
+    /**
+     * Delete a word from the trie.
+     */
+    public boolean delete(String word) {
+        if (!search(word)) return false;
+
+        RadixNode grandparent = null;
+        RadixNode parent = null;
+        int parentIdx = -1;
+        int nodeIdx = -1;
+        RadixNode node = root;
+        node.wordCount--;
+        int i = 0;
+        while (i < word.length()) {
+            int idx = node.indexOf(lower(word, i));
+            RadixNode child = node.children[idx];
+            child.wordCount--;
+            grandparent = parent;
+            parentIdx = nodeIdx;
+            parent = node;
+            nodeIdx = idx;
+            node = child;
+            i += child.label.length;
+        }
+
+        node.isEndOfWord = false;
+        node.value = null;
+
+        if (node == root) return true;
+        if (node.childCount == 0) {
+            parent.removeChild(nodeIdx);
+            // The parent may now be a pass-through node that can be merged away
+            if (parent != root && !parent.isEndOfWord && parent.childCount == 1) {
+                grandparent.children[parentIdx] = merge(parent);
+            }
+        } else if (node.childCount == 1) {
+            parent.children[nodeIdx] = merge(node);
+        }
+        return true;
+    }
+
+    /**
+     * Fold a non-word node with a single child into that child.
+     */
+    private static RadixNode merge(RadixNode node) {
+        RadixNode child = node.children[0];
+        char[] label = new char[node.label.length + child.label.length];
+        System.arraycopy(node.label, 0, label, 0, node.label.length);
+        System.arraycopy(child.label, 0, label, node.label.length, child.label.length);
+        child.label = label;
+        return child;
+    }
+
+    /**
+     * Get count of all words in the trie.
+     */
+    public int getWordCount() {
+        return root.wordCount;
+    }
+
+    /**
+     * Find longest common prefix among all words.
+     */
+    public String getLongestCommonPrefix() {
+        StringBuilder prefix = new StringBuilder();
+        RadixNode current = root;
+
+        while (current.childCount == 1 && !current.isEndOfWord) {
+            current = current.children[0];
+            prefix.append(current.label);
+        }
+
+        return prefix.toString();
+    }
+}
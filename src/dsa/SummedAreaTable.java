@@ -0,0 +1,70 @@
+package dsa;
+
+import java.util.Arrays;
+
+/**
+ * Summed-area table (2D prefix sums) for O(1) rectangle queries.
+ *
+ * Accumulate values with add(), call build(), then query with sum().
+ * Meant for data that is rebuilt in bulk each frame (e.g. enemy threat),
+ * where a rebuild is O(w * h) and every query afterwards is O(1).
+ * Rectangles are inclusive and clamped to the grid.
+ */
+public class SummedAreaTable {
+    private final int width;
+    private final int height;
+    private final double[] cells;
+    private final double[] prefix; // (width + 1) * (height + 1), row 0 / column 0 are zero
+
+    public SummedAreaTable(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.cells = new double[width * height];
+        this.prefix = new double[(width + 1) * (height + 1)];
+    }
+
+    public void clear() {
+        Arrays.fill(cells, 0);
+    }
+
+    public void add(int x, int y, double value) {
+        if (x < 0 || x >= width || y < 0 || y >= height) return;
+        cells[x * height + y] += value;
+    }
+
+    /**
+     * Recompute prefix sums from the accumulated cells.
+     */
+    public void build() {
+        int stride = height + 1;
+        for (int x = 0; x < width; x++) {
+            double rowSum = 0;
+            int base = (x + 1) * stride;
+            int above = x * stride;
+            for (int y = 0; y < height; y++) {
+                rowSum += cells[x * height + y];
+                prefix[base + y + 1] = prefix[above + y + 1] + rowSum;
+            }
+        }
+    }
+
+    /**
+     * Sum of all cells with x1 <= x <= x2 and y1 <= y <= y2.
+     */
+    public double sum(int x1, int y1, int x2, int y2) {
+        x1 = Math.max(x1, 0);
+        y1 = Math.max(y1, 0);
+        x2 = Math.min(x2, width - 1);
+        y2 = Math.min(y2, height - 1);
+        if (x1 > x2 || y1 > y2) return 0;
+
+        int stride = height + 1;
+        return prefix[(x2 + 1) * stride + y2 + 1]
+             - prefix[x1 * stride + y2 + 1]
+             - prefix[(x2 + 1) * stride + y1]
+             + prefix[x1 * stride + y1];
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+}
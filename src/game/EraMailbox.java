@@ -0,0 +1,147 @@
+package game;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free single-producer, single-consumer queue of cross-era effects
+ * between two ParallelEras threads.
+ *
+ * Messages are (tick, event type, x, y) rows in preallocated int arrays.
+ * The producer writes a row and then publishes it with a release store of
+ * the tail; the consumer reads the tail with an acquire load, reads the
+ * rows and releases them by advancing the head. No locks and, once
+ * running, no allocation.
+ *
+ * seal(tick) promises that every message of that tick has been offered, so
+ * a consumer that waits for the seal and then drains only older ticks sees
+ * exactly the same messages however the threads were scheduled.
+ *
+ * The ring itself is bounded, but a consumer that is waiting for anything
+ * calls pump(), which moves every published row into a consumer-owned
+ * spill that grows as needed. A producer that fills the ring within one
+ * tick therefore only waits for its consumer to reach a wait, never for it
+ * to finish a tick - which may itself be waiting on the producer.
+ */
+final class EraMailbox {
+
+    interface Receiver {
+        void receive(int type, int x, int y);
+    }
+
+    private final int mask;
+    private final int[] ticks;
+    private final int[] types;
+    private final int[] xs;
+    private final int[] ys;
+    private final AtomicLong head = new AtomicLong(); // next row to read, consumer-owned
+    private final AtomicLong tail = new AtomicLong(); // next row to write, producer-owned
+    private volatile int sealedTick = -1;
+
+    // Consumer-owned overflow, older than anything still in the ring
+    private int[] spill = new int[0]; // 4 ints per row: tick, type, x, y
+    private int spillHead = 0;
+    private int spillSize = 0;
+
+    EraMailbox(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        ticks = new int[size];
+        types = new int[size];
+        xs = new int[size];
+        ys = new int[size];
+    }
+
+    // ==================== PRODUCER ====================
+
+    /**
+     * Queue a message; false when the ring is full. The caller must wait
+     * and retry rather than drop it - dropping would make the result depend
+     * on how far the consumer had got.
+     */
+    boolean offer(int tick, int type, int x, int y) {
+        long t = tail.get();
+        if (t - head.get() > mask) return false;
+        int i = (int) (t & mask);
+        ticks[i] = tick;
+        types[i] = type;
+        xs[i] = x;
+        ys[i] = y;
+        tail.lazySet(t + 1); // Publish the row
+        return true;
+    }
+
+    void seal(int tick) {
+        sealedTick = tick;
+    }
+
+    // ==================== CONSUMER ====================
+
+    boolean isSealed(int tick) {
+        return sealedTick >= tick;
+    }
+
+    /**
+     * Move every published row into the spill, freeing the ring for the
+     * producer. Returns the number moved.
+     */
+    int pump() {
+        long h = head.get();
+        long t = tail.get();
+        int n = (int) (t - h);
+        if (n == 0) return 0;
+        if (spillHead > 0 && spillHead == spillSize) {
+            spillHead = 0;
+            spillSize = 0;
+        }
+        int needed = (spillSize + n) * 4;
+        if (spill.length < needed) {
+            spill = Arrays.copyOf(spill, Math.max(needed, spill.length * 2));
+        }
+        for (; h < t; h++) {
+            int i = (int) (h & mask);
+            int s = spillSize++ * 4;
+            spill[s] = ticks[i];
+            spill[s + 1] = types[i];
+            spill[s + 2] = xs[i];
+            spill[s + 3] = ys[i];
+        }
+        head.lazySet(h);
+        return n;
+    }
+
+    /**
+     * Hand every queued message older than tick to receiver, in order.
+     */
+    int drainBefore(int tick, Receiver receiver) {
+        int drained = 0;
+        while (spillHead < spillSize) {
+            int s = spillHead * 4;
+            if (spill[s] >= tick) return drained; // The ring is newer still
+            receiver.receive(spill[s + 1], spill[s + 2], spill[s + 3]);
+            spillHead++;
+            drained++;
+        }
+        long h = head.get();
+        long t = tail.get();
+        while (h < t) {
+            int i = (int) (h & mask);
+            if (ticks[i] >= tick) break;
+            receiver.receive(types[i], xs[i], ys[i]);
+            h++;
+            drained++;
+        }
+        head.lazySet(h);
+        return drained;
+    }
+
+    int getSpilled() { return spillSize - spillHead; }
+
+    void reset() {
+        head.set(0);
+        tail.set(0);
+        sealedTick = -1;
+        spillHead = 0;
+        spillSize = 0;
+    }
+}
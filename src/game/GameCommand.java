@@ -0,0 +1,96 @@
+package game;
+
+/**
+ * Input handed from the view to the simulation.
+ *
+ * Like player.Action, a command is a type plus optional values and a
+ * parameter, but it carries continuous values (a move vector, an aim angle)
+ * and is immutable, so it can be queued from the FX thread and applied on
+ * the simulation thread without further synchronization.
+ *
+ * FIRE, DASH and ULTIMATE are held buttons: the command reports a press or
+ * release and the simulation repeats the action every tick while held.
+ */
+public final class GameCommand {
+
+    public enum Type {
+        MOVE,
+        AIM,
+        FIRE,
+        DASH,
+        ULTIMATE,
+        SWITCH_TIMELINE,
+        TIMELINE_ABILITY,
+        TIME_SLOW,
+        SECONDARY_ABILITY,
+        REWIND,
+        ADD_SCORE,
+        EFFECT_DETAIL
+    }
+
+    private final Type type;
+    private final double x;
+    private final double y;
+    private final String parameter;
+
+    private GameCommand(Type type, double x, double y, String parameter) {
+        this.type = type;
+        this.x = x;
+        this.y = y;
+        this.parameter = parameter;
+    }
+
+    public static GameCommand of(Type type) {
+        return new GameCommand(type, 0, 0, null);
+    }
+
+    /**
+     * Movement direction held until the next MOVE; (0, 0) stops.
+     */
+    public static GameCommand move(double dx, double dy) {
+        return new GameCommand(Type.MOVE, dx, dy, null);
+    }
+
+    public static GameCommand aim(double angle) {
+        return new GameCommand(Type.AIM, angle, 0, null);
+    }
+
+    /**
+     * Press or release of a held button (FIRE, DASH or ULTIMATE).
+     */
+    public static GameCommand hold(Type button, boolean down) {
+        return new GameCommand(button, down ? 1 : 0, 0, null);
+    }
+
+    public static GameCommand switchTimeline(String timeline) {
+        return new GameCommand(Type.SWITCH_TIMELINE, 0, 0, timeline);
+    }
+
+    public static GameCommand addScore(int points) {
+        return new GameCommand(Type.ADD_SCORE, points, 0, null);
+    }
+
+    /**
+     * Particle multiplier and projectile trail length chosen by the view's
+     * quality level.
+     */
+    public static GameCommand effectDetail(double particleMultiplier, int trailLength) {
+        return new GameCommand(Type.EFFECT_DETAIL, particleMultiplier, trailLength, null);
+    }
+
+    public Type getType() { return type; }
+    public double getX() { return x; }
+    public double getY() { return y; }
+    public double getAngle() { return x; }
+    public boolean isDown() { return x != 0; }
+    public int getPoints() { return (int) x; }
+    public double getParticleMultiplier() { return x; }
+    public int getTrailLength() { return (int) y; }
+    public String getParameter() { return parameter; }
+
+    @Override
+    public String toString() {
+        return "GameCommand{type=" + type + ", x=" + x + ", y=" + y
+            + (parameter != null ? ", parameter=" + parameter : "") + "}";
+    }
+}
@@ -6,6 +6,7 @@ import timeline.Past;
 import timeline.Present;
 import timeline.Future;
 import java.util.*;
+import dsa.GridIndex;
 import util.GameSettings;
 import util.DifficultyConfig;
 import util.EnemyStats;
@@ -25,6 +26,23 @@ public class GameEngine {
     private List<DamageNumber> damageNumbers = new ArrayList<>();
     private List<Trap> traps = new ArrayList<>();
     
+    // Spatial index for view culling; rebuilt on demand by indexEntities()
+    private static final double INDEX_CELL_SIZE = 4;
+    private GridIndex<Enemy> enemyIndex;
+    private GridIndex<Projectile> projectileIndex;
+    private GridIndex<Collectible> collectibleIndex;
+    private GridIndex<Trap> trapIndex;
+    
+    // Entity ids, ascending in creation order; WorldHistory matches rows by id.
+    // Per engine and never rewound, so engines built from one seed number
+    // their entities alike whatever runs beside them
+    private int entityIds = 0;
+    
+    // Effect detail, scaled down by the view's quality governor under load
+    public static final int DEFAULT_TRAIL_LENGTH = 10;
+    private double particleMultiplier = 1.0;
+    private int trailLength = DEFAULT_TRAIL_LENGTH;
+    
     // Game state
     private int score = 0;
     private int combo = 0;
@@ -38,13 +56,32 @@ public class GameEngine {
     private long weatherChangeTime = 0;
     private long lastWeatherEffect = 0;
     
-    private Random random = new Random();
+    private final Random random;
 
     public GameEngine() {
+        this(new Random());
+    }
+    
+    /**
+     * Engine whose map layout and spawns come from seed, so engines built
+     * with the same seed start from the same world.
+     */
+    public GameEngine(long seed) {
+        this(new Random(seed));
+    }
+    
+    private GameEngine(Random random) {
+        this.random = random;
         this.map = new GridMap(25);
         this.past = new Past(map);
         this.present = new Present(map);
         this.future = new Future(map);
+        
+        int size = map.getSize();
+        this.enemyIndex = new GridIndex<>(size, size, INDEX_CELL_SIZE);
+        this.projectileIndex = new GridIndex<>(size, size, INDEX_CELL_SIZE);
+        this.collectibleIndex = new GridIndex<>(size, size, INDEX_CELL_SIZE);
+        this.trapIndex = new GridIndex<>(size, size, INDEX_CELL_SIZE);
 
         generateMap();
         spawnCollectibles();
@@ -164,13 +201,13 @@ public class GameEngine {
 
             EnemyType type = EnemyType.values()[random.nextInt(EnemyType.values().length)];
             int level = wave;
-            enemies.add(new Enemy(x, y, type, level));
+            addEnemy(new Enemy(x, y, type, level));
         }
     }
     
     public void spawnBoss() {
         int level = wave;
-        enemies.add(new Enemy(12, 12, EnemyType.BOSS, level));
+        addEnemy(new Enemy(12, 12, EnemyType.BOSS, level));
         bossSpawned = true;
     }
     
@@ -198,7 +235,7 @@ public class GameEngine {
             } while (!map.getNode(x, y).isWalkable());
             
             CollectibleType type = CollectibleType.values()[random.nextInt(CollectibleType.values().length)];
-            collectibles.add(new Collectible(x, y, type));
+            addCollectible(new Collectible(x, y, type));
         }
     }
     
@@ -269,7 +306,7 @@ public class GameEngine {
         Iterator<Projectile> projIt = projectiles.iterator();
         while (projIt.hasNext()) {
             Projectile p = projIt.next();
-            p.update();
+            p.update(trailLength);
             if (p.isDead()) projIt.remove();
         }
     }
@@ -312,10 +349,17 @@ public class GameEngine {
     }
     
     public void fireProjectile(double x, double y, double dx, double dy, boolean isPlayer) {
-        projectiles.add(new Projectile(x, y, dx, dy, isPlayer));
+        addProjectile(new Projectile(x, y, dx, dy, isPlayer));
     }
     
+    /**
+     * Spawn count particles, scaled by the particle multiplier; a burst never
+     * drops below one particle so every effect stays visible.
+     */
     public void spawnParticles(double x, double y, String type, int count) {
+        if (particleMultiplier != 1.0 && count > 0) {
+            count = Math.max(1, (int) Math.round(count * particleMultiplier));
+        }
         for (int i = 0; i < count; i++) {
             particles.add(new Particle(x, y, type));
         }
@@ -345,6 +389,124 @@ public class GameEngine {
         return null;
     }
 
+    /**
+     * Rebuild the spatial index from the current entity lists. Callers that
+     * remove entities through the list getters (collision handling) should
+     * call this again before querying. Enemies are indexed at their visual
+     * position, which is what gets drawn.
+     */
+    public void indexEntities() {
+        enemyIndex.clear();
+        for (Enemy e : enemies) enemyIndex.add(e, e.getVisualX(), e.getVisualY());
+        projectileIndex.clear();
+        for (Projectile p : projectiles) projectileIndex.add(p, p.getX(), p.getY());
+        collectibleIndex.clear();
+        for (Collectible c : collectibles) collectibleIndex.add(c, c.getX(), c.getY());
+        trapIndex.clear();
+        for (Trap t : traps) trapIndex.add(t, t.getX(), t.getY());
+    }
+    
+    /**
+     * Append entities inside the tile-space rectangle to out, in list order.
+     * Results come from the last indexEntities() call.
+     */
+    public List<Enemy> queryEnemies(double minX, double minY, double maxX, double maxY, List<Enemy> out) {
+        return enemyIndex.query(minX, minY, maxX, maxY, out);
+    }
+    
+    public List<Projectile> queryProjectiles(double minX, double minY, double maxX, double maxY, List<Projectile> out) {
+        return projectileIndex.query(minX, minY, maxX, maxY, out);
+    }
+    
+    public List<Collectible> queryCollectibles(double minX, double minY, double maxX, double maxY, List<Collectible> out) {
+        return collectibleIndex.query(minX, minY, maxX, maxY, out);
+    }
+    
+    public List<Trap> queryTraps(double minX, double minY, double maxX, double maxY, List<Trap> out) {
+        return trapIndex.query(minX, minY, maxX, maxY, out);
+    }
+    
+    // === REWIND ===
+    
+    private void addEnemy(Enemy e) {
+        e.id = ++entityIds;
+        enemies.add(e);
+    }
+    
+    private void addProjectile(Projectile p) {
+        p.id = ++entityIds;
+        projectiles.add(p);
+    }
+    
+    private void addCollectible(Collectible c) {
+        c.id = ++entityIds;
+        collectibles.add(c);
+    }
+    
+    /**
+     * Copy score, wave and the enemy, projectile and collectible lists into
+     * out (player values are the caller's).
+     */
+    void captureRewindState(WorldState out) {
+        out.header[WorldState.SCORE] = score;
+        out.header[WorldState.WAVE] = wave;
+        out.header[WorldState.KILLS] = kills;
+        out.header[WorldState.COMBO] = combo;
+        out.header[WorldState.BOSS_SPAWNED] = bossSpawned ? 1 : 0;
+        for (Enemy e : enemies) e.capture(out.enemies);
+        for (Projectile p : projectiles) p.capture(out.projectiles);
+        for (Collectible c : collectibles) c.capture(out.collectibles);
+    }
+    
+    /**
+     * Replace the world with a captured state. Entities still alive keep
+     * their object (and timers); entities that died since are recreated
+     * under their old id, so the lists stay in ascending id order.
+     */
+    void restoreRewindState(WorldState in) {
+        score = in.header[WorldState.SCORE];
+        wave = in.header[WorldState.WAVE];
+        kills = in.header[WorldState.KILLS];
+        combo = in.header[WorldState.COMBO];
+        bossSpawned = in.header[WorldState.BOSS_SPAWNED] != 0;
+        
+        WorldState.Table t = in.enemies;
+        List<Enemy> restoredEnemies = new ArrayList<>(t.count);
+        for (int r = 0, i = 0; r < t.count; r++) {
+            while (i < enemies.size() && enemies.get(i).id < t.id(r)) i++;
+            Enemy e = i < enemies.size() && enemies.get(i).id == t.id(r) ? enemies.get(i)
+                : new Enemy(0, 0, EnemyType.values()[t.get(r, WorldState.ENEMY_TYPE)], t.get(r, WorldState.ENEMY_LEVEL));
+            e.restore(t, r);
+            restoredEnemies.add(e);
+        }
+        enemies.clear();
+        enemies.addAll(restoredEnemies);
+        
+        t = in.projectiles;
+        List<Projectile> restoredProjectiles = new ArrayList<>(t.count);
+        for (int r = 0, i = 0; r < t.count; r++) {
+            while (i < projectiles.size() && projectiles.get(i).id < t.id(r)) i++;
+            Projectile p = i < projectiles.size() && projectiles.get(i).id == t.id(r) ? projectiles.get(i)
+                : new Projectile(0, 0, 0, 0, false);
+            p.restore(t, r);
+            restoredProjectiles.add(p);
+        }
+        projectiles.clear();
+        projectiles.addAll(restoredProjectiles);
+        
+        t = in.collectibles;
+        List<Collectible> restoredCollectibles = new ArrayList<>(t.count);
+        for (int r = 0, i = 0; r < t.count; r++) {
+            while (i < collectibles.size() && collectibles.get(i).id < t.id(r)) i++;
+            Collectible c = i < collectibles.size() && collectibles.get(i).id == t.id(r) ? collectibles.get(i)
+                : new Collectible(0, 0, CollectibleType.values()[t.get(r, WorldState.COLLECTIBLE_TYPE)]);
+            c.restore(t, r);
+            restoredCollectibles.add(c);
+        }
+        collectibles.clear();
+        collectibles.addAll(restoredCollectibles);
+    }
+    
     public GridMap getMap() { return map; }
     public Past getPast() { return past; }
     public Present getPresent() { return present; }
@@ -360,6 +522,16 @@ public class GameEngine {
     public int getWave() { return wave; }
     public int getKills() { return kills; }
     public WeatherType getCurrentWeather() { return currentWeather; }
+    public double getParticleMultiplier() { return particleMultiplier; }
+    public int getTrailLength() { return trailLength; }
+    
+    public void setParticleMultiplier(double particleMultiplier) {
+        this.particleMultiplier = Math.max(0, particleMultiplier);
+    }
+    
+    public void setTrailLength(int trailLength) {
+        this.trailLength = Math.max(0, trailLength);
+    }
     
     // === INNER CLASSES ===
     
@@ -399,6 +571,8 @@ public class GameEngine {
      * - Use final scaled stats from EnemyStats for gameplay
      */
     public static class Enemy {
+        private int id; // assigned by the engine that adds it
+        
         // Position
         private double x;
         private double y;
@@ -512,6 +686,31 @@ public class GameEngine {
         public boolean isHit() { return hit; }
         public boolean isVisible() { return visible; }
         public int getBossPhase() { return bossPhase; }
+        int getId() { return id; }
+        
+        void capture(WorldState.Table t) {
+            int base = t.add(id);
+            int[] row = t.rows;
+            row[base + WorldState.ENEMY_TYPE] = type.ordinal();
+            row[base + WorldState.ENEMY_LEVEL] = spawnLevel;
+            row[base + WorldState.ENEMY_X] = WorldState.fixed(x);
+            row[base + WorldState.ENEMY_Y] = WorldState.fixed(y);
+            row[base + WorldState.ENEMY_HEALTH] = health;
+            row[base + WorldState.ENEMY_ANGLE] = WorldState.fixed(angle);
+            row[base + WorldState.ENEMY_FLAGS] = (visible ? 1 : 0) | (hit ? 2 : 0) | bossPhase << 2;
+        }
+        
+        void restore(WorldState.Table t, int r) {
+            id = t.id(r);
+            x = visualX = WorldState.real(t.get(r, WorldState.ENEMY_X));
+            y = visualY = WorldState.real(t.get(r, WorldState.ENEMY_Y));
+            health = t.get(r, WorldState.ENEMY_HEALTH);
+            angle = WorldState.real(t.get(r, WorldState.ENEMY_ANGLE));
+            int flags = t.get(r, WorldState.ENEMY_FLAGS);
+            visible = (flags & 1) != 0;
+            hit = (flags & 2) != 0;
+            bossPhase = flags >> 2;
+        }
         
         public void takeDamage(int amount) {
             health -= amount;
@@ -587,7 +786,7 @@ public class GameEngine {
                     int sy = (int)y + engine.random.nextInt(3) - 1;
                     Node summonNode = map.getNode(sx, sy);
                     if (summonNode != null && summonNode.isWalkable()) {
-                        engine.enemies.add(new Enemy(sx, sy, EnemyType.CHASER));
+                        engine.addEnemy(new Enemy(sx, sy, EnemyType.CHASER));
                     }
                 }
                 lastSummon = System.currentTimeMillis();
@@ -678,7 +877,7 @@ public class GameEngine {
                     int sy = (int)y + engine.random.nextInt(5) - 2;
                     Node spawnNode = engine.getMap().getNode(sx, sy);
                     if (spawnNode != null && spawnNode.isWalkable()) {
-                        engine.enemies.add(new Enemy(sx, sy, EnemyType.TELEPORTER));
+                        engine.addEnemy(new Enemy(sx, sy, EnemyType.TELEPORTER));
                     }
                 }
                 lastSummon = System.currentTimeMillis();
@@ -707,7 +906,7 @@ public class GameEngine {
                     Node spawnNode = engine.getMap().getNode(sx, sy);
                     if (spawnNode != null && spawnNode.isWalkable()) {
                         EnemyType[] types = {EnemyType.CHASER, EnemyType.SHOOTER, EnemyType.TELEPORTER};
-                        engine.enemies.add(new Enemy(sx, sy, types[engine.random.nextInt(types.length)]));
+                        engine.addEnemy(new Enemy(sx, sy, types[engine.random.nextInt(types.length)]));
                     }
                 }
                 lastSummon = System.currentTimeMillis();
@@ -726,6 +925,7 @@ public class GameEngine {
     }
     
     public static class Projectile {
+        private int id; // assigned by the engine that adds it
         private double x;
         private double y;
         private double dx;
@@ -743,8 +943,15 @@ public class GameEngine {
         }
         
         public void update() {
-            trail.add(new double[]{x, y});
-            if (trail.size() > 10) trail.remove(0);
+            update(DEFAULT_TRAIL_LENGTH);
+        }
+        
+        /**
+         * Advance one tick, keeping at most maxTrail trail points.
+         */
+        public void update(int maxTrail) {
+            if (maxTrail > 0) trail.add(new double[]{x, y});
+            while (trail.size() > maxTrail) trail.remove(0);
             x += dx;
             y += dy;
             life--;
@@ -756,6 +963,28 @@ public class GameEngine {
         public boolean isPlayer() { return isPlayer; }
         public List<double[]> getTrail() { return trail; }
         
+        void capture(WorldState.Table t) {
+            int base = t.add(id);
+            int[] row = t.rows;
+            row[base + WorldState.PROJECTILE_X] = WorldState.fixed(x);
+            row[base + WorldState.PROJECTILE_Y] = WorldState.fixed(y);
+            row[base + WorldState.PROJECTILE_DX] = WorldState.fixed(dx);
+            row[base + WorldState.PROJECTILE_DY] = WorldState.fixed(dy);
+            row[base + WorldState.PROJECTILE_LIFE] = life;
+            row[base + WorldState.PROJECTILE_PLAYER] = isPlayer ? 1 : 0;
+        }
+        
+        void restore(WorldState.Table t, int r) {
+            id = t.id(r);
+            x = WorldState.real(t.get(r, WorldState.PROJECTILE_X));
+            y = WorldState.real(t.get(r, WorldState.PROJECTILE_Y));
+            dx = WorldState.real(t.get(r, WorldState.PROJECTILE_DX));
+            dy = WorldState.real(t.get(r, WorldState.PROJECTILE_DY));
+            life = t.get(r, WorldState.PROJECTILE_LIFE);
+            isPlayer = t.get(r, WorldState.PROJECTILE_PLAYER) != 0;
+            trail.clear();
+        }
+        
         public boolean isDead() { return life <= 0 || x < 0 || x > 25 || y < 0 || y > 25; }
     }
     
@@ -799,6 +1028,7 @@ public class GameEngine {
     }
     
     public static class Collectible {
+        private int id; // assigned by the engine that adds it
         private double x;
         private double y;
         private CollectibleType type;
@@ -817,6 +1047,21 @@ public class GameEngine {
         public CollectibleType getType() { return type; }
         public double getBobOffset() { return bobOffset; }
         public void updateBobOffset(double delta) { bobOffset += delta; }
+        
+        void capture(WorldState.Table t) {
+            int base = t.add(id);
+            int[] row = t.rows;
+            row[base + WorldState.COLLECTIBLE_X] = WorldState.fixed(x);
+            row[base + WorldState.COLLECTIBLE_Y] = WorldState.fixed(y);
+            row[base + WorldState.COLLECTIBLE_TYPE] = type.ordinal();
+        }
+        
+        void restore(WorldState.Table t, int r) {
+            id = t.id(r);
+            x = WorldState.real(t.get(r, WorldState.COLLECTIBLE_X));
+            y = WorldState.real(t.get(r, WorldState.COLLECTIBLE_Y));
+            type = CollectibleType.values()[t.get(r, WorldState.COLLECTIBLE_TYPE)];
+        }
     }
     
     public static class DamageNumber {
@@ -2,6 +2,7 @@ package game;
 
 import player.Player;
 import map.GridMap;
+import util.Constants;
 import java.util.logging.Logger;
 
 /**
@@ -17,9 +18,12 @@ public class MultiplayerManager {
     private Player presentPlayer;
     private Player futurePlayer;
     
-    private Thread pastThread;
-    private Thread presentThread;
-    private Thread futureThread;
+    // Background ticks for every player on a shared pool, not a thread each
+    private final TickScheduler scheduler =
+        new TickScheduler("Player-Scheduler", Constants.PLAYER_SCHEDULER_THREADS);
+    
+    // Simultaneous mode: one engine per timeline, see startParallelEras()
+    private ParallelEras parallelEras;
 
     public MultiplayerManager(GridMap map) {
         pastPlayer = new Player("PastPlayer", map, "PAST");
@@ -33,15 +37,11 @@ public class MultiplayerManager {
     }
 
     public void startAll() {
-        pastThread = new Thread(pastPlayer, "Past-Thread");
-        presentThread = new Thread(presentPlayer, "Present-Thread");
-        futureThread = new Thread(futurePlayer, "Future-Thread");
-        
-        pastThread.start();
-        presentThread.start();
-        futureThread.start();
+        scheduler.schedule(pastPlayer, Constants.PLAYER_TICK_MS);
+        scheduler.schedule(presentPlayer, Constants.PLAYER_TICK_MS);
+        scheduler.schedule(futurePlayer, Constants.PLAYER_TICK_MS);
         
-        logger.info("All player threads started!");
+        logger.info("All player ticks scheduled!");
     }
 
     public void stopAll() {
@@ -49,17 +49,44 @@ public class MultiplayerManager {
         presentPlayer.stop();
         futurePlayer.stop();
         
-        try {
-            pastThread.join(1000);
-            presentThread.join(1000);
-            futureThread.join(1000);
-        } catch (InterruptedException _) {
-            Thread.currentThread().interrupt();
-        }
+        scheduler.cancel(pastPlayer);
+        scheduler.cancel(presentPlayer);
+        scheduler.cancel(futurePlayer);
         
-        logger.info("All player threads stopped.");
+        logger.info("All player ticks stopped.");
     }
+    
+    /**
+     * Shared scheduler for extra simulated players and background systems.
+     */
+    public TickScheduler getScheduler() { return scheduler; }
 
+    /**
+     * Simulate each player's timeline in its own GameEngine on its own
+     * thread, all built from seed, with kills and opened paths crossing
+     * between eras at tick boundaries.
+     */
+    public ParallelEras startParallelEras(long seed, long tickNanos) {
+        stopParallelEras();
+        parallelEras = new ParallelEras(seed, tickNanos, followPlayer(pastPlayer),
+            followPlayer(presentPlayer), followPlayer(futurePlayer));
+        parallelEras.start();
+        logger.info("Parallel eras started!");
+        return parallelEras;
+    }
+    
+    public void stopParallelEras() {
+        if (parallelEras == null) return;
+        parallelEras.stop();
+        parallelEras = null;
+        logger.info("Parallel eras stopped.");
+    }
+    
+    private static ParallelEras.EraDriver followPlayer(Player player) {
+        return (engine, tick, outbox) -> engine.update(player.getX(), player.getY());
+    }
+    
+    public ParallelEras getParallelEras() { return parallelEras; }
     public Player getPastPlayer() { return pastPlayer; }
     public Player getPresentPlayer() { return presentPlayer; }
     public Player getFuturePlayer() { return futurePlayer; }
@@ -0,0 +1,285 @@
+package game;
+
+import timeline.Timeline.EventType;
+import timeline.TimelineRoutes;
+import timeline.TimelineManager.TimelineType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simulates PAST, PRESENT and FUTURE at the same time, one GameEngine per
+ * era, each on its own thread.
+ *
+ * The engines share nothing: each is built from the same seed, so they
+ * start from the same map layout, and each then owns its grid. Eras affect
+ * one another only through messages. An era posts an event (kills it
+ * observes are posted for it); the butterfly routes of TimelineRoutes turn
+ * it into derived events for the other eras, which travel through a
+ * lock-free single-producer mailbox per pair of eras.
+ *
+ * Tick protocol for era e at tick t:
+ * 1. for each other era in PAST, PRESENT, FUTURE order, wait until it has
+ *    sealed tick t - 1, then apply its messages from ticks before t;
+ * 2. run the era's driver for tick t;
+ * 3. post derived events stamped t, then seal t in every outgoing mailbox.
+ *
+ * So every era applies the same messages, in the same order, at the same
+ * tick, however the threads are scheduled, and no era runs more than one
+ * tick ahead of another. An era that waits - for a seal, or for room in a
+ * full mailbox - keeps pumping its inbound mailboxes into their spill, so
+ * bursts larger than a mailbox cannot deadlock two eras posting to each
+ * other. Given drivers that depend only on the tick and
+ * their engine, the cross-era results are reproducible; GameEngine still
+ * reads the wall clock for cooldowns and weather, which this cannot fix.
+ *
+ * Engines belong to their era threads while running; read them from a
+ * driver or after stop().
+ */
+public class ParallelEras {
+
+    /**
+     * Advances one era's engine by a tick; runs on that era's thread.
+     */
+    public interface EraDriver {
+        void step(GameEngine engine, int tick, Outbox outbox);
+
+        /**
+         * Apply an effect from another era, at the start of a tick.
+         */
+        default void receive(GameEngine engine, EventType type, int x, int y) {
+            applyDefault(engine, type, x, y);
+        }
+    }
+
+    /**
+     * Events raised by an era during its step, routed to the others.
+     */
+    public interface Outbox {
+        void post(EventType type, int x, int y);
+    }
+
+    private static final TimelineType[] ERAS = TimelineType.values();
+    private static final EventType[] TYPES = EventType.values();
+    private static final int MAILBOX_CAPACITY = 4096;
+    private static final double PREVENT_RADIUS = 2.0;
+    private static final long PARK_NANOS = 20_000;
+
+    private final long tickNanos;
+    private final Era[] eras = new Era[ERAS.length];
+    private final EraMailbox[][] mailboxes = new EraMailbox[ERAS.length][ERAS.length]; // [from][to]
+    private volatile boolean running = false;
+
+    /**
+     * tickNanos between ticks per era; 0 runs as fast as the slowest era.
+     */
+    public ParallelEras(long seed, long tickNanos, EraDriver past, EraDriver present, EraDriver future) {
+        this.tickNanos = tickNanos;
+        EraDriver[] drivers = { past, present, future };
+        for (int from = 0; from < ERAS.length; from++) {
+            for (int to = 0; to < ERAS.length; to++) {
+                if (from != to) mailboxes[from][to] = new EraMailbox(MAILBOX_CAPACITY);
+            }
+        }
+        for (int e = 0; e < ERAS.length; e++) {
+            eras[e] = new Era(ERAS[e], new GameEngine(seed), drivers[e]);
+        }
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        for (Era era : eras) {
+            era.thread = new Thread(era, era.type.name + "-Era");
+            era.thread.setDaemon(true);
+            era.thread.start();
+        }
+    }
+
+    /**
+     * Stop all eras and wait for them, so engines may be read afterwards.
+     */
+    public synchronized void stop() {
+        running = false;
+        for (Era era : eras) {
+            if (era.thread == null) continue;
+            try {
+                era.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            era.thread = null;
+        }
+    }
+
+    public GameEngine getEngine(TimelineType era) { return eras[era.ordinal()].engine; }
+    public int getTick(TimelineType era) { return eras[era.ordinal()].tick; }
+    public long getReceived(TimelineType era) { return eras[era.ordinal()].received; }
+    public boolean isRunning() { return running; }
+
+    /**
+     * Default effect of a routed event: prevented enemies vanish, opened
+     * paths become walkable. Echo events are cosmetic and left to drivers.
+     */
+    public static void applyDefault(GameEngine engine, EventType type, int x, int y) {
+        switch (type) {
+            case ENEMY_PREVENTED:
+                removeNearestEnemy(engine.getEnemies(), x + 0.5, y + 0.5);
+                break;
+            case PATH_OPENED:
+                engine.getMap().modifyTile(x, y, true);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static void removeNearestEnemy(List<GameEngine.Enemy> enemies, double x, double y) {
+        int best = -1;
+        double bestDist = PREVENT_RADIUS * PREVENT_RADIUS;
+        for (int i = 0; i < enemies.size(); i++) {
+            GameEngine.Enemy e = enemies.get(i);
+            double dx = e.getX() - x;
+            double dy = e.getY() - y;
+            double d = dx * dx + dy * dy;
+            if (d <= bestDist) { // Ties go to the later enemy, deterministically
+                bestDist = d;
+                best = i;
+            }
+        }
+        if (best >= 0) enemies.remove(best);
+    }
+
+    // ==================== ERA THREAD ====================
+
+    private final class Era implements Runnable, Outbox, EraMailbox.Receiver {
+        final TimelineType type;
+        final GameEngine engine;
+        final EraDriver driver;
+        Thread thread;
+        volatile int tick = 0;
+        volatile long received = 0;
+
+        // Enemies alive before this tick's step, ascending id, for kill detection
+        private int[] ids = new int[64];
+        private double[] xs = new double[64];
+        private double[] ys = new double[64];
+        private int count = 0;
+
+        Era(TimelineType type, GameEngine engine, EraDriver driver) {
+            this.type = type;
+            this.engine = engine;
+            this.driver = driver;
+        }
+
+        @Override
+        public void run() {
+            int me = type.ordinal();
+            long next = System.nanoTime();
+            while (running) {
+                if (tickNanos > 0) {
+                    long now = System.nanoTime();
+                    if (now < next) {
+                        LockSupport.parkNanos(next - now);
+                        continue;
+                    }
+                    next += tickNanos;
+                }
+                int t = tick;
+                for (int from = 0; from < ERAS.length; from++) {
+                    if (from == me) continue;
+                    if (!awaitSealed(mailboxes[from][me], t - 1)) return;
+                    received += mailboxes[from][me].drainBefore(t, this);
+                }
+                snapshotEnemies(); // After inbound effects, so prevented enemies are not kills
+                driver.step(engine, t, this);
+                postKills();
+                for (int to = 0; to < ERAS.length; to++) {
+                    if (to != me) mailboxes[me][to].seal(t);
+                }
+                tick = t + 1;
+            }
+        }
+
+        /**
+         * Wait until box is sealed through tick; false if stopped first.
+         */
+        private boolean awaitSealed(EraMailbox box, int tick) {
+            int spins = 0;
+            while (!box.isSealed(tick)) {
+                if (!running) return false;
+                idle(spins++);
+            }
+            return true;
+        }
+
+        /**
+         * One round of waiting: free room for producers blocked on this
+         * era, then spin or park.
+         */
+        private void idle(int spins) {
+            int me = type.ordinal();
+            int pumped = 0;
+            for (int from = 0; from < ERAS.length; from++) {
+                if (from != me) pumped += mailboxes[from][me].pump();
+            }
+            if (pumped > 0) return;
+            if (spins < 100) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+
+        @Override
+        public void receive(int event, int x, int y) {
+            driver.receive(engine, TYPES[event], x, y);
+        }
+
+        @Override
+        public void post(EventType event, int x, int y) {
+            for (int route : TimelineRoutes.DEFAULT.routesFor(type, event)) {
+                TimelineType target = TimelineRoutes.target(route);
+                if (target == type) continue;
+                EraMailbox box = mailboxes[type.ordinal()][target.ordinal()];
+                int derived = TimelineRoutes.type(route).ordinal();
+                for (int spins = 0; !box.offer(tick, derived, x, y); spins++) {
+                    if (!running) return;
+                    idle(spins);
+                }
+            }
+        }
+
+        /**
+         * Post ENEMY_KILLED where enemies from before the step have gone;
+         * ids only grow, so both lists merge in one pass.
+         */
+        private void postKills() {
+            List<GameEngine.Enemy> enemies = engine.getEnemies();
+            int j = 0;
+            for (int i = 0; i < count; i++) {
+                while (j < enemies.size() && enemies.get(j).getId() < ids[i]) j++;
+                if (j < enemies.size() && enemies.get(j).getId() == ids[i]) continue;
+                post(EventType.ENEMY_KILLED, (int) xs[i], (int) ys[i]);
+            }
+        }
+
+        private void snapshotEnemies() {
+            List<GameEngine.Enemy> enemies = engine.getEnemies();
+            int n = enemies.size();
+            if (ids.length < n) {
+                ids = Arrays.copyOf(ids, n * 2);
+                xs = Arrays.copyOf(xs, n * 2);
+                ys = Arrays.copyOf(ys, n * 2);
+            }
+            count = 0;
+            for (GameEngine.Enemy e : enemies) {
+                ids[count] = e.getId();
+                xs[count] = e.getX();
+                ys[count] = e.getY();
+                count++;
+            }
+        }
+    }
+}
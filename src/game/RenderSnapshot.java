@@ -0,0 +1,424 @@
+package game;
+
+import game.GameEngine.Collectible;
+import game.GameEngine.CollectibleType;
+import game.GameEngine.DamageNumber;
+import game.GameEngine.Enemy;
+import game.GameEngine.EnemyType;
+import game.GameEngine.Particle;
+import game.GameEngine.Projectile;
+import game.GameEngine.Trap;
+import game.GameEngine.TrapType;
+import player.Player;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Everything the view needs to draw one simulation tick, copied out of the
+ * engine into flat arrays.
+ *
+ * The simulation fills a snapshot with capture() and publishes it through a
+ * TripleBuffer; it does not touch it again until the buffer hands it back,
+ * so a published snapshot is effectively immutable and the renderer reads
+ * it without locks while the next tick runs. Arrays only grow, so capture
+ * stops allocating once they reach the usual entity counts.
+ *
+ * Detail arrays (enemies, projectiles, collectibles, traps, particles and
+ * damage numbers) only hold entities inside the view rectangle passed to
+ * capture(); enemy and collectible markers cover the whole map for the
+ * strategic map and threat panels.
+ */
+public final class RenderSnapshot {
+    private long tick;
+    private long publishNanos;
+    private int mapSize;
+
+    // Player and HUD values
+    private double playerX, playerY, playerVisualX, playerVisualY, aimAngle;
+    private int health, maxHealth, energy, maxEnergy, shield;
+    private boolean invincible;
+    private int score, wave, kills, waveKills, waveKillsRequired;
+    private String timeline = "PRESENT";
+    private long lastDashTime, lastUltimateTime;
+    private int bossHealth, bossMaxHealth;
+
+    // Enemies in view (skipping hidden INVISIBLE enemies)
+    private int enemyCount;
+    private double[] enemyX = new double[16], enemyY = new double[16], enemyAngle = new double[16];
+    private int[] enemyHealth = new int[16], enemyMaxHealth = new int[16];
+    private boolean[] enemyHit = new boolean[16];
+    private EnemyType[] enemyType = new EnemyType[16];
+
+    // Every enemy, at its logical position
+    private int markerCount;
+    private double[] markerX = new double[16], markerY = new double[16];
+    private EnemyType[] markerType = new EnemyType[16];
+
+    // Projectiles in view; trail points are flattened into one array pair
+    private int projectileCount;
+    private double[] projectileX = new double[16], projectileY = new double[16];
+    private boolean[] projectilePlayer = new boolean[16];
+    private int[] trailStart = new int[16], trailLength = new int[16];
+    private int trailPointCount;
+    private double[] trailX = new double[64], trailY = new double[64];
+
+    // Collectibles in view, plus every collectible for the map panel
+    private int collectibleCount;
+    private double[] collectibleX = new double[16], collectibleY = new double[16], collectibleBob = new double[16];
+    private CollectibleType[] collectibleType = new CollectibleType[16];
+    private int pickupCount;
+    private double[] pickupX = new double[16], pickupY = new double[16];
+    private CollectibleType[] pickupType = new CollectibleType[16];
+
+    private int trapCount;
+    private double[] trapX = new double[16], trapY = new double[16];
+    private TrapType[] trapType = new TrapType[16];
+
+    private int particleCount;
+    private double[] particleX = new double[64], particleY = new double[64], particleSize = new double[64];
+    private int[] particleLife = new int[64];
+    private String[] particleType = new String[64];
+
+    private int damageNumberCount;
+    private double[] damageNumberX = new double[16], damageNumberY = new double[16];
+    private int[] damageNumberValue = new int[16], damageNumberLife = new int[16];
+    private boolean[] damageNumberCrit = new boolean[16];
+
+    // Reusable index query results
+    private final List<Enemy> enemyQuery = new ArrayList<>();
+    private final List<Projectile> projectileQuery = new ArrayList<>();
+    private final List<Collectible> collectibleQuery = new ArrayList<>();
+    private final List<Trap> trapQuery = new ArrayList<>();
+
+    /**
+     * Copy engine and player state. Entities outside the rectangle (in
+     * tiles) are left out of the detail arrays.
+     */
+    public void capture(GameEngine engine, Player player, long tick,
+                        double minX, double minY, double maxX, double maxY) {
+        this.tick = tick;
+        this.mapSize = engine.getMap().getSize();
+        capturePlayer(engine, player);
+        engine.indexEntities();
+
+        enemyCount = 0;
+        enemyQuery.clear();
+        for (Enemy e : engine.queryEnemies(minX, minY, maxX, maxY, enemyQuery)) {
+            if (e.getType() == EnemyType.INVISIBLE && !e.isVisible()) continue;
+            ensureEnemies(enemyCount + 1);
+            int i = enemyCount++;
+            enemyX[i] = e.getVisualX();
+            enemyY[i] = e.getVisualY();
+            enemyAngle[i] = e.getAngle();
+            enemyHealth[i] = e.getHealth();
+            enemyMaxHealth[i] = e.getMaxHealth();
+            enemyHit[i] = e.isHit();
+            enemyType[i] = e.getType();
+        }
+
+        markerCount = 0;
+        bossHealth = bossMaxHealth = 0;
+        boolean bossFound = false;
+        for (Enemy e : engine.getEnemies()) {
+            ensureMarkers(markerCount + 1);
+            int i = markerCount++;
+            markerX[i] = e.getX();
+            markerY[i] = e.getY();
+            markerType[i] = e.getType();
+            if (!bossFound && e.getType() == EnemyType.BOSS) {
+                bossFound = true;
+                if (!e.isDead()) {
+                    bossHealth = e.getHealth();
+                    bossMaxHealth = e.getMaxHealth();
+                }
+            }
+        }
+
+        projectileCount = 0;
+        trailPointCount = 0;
+        projectileQuery.clear();
+        for (Projectile p : engine.queryProjectiles(minX, minY, maxX, maxY, projectileQuery)) {
+            ensureProjectiles(projectileCount + 1);
+            int i = projectileCount++;
+            projectileX[i] = p.getX();
+            projectileY[i] = p.getY();
+            projectilePlayer[i] = p.isPlayer();
+            List<double[]> trail = p.getTrail();
+            ensureTrail(trailPointCount + trail.size());
+            trailStart[i] = trailPointCount;
+            trailLength[i] = trail.size();
+            for (double[] point : trail) {
+                trailX[trailPointCount] = point[0];
+                trailY[trailPointCount] = point[1];
+                trailPointCount++;
+            }
+        }
+
+        collectibleCount = 0;
+        collectibleQuery.clear();
+        for (Collectible c : engine.queryCollectibles(minX, minY, maxX, maxY, collectibleQuery)) {
+            ensureCollectibles(collectibleCount + 1);
+            int i = collectibleCount++;
+            collectibleX[i] = c.getX();
+            collectibleY[i] = c.getY();
+            collectibleBob[i] = c.getBobOffset();
+            collectibleType[i] = c.getType();
+        }
+        pickupCount = 0;
+        for (Collectible c : engine.getCollectibles()) {
+            ensurePickups(pickupCount + 1);
+            int i = pickupCount++;
+            pickupX[i] = c.getX();
+            pickupY[i] = c.getY();
+            pickupType[i] = c.getType();
+        }
+
+        trapCount = 0;
+        trapQuery.clear();
+        for (Trap t : engine.queryTraps(minX, minY, maxX, maxY, trapQuery)) {
+            ensureTraps(trapCount + 1);
+            int i = trapCount++;
+            trapX[i] = t.getX();
+            trapY[i] = t.getY();
+            trapType[i] = t.getType();
+        }
+
+        particleCount = 0;
+        for (Particle p : engine.getParticles()) {
+            if (!inside(p.getX(), p.getY(), minX, minY, maxX, maxY)) continue;
+            ensureParticles(particleCount + 1);
+            int i = particleCount++;
+            particleX[i] = p.getX();
+            particleY[i] = p.getY();
+            particleSize[i] = p.getSize();
+            particleLife[i] = p.getLife();
+            particleType[i] = p.getType();
+        }
+
+        damageNumberCount = 0;
+        for (DamageNumber d : engine.getDamageNumbers()) {
+            if (!inside(d.getX(), d.getY(), minX, minY, maxX, maxY)) continue;
+            ensureDamageNumbers(damageNumberCount + 1);
+            int i = damageNumberCount++;
+            damageNumberX[i] = d.getX();
+            damageNumberY[i] = d.getY();
+            damageNumberValue[i] = d.getDamage();
+            damageNumberLife[i] = d.getLife();
+            damageNumberCrit[i] = d.isCrit();
+        }
+    }
+
+    private void capturePlayer(GameEngine engine, Player player) {
+        playerX = player.getX();
+        playerY = player.getY();
+        playerVisualX = player.getVisualX();
+        playerVisualY = player.getVisualY();
+        aimAngle = player.getAimAngle();
+        health = player.getHealth();
+        maxHealth = player.getMaxHealth();
+        energy = player.getEnergy();
+        maxEnergy = player.getMaxEnergy();
+        shield = player.getShield();
+        invincible = player.isInvincible();
+        score = engine.getScore();
+        wave = engine.getWave();
+    }
+
+    /**
+     * View-side progress counters that live outside the engine.
+     */
+    public void setProgress(String timeline, int kills, int waveKills, int waveKillsRequired) {
+        this.timeline = timeline;
+        this.kills = kills;
+        this.waveKills = waveKills;
+        this.waveKillsRequired = waveKillsRequired;
+    }
+
+    public void setCooldowns(long lastDashTime, long lastUltimateTime) {
+        this.lastDashTime = lastDashTime;
+        this.lastUltimateTime = lastUltimateTime;
+    }
+
+    /**
+     * Stamp the snapshot right before it is published; the renderer
+     * interpolates by the time elapsed since.
+     */
+    public void setPublishNanos(long publishNanos) {
+        this.publishNanos = publishNanos;
+    }
+
+    private static boolean inside(double x, double y, double minX, double minY, double maxX, double maxY) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY;
+    }
+
+    // ==================== CAPACITY ====================
+
+    private static int grown(int length, int needed) {
+        return Math.max(needed, length * 2);
+    }
+
+    private void ensureEnemies(int n) {
+        if (n <= enemyX.length) return;
+        int cap = grown(enemyX.length, n);
+        enemyX = Arrays.copyOf(enemyX, cap);
+        enemyY = Arrays.copyOf(enemyY, cap);
+        enemyAngle = Arrays.copyOf(enemyAngle, cap);
+        enemyHealth = Arrays.copyOf(enemyHealth, cap);
+        enemyMaxHealth = Arrays.copyOf(enemyMaxHealth, cap);
+        enemyHit = Arrays.copyOf(enemyHit, cap);
+        enemyType = Arrays.copyOf(enemyType, cap);
+    }
+
+    private void ensureMarkers(int n) {
+        if (n <= markerX.length) return;
+        int cap = grown(markerX.length, n);
+        markerX = Arrays.copyOf(markerX, cap);
+        markerY = Arrays.copyOf(markerY, cap);
+        markerType = Arrays.copyOf(markerType, cap);
+    }
+
+    private void ensureProjectiles(int n) {
+        if (n <= projectileX.length) return;
+        int cap = grown(projectileX.length, n);
+        projectileX = Arrays.copyOf(projectileX, cap);
+        projectileY = Arrays.copyOf(projectileY, cap);
+        projectilePlayer = Arrays.copyOf(projectilePlayer, cap);
+        trailStart = Arrays.copyOf(trailStart, cap);
+        trailLength = Arrays.copyOf(trailLength, cap);
+    }
+
+    private void ensureTrail(int n) {
+        if (n <= trailX.length) return;
+        int cap = grown(trailX.length, n);
+        trailX = Arrays.copyOf(trailX, cap);
+        trailY = Arrays.copyOf(trailY, cap);
+    }
+
+    private void ensureCollectibles(int n) {
+        if (n <= collectibleX.length) return;
+        int cap = grown(collectibleX.length, n);
+        collectibleX = Arrays.copyOf(collectibleX, cap);
+        collectibleY = Arrays.copyOf(collectibleY, cap);
+        collectibleBob = Arrays.copyOf(collectibleBob, cap);
+        collectibleType = Arrays.copyOf(collectibleType, cap);
+    }
+
+    private void ensurePickups(int n) {
+        if (n <= pickupX.length) return;
+        int cap = grown(pickupX.length, n);
+        pickupX = Arrays.copyOf(pickupX, cap);
+        pickupY = Arrays.copyOf(pickupY, cap);
+        pickupType = Arrays.copyOf(pickupType, cap);
+    }
+
+    private void ensureTraps(int n) {
+        if (n <= trapX.length) return;
+        int cap = grown(trapX.length, n);
+        trapX = Arrays.copyOf(trapX, cap);
+        trapY = Arrays.copyOf(trapY, cap);
+        trapType = Arrays.copyOf(trapType, cap);
+    }
+
+    private void ensureParticles(int n) {
+        if (n <= particleX.length) return;
+        int cap = grown(particleX.length, n);
+        particleX = Arrays.copyOf(particleX, cap);
+        particleY = Arrays.copyOf(particleY, cap);
+        particleSize = Arrays.copyOf(particleSize, cap);
+        particleLife = Arrays.copyOf(particleLife, cap);
+        particleType = Arrays.copyOf(particleType, cap);
+    }
+
+    private void ensureDamageNumbers(int n) {
+        if (n <= damageNumberX.length) return;
+        int cap = grown(damageNumberX.length, n);
+        damageNumberX = Arrays.copyOf(damageNumberX, cap);
+        damageNumberY = Arrays.copyOf(damageNumberY, cap);
+        damageNumberValue = Arrays.copyOf(damageNumberValue, cap);
+        damageNumberLife = Arrays.copyOf(damageNumberLife, cap);
+        damageNumberCrit = Arrays.copyOf(damageNumberCrit, cap);
+    }
+
+    // ==================== GETTERS ====================
+
+    public long getTick() { return tick; }
+    public long getPublishNanos() { return publishNanos; }
+    public int getMapSize() { return mapSize; }
+
+    public double getPlayerX() { return playerX; }
+    public double getPlayerY() { return playerY; }
+    public double getPlayerVisualX() { return playerVisualX; }
+    public double getPlayerVisualY() { return playerVisualY; }
+    public double getAimAngle() { return aimAngle; }
+    public int getHealth() { return health; }
+    public int getMaxHealth() { return maxHealth; }
+    public int getEnergy() { return energy; }
+    public int getMaxEnergy() { return maxEnergy; }
+    public int getShield() { return shield; }
+    public boolean isInvincible() { return invincible; }
+    public int getScore() { return score; }
+    public int getWave() { return wave; }
+    public int getKills() { return kills; }
+    public int getWaveKills() { return waveKills; }
+    public int getWaveKillsRequired() { return waveKillsRequired; }
+    public String getTimeline() { return timeline; }
+    public long getLastDashTime() { return lastDashTime; }
+    public long getLastUltimateTime() { return lastUltimateTime; }
+    public boolean hasBoss() { return bossMaxHealth > 0; }
+    public int getBossHealth() { return bossHealth; }
+    public int getBossMaxHealth() { return bossMaxHealth; }
+
+    public int getEnemyCount() { return enemyCount; }
+    public double getEnemyX(int i) { return enemyX[i]; }
+    public double getEnemyY(int i) { return enemyY[i]; }
+    public double getEnemyAngle(int i) { return enemyAngle[i]; }
+    public int getEnemyHealth(int i) { return enemyHealth[i]; }
+    public int getEnemyMaxHealth(int i) { return enemyMaxHealth[i]; }
+    public boolean isEnemyHit(int i) { return enemyHit[i]; }
+    public EnemyType getEnemyType(int i) { return enemyType[i]; }
+
+    public int getMarkerCount() { return markerCount; }
+    public double getMarkerX(int i) { return markerX[i]; }
+    public double getMarkerY(int i) { return markerY[i]; }
+    public EnemyType getMarkerType(int i) { return markerType[i]; }
+
+    public int getProjectileCount() { return projectileCount; }
+    public double getProjectileX(int i) { return projectileX[i]; }
+    public double getProjectileY(int i) { return projectileY[i]; }
+    public boolean isPlayerProjectile(int i) { return projectilePlayer[i]; }
+    public int getTrailStart(int i) { return trailStart[i]; }
+    public int getTrailLength(int i) { return trailLength[i]; }
+    public double getTrailX(int point) { return trailX[point]; }
+    public double getTrailY(int point) { return trailY[point]; }
+
+    public int getCollectibleCount() { return collectibleCount; }
+    public double getCollectibleX(int i) { return collectibleX[i]; }
+    public double getCollectibleY(int i) { return collectibleY[i]; }
+    public double getCollectibleBob(int i) { return collectibleBob[i]; }
+    public CollectibleType getCollectibleType(int i) { return collectibleType[i]; }
+
+    public int getPickupCount() { return pickupCount; }
+    public double getPickupX(int i) { return pickupX[i]; }
+    public double getPickupY(int i) { return pickupY[i]; }
+    public CollectibleType getPickupType(int i) { return pickupType[i]; }
+
+    public int getTrapCount() { return trapCount; }
+    public double getTrapX(int i) { return trapX[i]; }
+    public double getTrapY(int i) { return trapY[i]; }
+    public TrapType getTrapType(int i) { return trapType[i]; }
+
+    public int getParticleCount() { return particleCount; }
+    public double getParticleX(int i) { return particleX[i]; }
+    public double getParticleY(int i) { return particleY[i]; }
+    public double getParticleSize(int i) { return particleSize[i]; }
+    public int getParticleLife(int i) { return particleLife[i]; }
+    public String getParticleType(int i) { return particleType[i]; }
+
+    public int getDamageNumberCount() { return damageNumberCount; }
+    public double getDamageNumberX(int i) { return damageNumberX[i]; }
+    public double getDamageNumberY(int i) { return damageNumberY[i]; }
+    public int getDamageNumberValue(int i) { return damageNumberValue[i]; }
+    public int getDamageNumberLife(int i) { return damageNumberLife[i]; }
+    public boolean isDamageNumberCrit(int i) { return damageNumberCrit[i]; }
+}
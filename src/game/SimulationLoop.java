@@ -0,0 +1,108 @@
+package game;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed-rate simulation driver on a dedicated thread.
+ *
+ * Other threads hand input over with submit(). The queue is a lock-free
+ * ConcurrentLinkedQueue drained at the start of every tick, so commands are
+ * applied on the simulation thread, in submission order, between ticks.
+ * step() runs once per tickNanos; after a stall the loop catches up with at
+ * most MAX_CATCH_UP ticks and then drops the backlog, so a hiccup slows the
+ * game down briefly instead of fast-forwarding it.
+ */
+public class SimulationLoop<C> {
+
+    public interface Simulation<C> {
+        /** Apply one queued command; runs on the simulation thread. */
+        void apply(C command);
+
+        /** Advance one tick; return false to end the loop. */
+        boolean step();
+    }
+
+    private static final int MAX_CATCH_UP = 5;
+
+    private final Simulation<C> simulation;
+    private final long tickNanos;
+    private final Queue<C> commands = new ConcurrentLinkedQueue<>();
+    private volatile boolean running = false;
+    private volatile long ticks = 0;
+    private Thread thread;
+
+    public SimulationLoop(Simulation<C> simulation, long tickNanos) {
+        this.simulation = simulation;
+        this.tickNanos = tickNanos;
+    }
+
+    public synchronized void start(String name) {
+        if (thread != null) return;
+        running = true;
+        thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stop ticking and wait for the current tick to finish, so the caller
+     * may touch simulation state afterwards.
+     */
+    public synchronized void stop() {
+        running = false;
+        if (thread == null) return;
+        LockSupport.unpark(thread);
+        if (thread != Thread.currentThread()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        thread = null;
+        commands.clear();
+    }
+
+    public void submit(C command) {
+        commands.offer(command);
+    }
+
+    private void run() {
+        long next = System.nanoTime();
+        try {
+            while (running) {
+                long now = System.nanoTime();
+                if (now < next) {
+                    LockSupport.parkNanos(next - now);
+                    continue;
+                }
+                for (int i = 0; i < MAX_CATCH_UP && running && now >= next; i++) {
+                    drainCommands();
+                    if (!simulation.step()) {
+                        running = false;
+                    }
+                    ticks++;
+                    next += tickNanos;
+                }
+                if (now >= next) {
+                    next = now + tickNanos;
+                }
+            }
+        } finally {
+            running = false;
+        }
+    }
+
+    private void drainCommands() {
+        C command;
+        while ((command = commands.poll()) != null) {
+            simulation.apply(command);
+        }
+    }
+
+    public boolean isRunning() { return running; }
+    public long getTicks() { return ticks; }
+    public long getTickNanos() { return tickNanos; }
+}
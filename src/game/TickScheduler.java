@@ -0,0 +1,157 @@
+package game;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Shared fixed-rate scheduler for players and background systems.
+ *
+ * Tasks with the same period share one scheduled job: each wake-up runs
+ * every task of its group in registration order on one pool thread. A
+ * thousand players ticking at 20 Hz therefore cost 20 wake-ups a second,
+ * not 20 000, and no thread sleeps per player. The pool is a small
+ * ScheduledThreadPoolExecutor of daemon threads, so groups with different
+ * periods can run at the same time.
+ *
+ * Wake-ups, lateness against the schedule and the CPU time spent in tasks
+ * (from ThreadMXBean where supported) are counted for load tests; see
+ * getCpuNanosPerTaskRun().
+ *
+ * Tasks run off the caller's thread: state they touch must be safe to read
+ * from elsewhere (volatile or guarded), like Player's energy.
+ */
+public class TickScheduler {
+    private static final Logger logger = Logger.getLogger(TickScheduler.class.getName());
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final Map<Long, Group> groups = new ConcurrentHashMap<>();
+    private final boolean cpuTimed;
+
+    private final LongAdder wakeups = new LongAdder();
+    private final LongAdder taskRuns = new LongAdder();
+    private final LongAdder cpuNanos = new LongAdder();
+    private final LongAdder latenessNanos = new LongAdder();
+    private final LongAccumulator maxLatenessNanos = new LongAccumulator(Math::max, 0);
+
+    public TickScheduler(String name, int threads) {
+        AtomicInteger count = new AtomicInteger();
+        executor = new ScheduledThreadPoolExecutor(threads, r -> {
+            Thread thread = new Thread(r, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        cpuTimed = THREADS.isCurrentThreadCpuTimeSupported();
+        if (cpuTimed && !THREADS.isThreadCpuTimeEnabled()) {
+            THREADS.setThreadCpuTimeEnabled(true);
+        }
+    }
+
+    /**
+     * Run task every periodMillis, starting one period from now, until
+     * cancel(task) or shutdown().
+     */
+    public void schedule(Runnable task, long periodMillis) {
+        groups.compute(periodMillis, (period, group) -> {
+            if (group == null) group = startGroup(period);
+            group.tasks.add(task);
+            return group;
+        });
+    }
+
+    /**
+     * Stop running task; an empty group is unscheduled.
+     */
+    public void cancel(Runnable task) {
+        for (Long period : groups.keySet()) {
+            groups.computeIfPresent(period, (p, group) -> {
+                group.tasks.remove(task);
+                if (!group.tasks.isEmpty()) return group;
+                group.future.cancel(false);
+                return null;
+            });
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+        groups.clear();
+    }
+
+    private Group startGroup(long periodMillis) {
+        Group group = new Group(TimeUnit.MILLISECONDS.toNanos(periodMillis));
+        group.future = executor.scheduleAtFixedRate(group, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        return group;
+    }
+
+    private final class Group implements Runnable {
+        final long periodNanos;
+        final List<Runnable> tasks = new CopyOnWriteArrayList<>();
+        ScheduledFuture<?> future;
+        private long due; // Only touched by the group's own runs, which never overlap
+
+        Group(long periodNanos) {
+            this.periodNanos = periodNanos;
+            this.due = System.nanoTime() + periodNanos;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            long late = Math.max(0, start - due);
+            due += periodNanos;
+            long cpuStart = cpuTimed ? THREADS.getCurrentThreadCpuTime() : 0;
+            int ran = 0;
+            for (Runnable task : tasks) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    logger.log(Level.WARNING, "Scheduled task failed", e); // Keep the group alive
+                }
+                ran++;
+            }
+            if (cpuTimed) cpuNanos.add(THREADS.getCurrentThreadCpuTime() - cpuStart);
+            wakeups.increment();
+            taskRuns.add(ran);
+            latenessNanos.add(late);
+            maxLatenessNanos.accumulate(late);
+        }
+    }
+
+    // ==================== STATS ====================
+
+    public int getTaskCount() {
+        int n = 0;
+        for (Group group : groups.values()) n += group.tasks.size();
+        return n;
+    }
+
+    public long getWakeups() { return wakeups.sum(); }
+    public long getTaskRuns() { return taskRuns.sum(); }
+    public long getCpuNanos() { return cpuNanos.sum(); }
+    public long getMaxLatenessNanos() { return maxLatenessNanos.get(); }
+    public boolean isCpuTimed() { return cpuTimed; }
+
+    public double getAverageLatenessNanos() {
+        long n = wakeups.sum();
+        return n == 0 ? 0 : (double) latenessNanos.sum() / n;
+    }
+
+    public double getCpuNanosPerTaskRun() {
+        long n = taskRuns.sum();
+        return n == 0 ? 0 : (double) cpuNanos.sum() / n;
+    }
+}
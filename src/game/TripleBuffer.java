@@ -0,0 +1,67 @@
+package game;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free single-producer / single-consumer triple buffer.
+ *
+ * The producer fills back() and calls publish(); the consumer calls
+ * acquire() and reads front(). Three instances rotate through the back,
+ * middle and front roles, so neither side ever waits for the other and the
+ * consumer always sees the newest complete value. Values the consumer never
+ * picked up are simply overwritten.
+ *
+ * The middle slot index and a "fresh" flag share one AtomicInteger; the
+ * getAndSet on publish/acquire is the only synchronization, and it also
+ * gives the consumer a happens-before edge over everything the producer
+ * wrote into the slot.
+ */
+public final class TripleBuffer<T> {
+    private static final int INDEX_MASK = 3;
+    private static final int FRESH = 4;
+
+    private final Object[] slots = new Object[3];
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;    // producer-owned
+    private int front = 2;   // consumer-owned
+
+    public TripleBuffer(Supplier<T> factory) {
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = factory.get();
+        }
+    }
+
+    /**
+     * The instance the producer may write; stable until the next publish().
+     */
+    @SuppressWarnings("unchecked")
+    public T back() {
+        return (T) slots[back];
+    }
+
+    /**
+     * Hand the back instance to the consumer and take a free one in exchange.
+     */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * Swap in the newest published instance, if there is one since the last
+     * call. Returns false (and leaves front() unchanged) otherwise.
+     */
+    public boolean acquire() {
+        if ((middle.get() & FRESH) == 0) return false;
+        front = middle.getAndSet(front) & INDEX_MASK;
+        return true;
+    }
+
+    /**
+     * The instance the consumer may read; stable until the next acquire().
+     */
+    @SuppressWarnings("unchecked")
+    public T front() {
+        return (T) slots[front];
+    }
+}
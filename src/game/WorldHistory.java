@@ -0,0 +1,450 @@
+package game;
+
+import java.util.Arrays;
+
+/**
+ * Bounded rewind history of the whole world: keyframes plus per-tick deltas
+ * in one preallocated byte ring.
+ *
+ * Every tick record() captures a WorldState and encodes it against the
+ * previous tick's. Only entities that appeared, vanished or changed are
+ * written, and for changed ones only the changed columns, as zigzag varints
+ * of the difference. Every keyframeInterval ticks the state is encoded
+ * against an empty one instead, so a restore never decodes more than that
+ * many deltas. When the ring runs out of bytes or frame slots the oldest
+ * frames are dropped, together with any deltas whose keyframe went first.
+ *
+ * Frames are stamped with a history clock that follows the caller's
+ * timestamps but counts a stall (pause, debugger) as a single tick, so a
+ * rewind is measured in played time. Lookups binary-search the stamps, and
+ * the player position is interpolated between the two frames around the
+ * requested time; entities come from the frame at or before it.
+ *
+ * Frame layout (all varints): a column mask and the changed header diffs,
+ * then per table a run of ops (id gap << 2 | op) in ascending id order -
+ * REMOVE, CHANGE (column mask + diffs) or ADD (every column) - closed by
+ * END.
+ *
+ * Recording and rewinding belong to the simulation thread; the statistics
+ * getters may be polled from any thread.
+ */
+public final class WorldHistory {
+    private static final int OP_END = 0;
+    private static final int OP_REMOVE = 1;
+    private static final int OP_CHANGE = 2;
+    private static final int OP_ADD = 3;
+    private static final WorldState EMPTY = new WorldState();
+    private static final long STALL_NANOS = 250_000_000L;
+
+    private final int keyframeInterval;
+    private final long tickNanos;
+
+    // Encoded frames; positions are absolute byte counts masked into data
+    private final byte[] data;
+    private final int mask;
+    private long writePos = 0;
+    private long cursor = 0;
+
+    // Frame index ring; oldest is always a keyframe
+    private final int maxFrames;
+    private final long[] frameStart;
+    private final long[] frameTime;
+    private final boolean[] frameKey;
+    private int oldest = 0;
+    private int frameCount = 0;
+    private int sinceKeyframe = 0;
+    private long clock = 0;
+    private long lastRecordNanos = 0;
+
+    private byte[] staging = new byte[4096];
+    private int stagingLength = 0;
+
+    private WorldState previous = new WorldState();
+    private WorldState current = new WorldState();
+    private WorldState decodeA = new WorldState();
+    private WorldState decodeB = new WorldState();
+    private WorldState restored = EMPTY;
+    private double restoredPlayerX;
+    private double restoredPlayerY;
+
+    // Statistics, published after every record() and rewind()
+    private volatile long bytesHeld = 0;
+    private volatile int framesHeld = 0;
+    private volatile long nanosHeld = 0;
+    private volatile long lastRestoreNanos = 0;
+
+    /**
+     * @param historyNanos played time that must stay restorable
+     * @param keyframeInterval ticks between full frames
+     * @param capacityBytes ring size, rounded up to a power of two
+     * @param tickNanos nominal length of one tick
+     */
+    public WorldHistory(long historyNanos, int keyframeInterval, int capacityBytes, long tickNanos) {
+        this.keyframeInterval = Math.max(1, keyframeInterval);
+        this.tickNanos = tickNanos;
+        int capacity = 1024;
+        while (capacity < capacityBytes) capacity <<= 1;
+        this.data = new byte[capacity];
+        this.mask = capacity - 1;
+        // A quarter of slack for catch-up bursts, plus one interval for the
+        // keyframe in front of the oldest restorable tick
+        int historyTicks = (int) (historyNanos / tickNanos);
+        this.maxFrames = historyTicks + historyTicks / 4 + this.keyframeInterval + 1;
+        this.frameStart = new long[maxFrames];
+        this.frameTime = new long[maxFrames];
+        this.frameKey = new boolean[maxFrames];
+    }
+
+    // ==================== RECORDING ====================
+
+    /**
+     * Append the current tick, taken at nowNanos (System.nanoTime()): the
+     * engine's world plus the player values the engine does not own.
+     */
+    public void record(GameEngine engine, long nowNanos, double playerX, double playerY, int playerHealth, int playerEnergy) {
+        long elapsed = frameCount == 0 ? 0 : nowNanos - lastRecordNanos;
+        clock += elapsed > 0 && elapsed <= STALL_NANOS ? elapsed : tickNanos;
+        lastRecordNanos = nowNanos;
+
+        WorldState next = current;
+        next.clear();
+        engine.captureRewindState(next);
+        next.header[WorldState.PLAYER_X] = WorldState.fixed(playerX);
+        next.header[WorldState.PLAYER_Y] = WorldState.fixed(playerY);
+        next.header[WorldState.PLAYER_HEALTH] = playerHealth;
+        next.header[WorldState.PLAYER_ENERGY] = playerEnergy;
+        next.enemies.sortById();
+        next.projectiles.sortById();
+        next.collectibles.sortById();
+
+        boolean key = frameCount == 0 || sinceKeyframe >= keyframeInterval;
+        encode(key ? EMPTY : previous, next);
+        makeRoom(stagingLength);
+        if (!key && frameCount == 0) {
+            // Making room took the delta's own keyframe with it
+            key = true;
+            encode(EMPTY, next);
+            makeRoom(stagingLength);
+        }
+        append(key);
+
+        current = previous;
+        previous = next;
+        sinceKeyframe = key ? 1 : sinceKeyframe + 1;
+        publishStats();
+    }
+
+    private void makeRoom(int length) {
+        if (length > data.length) {
+            throw new IllegalStateException("Rewind frame of " + length + " bytes exceeds the " + data.length + " byte history");
+        }
+        while (frameCount > 0
+                && (frameCount >= maxFrames || writePos + length - frameStart[oldest] > data.length)) {
+            dropOldest();
+        }
+        while (frameCount > 0 && !frameKey[oldest]) {
+            dropOldest();
+        }
+    }
+
+    private void dropOldest() {
+        oldest = (oldest + 1) % maxFrames;
+        frameCount--;
+    }
+
+    private void append(boolean key) {
+        int slot = slot(frameCount);
+        frameStart[slot] = writePos;
+        frameTime[slot] = clock;
+        frameKey[slot] = key;
+        int at = (int) (writePos & mask);
+        int first = Math.min(stagingLength, data.length - at);
+        System.arraycopy(staging, 0, data, at, first);
+        System.arraycopy(staging, first, data, 0, stagingLength - first);
+        writePos += stagingLength;
+        frameCount++;
+    }
+
+    private int slot(int frame) {
+        return (oldest + frame) % maxFrames;
+    }
+
+    // ==================== REWIND ====================
+
+    /**
+     * Put the engine back to the state of nanos of played time ago, or the
+     * oldest state held if the history is shorter. Later frames are
+     * discarded, so recording carries on from the restored frame. Returns
+     * false when nothing has been recorded.
+     */
+    public boolean rewind(GameEngine engine, long nanos) {
+        if (frameCount == 0) return false;
+        long start = System.nanoTime();
+
+        long time = frameTime[slot(frameCount - 1)] - Math.max(0, nanos);
+        int target = Math.max(0, lastFrameAtOrBefore(time));
+        int key = target;
+        while (!frameKey[slot(key)]) key--;
+
+        WorldState state = decodeA;
+        WorldState spare = decodeB;
+        decode(frameStart[slot(key)], EMPTY, state);
+        for (int f = key + 1; f <= target; f++) {
+            decode(frameStart[slot(f)], state, spare);
+            WorldState t = state;
+            state = spare;
+            spare = t;
+        }
+        engine.restoreRewindState(state);
+        restored = state;
+        restoredPlayerX = WorldState.real(state.header[WorldState.PLAYER_X]);
+        restoredPlayerY = WorldState.real(state.header[WorldState.PLAYER_Y]);
+
+        // Player position between this frame and the next one
+        long t0 = frameTime[slot(target)];
+        if (target + 1 < frameCount && time > t0) {
+            decode(frameStart[slot(target + 1)], state, spare);
+            double f = (double) (time - t0) / (frameTime[slot(target + 1)] - t0);
+            restoredPlayerX += (WorldState.real(spare.header[WorldState.PLAYER_X]) - restoredPlayerX) * f;
+            restoredPlayerY += (WorldState.real(spare.header[WorldState.PLAYER_Y]) - restoredPlayerY) * f;
+        }
+
+        if (target + 1 < frameCount) {
+            writePos = frameStart[slot(target + 1)];
+        }
+        frameCount = target + 1;
+        clock = t0;
+        previous.copyFrom(state);
+        sinceKeyframe = target - key + 1;
+
+        lastRestoreNanos = System.nanoTime() - start;
+        publishStats();
+        return true;
+    }
+
+    /**
+     * Index of the newest frame stamped at or before time; -1 when every
+     * frame is newer.
+     */
+    private int lastFrameAtOrBefore(long time) {
+        int lo = 0;
+        int hi = frameCount - 1;
+        int found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (frameTime[slot(mid)] <= time) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Forget everything, e.g. when a new game starts.
+     */
+    public void clear() {
+        oldest = 0;
+        frameCount = 0;
+        writePos = 0;
+        sinceKeyframe = 0;
+        clock = 0;
+        previous.clear();
+        restored = EMPTY;
+        restoredPlayerX = restoredPlayerY = 0;
+        publishStats();
+    }
+
+    // ==================== ENCODING ====================
+
+    private void encode(WorldState from, WorldState to) {
+        stagingLength = 0;
+        int headerMask = changedColumns(from.header, 0, to.header, 0, 0, WorldState.HEADER_FIELDS);
+        writeChanges(from.header, 0, to.header, 0, 0, WorldState.HEADER_FIELDS, headerMask);
+        encodeTable(from.enemies, to.enemies);
+        encodeTable(from.projectiles, to.projectiles);
+        encodeTable(from.collectibles, to.collectibles);
+    }
+
+    private void encodeTable(WorldState.Table from, WorldState.Table to) {
+        int fields = to.fields;
+        int i = 0;
+        int j = 0;
+        int lastId = 0;
+        while (i < from.count || j < to.count) {
+            boolean hasOld = i < from.count;
+            boolean hasNew = j < to.count;
+            if (hasOld && hasNew && from.id(i) == to.id(j)) {
+                int columns = changedColumns(from.rows, i * fields, to.rows, j * fields, 1, fields);
+                if (columns != 0) {
+                    writeOp(to.id(j) - lastId, OP_CHANGE);
+                    lastId = to.id(j);
+                    writeChanges(from.rows, i * fields, to.rows, j * fields, 1, fields, columns);
+                }
+                i++;
+                j++;
+            } else if (hasOld && (!hasNew || from.id(i) < to.id(j))) {
+                writeOp(from.id(i) - lastId, OP_REMOVE);
+                lastId = from.id(i);
+                i++;
+            } else {
+                writeOp(to.id(j) - lastId, OP_ADD);
+                lastId = to.id(j);
+                int base = j * fields;
+                for (int c = 1; c < fields; c++) {
+                    writeVarint(zigzag(to.rows[base + c]));
+                }
+                j++;
+            }
+        }
+        writeVarLong(OP_END);
+    }
+
+    private static int changedColumns(int[] a, int aBase, int[] b, int bBase, int first, int fields) {
+        int columns = 0;
+        for (int c = first; c < fields; c++) {
+            if (a[aBase + c] != b[bBase + c]) columns |= 1 << c;
+        }
+        return columns;
+    }
+
+    private void writeChanges(int[] a, int aBase, int[] b, int bBase, int first, int fields, int columns) {
+        writeVarint(columns);
+        for (int c = first; c < fields; c++) {
+            if ((columns & (1 << c)) != 0) {
+                writeVarint(zigzag(b[bBase + c] - a[aBase + c]));
+            }
+        }
+    }
+
+    private void writeOp(int idGap, int op) {
+        writeVarLong(((long) idGap << 2) | op);
+    }
+
+    private void writeVarint(int value) {
+        writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    private void writeVarLong(long value) {
+        if (stagingLength + 10 > staging.length) {
+            staging = Arrays.copyOf(staging, staging.length * 2);
+        }
+        while ((value & ~0x7FL) != 0) {
+            staging[stagingLength++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        staging[stagingLength++] = (byte) value;
+    }
+
+    // ==================== DECODING ====================
+
+    private void decode(long position, WorldState from, WorldState to) {
+        cursor = position;
+        readChanges(from.header, 0, to.header, 0, 0, WorldState.HEADER_FIELDS);
+        decodeTable(from.enemies, to.enemies);
+        decodeTable(from.projectiles, to.projectiles);
+        decodeTable(from.collectibles, to.collectibles);
+    }
+
+    private void decodeTable(WorldState.Table from, WorldState.Table to) {
+        int fields = from.fields;
+        to.clear();
+        int i = 0;
+        int id = 0;
+        while (true) {
+            long op = readVarLong();
+            int kind = (int) (op & 3);
+            if (kind == OP_END) break;
+            id += (int) (op >>> 2);
+            while (i < from.count && from.id(i) < id) {
+                copyRow(from, i++, to);
+            }
+            if (kind == OP_REMOVE) {
+                i++;
+            } else if (kind == OP_CHANGE) {
+                int base = to.add(id);
+                readChanges(from.rows, i * fields, to.rows, base, 1, fields);
+                i++;
+            } else {
+                int base = to.add(id);
+                for (int c = 1; c < fields; c++) {
+                    to.rows[base + c] = unzigzag(readVarint());
+                }
+            }
+        }
+        while (i < from.count) {
+            copyRow(from, i++, to);
+        }
+    }
+
+    private void readChanges(int[] a, int aBase, int[] b, int bBase, int first, int fields) {
+        int columns = readVarint();
+        for (int c = first; c < fields; c++) {
+            int diff = (columns & (1 << c)) != 0 ? unzigzag(readVarint()) : 0;
+            b[bBase + c] = a[aBase + c] + diff;
+        }
+    }
+
+    private static void copyRow(WorldState.Table from, int row, WorldState.Table to) {
+        int base = to.add(from.id(row));
+        System.arraycopy(from.rows, row * from.fields + 1, to.rows, base + 1, from.fields - 1);
+    }
+
+    private int readVarint() {
+        return (int) readVarLong();
+    }
+
+    private long readVarLong() {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[(int) (cursor++ & mask)];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // ==================== STATISTICS ====================
+
+    private void publishStats() {
+        framesHeld = frameCount;
+        bytesHeld = frameCount == 0 ? 0 : writePos - frameStart[oldest];
+        nanosHeld = frameCount == 0 ? 0 : frameTime[slot(frameCount - 1)] - frameTime[oldest] + tickNanos;
+    }
+
+    /** Player values of the state the last rewind() restored. */
+    public double getPlayerX() { return restoredPlayerX; }
+    public double getPlayerY() { return restoredPlayerY; }
+    public int getPlayerHealth() { return restored.header[WorldState.PLAYER_HEALTH]; }
+    public int getPlayerEnergy() { return restored.header[WorldState.PLAYER_ENERGY]; }
+
+    public int getFramesHeld() { return framesHeld; }
+    public long getBytesHeld() { return bytesHeld; }
+    public int getCapacityBytes() { return data.length; }
+    public long getLastRestoreNanos() { return lastRestoreNanos; }
+
+    public double getSecondsHeld() {
+        return nanosHeld / 1_000_000_000.0;
+    }
+
+    /**
+     * Encoded bytes per second of history held, the figure that sizes the
+     * ring for a given rewind length.
+     */
+    public long getBytesPerSecond() {
+        double seconds = getSecondsHeld();
+        return seconds > 0 ? (long) (bytesHeld / seconds) : 0;
+    }
+}
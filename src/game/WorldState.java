@@ -0,0 +1,154 @@
+package game;
+
+import java.util.Arrays;
+
+/**
+ * Flat, primitive copy of the rewindable part of the world.
+ *
+ * A handful of header values (score, wave, player) plus one int table per
+ * entity kind. Positions, velocities and angles are stored as fixed-point
+ * ints (1/65536 of a tile or radian) so the history can delta-encode them.
+ * Rows carry the entity id in column 0 and are kept in ascending id order.
+ *
+ * Filled by GameEngine.captureRewindState() and read back by
+ * GameEngine.restoreRewindState(); WorldHistory encodes the difference
+ * between two states.
+ */
+final class WorldState {
+
+    // Header slots
+    static final int SCORE = 0;
+    static final int WAVE = 1;
+    static final int KILLS = 2;
+    static final int COMBO = 3;
+    static final int BOSS_SPAWNED = 4;
+    static final int PLAYER_X = 5;
+    static final int PLAYER_Y = 6;
+    static final int PLAYER_HEALTH = 7;
+    static final int PLAYER_ENERGY = 8;
+    static final int HEADER_FIELDS = 9;
+
+    // Columns shared by every table
+    static final int ID = 0;
+
+    // Enemy columns
+    static final int ENEMY_TYPE = 1;
+    static final int ENEMY_LEVEL = 2;
+    static final int ENEMY_X = 3;
+    static final int ENEMY_Y = 4;
+    static final int ENEMY_HEALTH = 5;
+    static final int ENEMY_ANGLE = 6;
+    static final int ENEMY_FLAGS = 7;   // visible, hit, boss phase << 2
+    static final int ENEMY_FIELDS = 8;
+
+    // Projectile columns
+    static final int PROJECTILE_X = 1;
+    static final int PROJECTILE_Y = 2;
+    static final int PROJECTILE_DX = 3;
+    static final int PROJECTILE_DY = 4;
+    static final int PROJECTILE_LIFE = 5;
+    static final int PROJECTILE_PLAYER = 6;
+    static final int PROJECTILE_FIELDS = 7;
+
+    // Collectible columns
+    static final int COLLECTIBLE_X = 1;
+    static final int COLLECTIBLE_Y = 2;
+    static final int COLLECTIBLE_TYPE = 3;
+    static final int COLLECTIBLE_FIELDS = 4;
+
+    private static final double ONE = 65536.0;
+
+    final int[] header = new int[HEADER_FIELDS];
+    final Table enemies = new Table(ENEMY_FIELDS);
+    final Table projectiles = new Table(PROJECTILE_FIELDS);
+    final Table collectibles = new Table(COLLECTIBLE_FIELDS);
+
+    void clear() {
+        Arrays.fill(header, 0);
+        enemies.clear();
+        projectiles.clear();
+        collectibles.clear();
+    }
+
+    void copyFrom(WorldState other) {
+        System.arraycopy(other.header, 0, header, 0, HEADER_FIELDS);
+        enemies.copyFrom(other.enemies);
+        projectiles.copyFrom(other.projectiles);
+        collectibles.copyFrom(other.collectibles);
+    }
+
+    static int fixed(double value) {
+        return (int) Math.round(value * ONE);
+    }
+
+    static double real(int value) {
+        return value / ONE;
+    }
+
+    /**
+     * Rows of a fixed number of int columns in one growable array.
+     */
+    static final class Table {
+        final int fields;
+        int[] rows;
+        int count = 0;
+
+        Table(int fields) {
+            this.fields = fields;
+            this.rows = new int[fields * 32];
+        }
+
+        /**
+         * Append a row with the given id; returns the offset of its first
+         * column in rows (which may have been reallocated).
+         */
+        int add(int id) {
+            int base = count * fields;
+            if (base + fields > rows.length) {
+                rows = Arrays.copyOf(rows, rows.length * 2);
+            }
+            count++;
+            rows[base + ID] = id;
+            return base;
+        }
+
+        int get(int row, int column) {
+            return rows[row * fields + column];
+        }
+
+        int id(int row) {
+            return rows[row * fields + ID];
+        }
+
+        /**
+         * Restore ascending id order; a no-op in the normal case, since
+         * entities are appended in creation order.
+         */
+        void sortById() {
+            int[] tmp = null;
+            for (int i = 1; i < count; i++) {
+                if (id(i - 1) < id(i)) continue;
+                if (tmp == null) tmp = new int[fields];
+                System.arraycopy(rows, i * fields, tmp, 0, fields);
+                int j = i - 1;
+                while (j >= 0 && id(j) > tmp[ID]) {
+                    System.arraycopy(rows, j * fields, rows, (j + 1) * fields, fields);
+                    j--;
+                }
+                System.arraycopy(tmp, 0, rows, (j + 1) * fields, fields);
+            }
+        }
+
+        void clear() {
+            count = 0;
+        }
+
+        void copyFrom(Table other) {
+            if (rows.length < other.rows.length) {
+                rows = new int[other.rows.length];
+            }
+            System.arraycopy(other.rows, 0, rows, 0, other.count * fields);
+            count = other.count;
+        }
+    }
+}
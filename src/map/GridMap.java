@@ -1,8 +1,19 @@
 package map;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class GridMap {
     private int size;
     private Node[][] grid;
+    private List<TileListener> tileListeners = new ArrayList<>();
+
+    /**
+     * Notified when modifyTile actually changes a tile's walkability.
+     */
+    public interface TileListener {
+        void onTileChanged(int x, int y, boolean walkable);
+    }
 
     public GridMap(int size) {
         this.size = size;
@@ -18,10 +29,22 @@ public class GridMap {
 
     public void modifyTile(int x, int y, boolean walkable) {
         if (x >= 0 && x < size && y >= 0 && y < size) {
+            if (grid[x][y].isWalkable() == walkable) return;
             grid[x][y].setWalkable(walkable);
+            for (TileListener listener : tileListeners) {
+                listener.onTileChanged(x, y, walkable);
+            }
         }
     }
 
+    public void addTileListener(TileListener listener) {
+        tileListeners.add(listener);
+    }
+
+    public void removeTileListener(TileListener listener) {
+        tileListeners.remove(listener);
+    }
+
     public Node getNode(int x, int y) {
         if (x >= 0 && x < size && y >= 0 && y < size) {
             return grid[x][y];
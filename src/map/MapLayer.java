@@ -0,0 +1,241 @@
+package map;
+
+import dsa.PersistentIntMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sparse copy-on-write walkability overlay on a shared GridMap.
+ *
+ * The map is cut into 8x8 tile chunks. A chunk nobody has written to has
+ * no storage in the layer: reads go straight to the base grid, so layers
+ * share it and see changes made to it. The first write to a chunk gives the
+ * layer its own Chunk - two 64-bit words, one marking the overridden tiles
+ * and one holding their walkability.
+ *
+ * Chunks are immutable and kept in a PersistentIntMap keyed by chunk
+ * coordinates, so getVersion() is an O(1) snapshot that shares everything
+ * with the live layer, and setVersion() moves to another snapshot in
+ * O(changed chunks). A flat chunk array mirrors the current version for
+ * O(1) reads.
+ *
+ * Not thread-safe, like GridMap.
+ */
+public final class MapLayer {
+    private static final int CHUNK_SHIFT = 3;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * Overrides of one 8x8 chunk; bit (y % 8) * 8 + (x % 8).
+     */
+    public static final class Chunk {
+        final long overridden;
+        final long walkable;
+
+        Chunk(long overridden, long walkable) {
+            this.overridden = overridden;
+            this.walkable = walkable & overridden;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Chunk)) return false;
+            Chunk chunk = (Chunk) o;
+            return overridden == chunk.overridden && walkable == chunk.walkable;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(overridden * 31 + walkable);
+        }
+    }
+
+    /**
+     * Receives tiles whose override differs between two versions.
+     */
+    public interface TileVisitor {
+        void tileChanged(int x, int y);
+    }
+
+    private final GridMap base;
+    private final int size;
+    private final int chunksPerRow;
+    private final Chunk[] view; // current version by chunk index; null: shared with the base
+    private PersistentIntMap<Chunk> version = PersistentIntMap.empty();
+    private List<GridMap.TileListener> tileListeners = new ArrayList<>();
+
+    public MapLayer(GridMap base) {
+        this.base = base;
+        this.size = base.getSize();
+        this.chunksPerRow = (size + CHUNK_MASK) >> CHUNK_SHIFT;
+        this.view = new Chunk[chunksPerRow * chunksPerRow];
+    }
+
+    public boolean isWalkable(int x, int y) {
+        if (x < 0 || x >= size || y < 0 || y >= size) return false;
+        Chunk chunk = view[chunkIndex(x, y)];
+        long bit = bit(x, y);
+        if (chunk != null && (chunk.overridden & bit) != 0) {
+            return (chunk.walkable & bit) != 0;
+        }
+        return base.getNode(x, y).isWalkable();
+    }
+
+    /**
+     * Override a tile in this layer only; the base, other layers and
+     * earlier versions are untouched. Listeners hear about it when the
+     * visible value changes.
+     */
+    public void setWalkable(int x, int y, boolean walkable) {
+        if (x < 0 || x >= size || y < 0 || y >= size) return;
+        boolean before = isWalkable(x, y);
+        Chunk chunk = view[chunkIndex(x, y)];
+        long bit = bit(x, y);
+        long overridden = chunk == null ? bit : chunk.overridden | bit;
+        long values = chunk == null ? 0 : chunk.walkable;
+        replace(x, y, new Chunk(overridden, walkable ? values | bit : values & ~bit));
+        if (before != walkable) notifyListeners(x, y, walkable);
+    }
+
+    /**
+     * Drop this layer's override of a tile, showing the base again.
+     */
+    public void revert(int x, int y) {
+        if (!isOverridden(x, y)) return;
+        boolean before = isWalkable(x, y);
+        Chunk chunk = view[chunkIndex(x, y)];
+        long bit = bit(x, y);
+        replace(x, y, chunk.overridden == bit ? null : new Chunk(chunk.overridden & ~bit, chunk.walkable));
+        boolean after = isWalkable(x, y);
+        if (before != after) notifyListeners(x, y, after);
+    }
+
+    private void replace(int x, int y, Chunk chunk) {
+        view[chunkIndex(x, y)] = chunk;
+        int key = chunkKey(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT);
+        version = chunk == null ? version.remove(key) : version.put(key, chunk);
+    }
+
+    /**
+     * Drop every override; the layer becomes the base again.
+     */
+    public void clear() {
+        setVersion(PersistentIntMap.empty());
+    }
+
+    public boolean isOverridden(int x, int y) {
+        if (x < 0 || x >= size || y < 0 || y >= size) return false;
+        Chunk chunk = view[chunkIndex(x, y)];
+        return chunk != null && (chunk.overridden & bit(x, y)) != 0;
+    }
+
+    // ==================== VERSIONS ====================
+
+    /**
+     * Immutable snapshot of the overrides, O(1).
+     */
+    public PersistentIntMap<Chunk> getVersion() {
+        return version;
+    }
+
+    /**
+     * Switch to a snapshot from getVersion(); costs O(changed chunks) and
+     * notifies listeners of every tile whose visible value changes.
+     */
+    public void setVersion(PersistentIntMap<Chunk> next) {
+        if (next == version) return;
+        PersistentIntMap<Chunk> previous = version;
+        previous.diff(next, new PersistentIntMap.DiffVisitor<Chunk>() {
+            @Override public void added(int key, Chunk value) { apply(key, null, value); }
+            @Override public void removed(int key, Chunk value) { apply(key, value, null); }
+            @Override public void changed(int key, Chunk before, Chunk after) { apply(key, before, after); }
+        });
+        version = next;
+    }
+
+    private void apply(int key, Chunk before, Chunk after) {
+        int cx = key & 0xFFFF;
+        int cy = key >>> 16;
+        if (cx >= chunksPerRow || cy >= chunksPerRow) return; // Snapshot of a larger map
+        int ox = cx << CHUNK_SHIFT;
+        int oy = cy << CHUNK_SHIFT;
+        boolean[] was = new boolean[CHUNK_SIZE * CHUNK_SIZE];
+        long touched = (before == null ? 0 : before.overridden) | (after == null ? 0 : after.overridden);
+        for (long bits = touched; bits != 0; bits &= bits - 1) {
+            int b = Long.numberOfTrailingZeros(bits);
+            was[b] = isWalkable(ox + (b & CHUNK_MASK), oy + (b >> CHUNK_SHIFT));
+        }
+        view[cy * chunksPerRow + cx] = after;
+        for (long bits = touched; bits != 0; bits &= bits - 1) {
+            int b = Long.numberOfTrailingZeros(bits);
+            int x = ox + (b & CHUNK_MASK);
+            int y = oy + (b >> CHUNK_SHIFT);
+            boolean now = isWalkable(x, y);
+            if (now != was[b]) notifyListeners(x, y, now);
+        }
+    }
+
+    /**
+     * Visit every tile whose override differs between two versions, in
+     * O(changed chunks).
+     */
+    public static void diff(PersistentIntMap<Chunk> a, PersistentIntMap<Chunk> b, TileVisitor visitor) {
+        a.diff(b, new PersistentIntMap.DiffVisitor<Chunk>() {
+            @Override public void added(int key, Chunk value) { visit(key, 0, 0, value.overridden, value.walkable, visitor); }
+            @Override public void removed(int key, Chunk value) { visit(key, value.overridden, value.walkable, 0, 0, visitor); }
+            @Override public void changed(int key, Chunk before, Chunk after) {
+                visit(key, before.overridden, before.walkable, after.overridden, after.walkable, visitor);
+            }
+        });
+    }
+
+    private static void visit(int key, long overriddenA, long walkableA, long overriddenB, long walkableB, TileVisitor visitor) {
+        long changed = (overriddenA ^ overriddenB) | (walkableA ^ walkableB);
+        int ox = (key & 0xFFFF) << CHUNK_SHIFT;
+        int oy = (key >>> 16) << CHUNK_SHIFT;
+        for (long bits = changed; bits != 0; bits &= bits - 1) {
+            int b = Long.numberOfTrailingZeros(bits);
+            visitor.tileChanged(ox + (b & CHUNK_MASK), oy + (b >> CHUNK_SHIFT));
+        }
+    }
+
+    private int chunkIndex(int x, int y) {
+        return (y >> CHUNK_SHIFT) * chunksPerRow + (x >> CHUNK_SHIFT);
+    }
+
+    private static int chunkKey(int cx, int cy) {
+        return (cy << 16) | cx;
+    }
+
+    private static long bit(int x, int y) {
+        return 1L << (((y & CHUNK_MASK) << CHUNK_SHIFT) | (x & CHUNK_MASK));
+    }
+
+    private void notifyListeners(int x, int y, boolean walkable) {
+        for (GridMap.TileListener listener : tileListeners) {
+            listener.onTileChanged(x, y, walkable);
+        }
+    }
+
+    public void addTileListener(GridMap.TileListener listener) {
+        tileListeners.add(listener);
+    }
+
+    public void removeTileListener(GridMap.TileListener listener) {
+        tileListeners.remove(listener);
+    }
+
+    public GridMap getBase() { return base; }
+    public int getSize() { return size; }
+    public int getOwnedChunks() { return version.size(); }
+
+    /**
+     * Approximate heap used by this layer on top of the shared base.
+     */
+    public long getOverlayBytes() {
+        return 16L + view.length * 4L + version.size() * 64L;
+    }
+}
@@ -16,12 +16,12 @@ public class Player implements Serializable, Runnable {
     private double visualX, visualY;
     private GridMap map;
     private String timeline;
-    private boolean running = true;
+    private volatile boolean running = true;
     
     // Stats
     private int health = 100;
     private int maxHealth = 100;
-    private int energy = 100;
+    private volatile int energy = 100; // regenerated by MultiplayerManager's scheduler
     private int maxEnergy = 100;
     private int ammo = 50;
     private int maxAmmo = 50;
@@ -182,11 +182,11 @@ public class Player implements Serializable, Runnable {
         health = Math.min(maxHealth, health + amount);
     }
     
-    public void addEnergy(int amount) {
+    public synchronized void addEnergy(int amount) {
         energy = Math.min(maxEnergy, energy + amount);
     }
     
-    public void useEnergy(int amount) {
+    public synchronized void useEnergy(int amount) {
         energy = Math.max(0, energy - amount);
     }
     
@@ -214,16 +214,14 @@ public class Player implements Serializable, Runnable {
         timeSlowEnd = System.currentTimeMillis() + 4000;
     }
 
+    /**
+     * One background tick: regenerate a point of energy. Scheduled every
+     * Constants.PLAYER_TICK_MS on a shared TickScheduler, not looped on a
+     * thread of its own.
+     */
     @Override
     public void run() {
-        while (running) {
-            try {
-                Thread.sleep(50);
-                if (energy < maxEnergy) energy++;
-            } catch (InterruptedException e) {
-                break;
-            }
-        }
+        if (running) addEnergy(1);
     }
 
     public void stop() { running = false; }
@@ -0,0 +1,303 @@
+package timeline;
+
+import timeline.TimelineManager.TemporalEcho;
+import timeline.TimelineManager.TimelineType;
+import util.Constants;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file of ghost echoes from earlier runs on one map.
+ *
+ * File layout: an 8 byte header (magic, version) followed by records of
+ * [length][crc32][score][wave][createdAt][timeline][pointCount][points],
+ * where the points are TemporalEcho.writePoints() deltas - about 6 bytes a
+ * point. Recordings stop at five seconds sampled at most every 16 ms, so a
+ * run takes under 2 KB (an echo can hold at most about 65 seconds, roughly
+ * 22 KB). A record is only appended, never rewritten; a torn record left
+ * by a crash fails its checksum and is cut off the next time the file is
+ * opened.
+ *
+ * Records are read through a read-only memory mapping, so thousands of runs
+ * cost page cache rather than heap: only the echoes actually replayed are
+ * decoded by load(). Opening scans the record headers once to build an
+ * in-memory index sorted by score and by wave (16 bytes a run); best-run
+ * lookups are then O(1) by rank and O(log n) by threshold.
+ *
+ * Thread-safe; a library file should be open in one process at a time.
+ */
+public final class EchoLibrary implements Closeable {
+
+    private static final int MAGIC = 0x43544543;   // "CTEC"
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_BYTES = 8;
+    private static final int FRAME_BYTES = 8;       // length + crc
+    private static final int RECORD_HEADER_BYTES = 21;
+
+    private final Path file;
+    private final FileChannel channel;
+    private MappedByteBuffer mapped;
+    private long end;
+
+    // Per record, by id (append order)
+    private long[] offsets = new long[64];
+    private int[] scores = new int[64];
+    private int[] waves = new int[64];
+    private int count = 0;
+
+    // (key << 32 | id), ascending
+    private long[] byScore = new long[64];
+    private long[] byWave = new long[64];
+
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer writeBuffer = ByteBuffer.allocate(4096);
+
+    private EchoLibrary(Path file, FileChannel channel) {
+        this.file = file;
+        this.channel = channel;
+    }
+
+    /**
+     * Library file for a map, e.g. a layout hash; see pathFor().
+     */
+    public static EchoLibrary openForMap(String mapKey) throws IOException {
+        return open(pathFor(mapKey));
+    }
+
+    public static Path pathFor(String mapKey) {
+        return Paths.get(Constants.ECHO_DIRECTORY, mapKey + Constants.ECHO_EXTENSION);
+    }
+
+    /**
+     * Open or create a library and index its records.
+     */
+    public static EchoLibrary open(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        FileChannel channel = FileChannel.open(file,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        EchoLibrary library = new EchoLibrary(file, channel);
+        try {
+            library.scan();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return library;
+    }
+
+    // ==================== INDEX ====================
+
+    private void scan() throws IOException {
+        long size = channel.size();
+        if (size < FILE_HEADER_BYTES) {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).flip();
+            channel.truncate(0);
+            channel.write(header, 0);
+            end = FILE_HEADER_BYTES;
+            return;
+        }
+        remap(size);
+        if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+            throw new IOException("Not an echo library: " + file);
+        }
+
+        long position = FILE_HEADER_BYTES;
+        while (position + FRAME_BYTES <= size) {
+            int length = mapped.getInt((int) position);
+            int checksum = mapped.getInt((int) position + 4);
+            long body = position + FRAME_BYTES;
+            if (length < RECORD_HEADER_BYTES || body + length > size
+                || checksum != checksum(mapped, (int) body, length)) {
+                break;
+            }
+            index(body, mapped.getInt((int) body), mapped.getInt((int) body + 4));
+            position = body + length;
+        }
+        if (position < size) {
+            channel.truncate(position); // Torn tail from an interrupted append
+        }
+        end = position;
+    }
+
+    private void index(long body, int score, int wave) {
+        if (count == offsets.length) {
+            int capacity = count * 2;
+            offsets = Arrays.copyOf(offsets, capacity);
+            scores = Arrays.copyOf(scores, capacity);
+            waves = Arrays.copyOf(waves, capacity);
+            byScore = Arrays.copyOf(byScore, capacity);
+            byWave = Arrays.copyOf(byWave, capacity);
+        }
+        int id = count;
+        offsets[id] = body;
+        scores[id] = score;
+        waves[id] = wave;
+        insert(byScore, key(score, id));
+        insert(byWave, key(wave, id));
+        count++;
+    }
+
+    private void insert(long[] sorted, long key) {
+        int at = lowerBound(sorted, key);
+        System.arraycopy(sorted, at, sorted, at + 1, count - at);
+        sorted[at] = key;
+    }
+
+    private int lowerBound(long[] sorted, long key) {
+        int lo = 0;
+        int hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static long key(int value, int id) {
+        return ((long) value << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    private static int checksum(ByteBuffer buffer, int from, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(from).limit(from + length));
+        return (int) crc.getValue();
+    }
+
+    private void remap(long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Echo library over 2 GB: " + file);
+        }
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+
+    // ==================== WRITE ====================
+
+    /**
+     * Append an echo with the score and wave of its run; returns its id.
+     * Empty echoes are not stored and return -1.
+     */
+    public synchronized int append(TemporalEcho echo, int score, int wave) throws IOException {
+        if (echo.isEmpty()) return -1;
+        int maxBytes = FRAME_BYTES + RECORD_HEADER_BYTES + TemporalEcho.maxEncodedBytes(echo.getPointCount());
+        if (writeBuffer.capacity() < maxBytes) {
+            writeBuffer = ByteBuffer.allocate(Math.max(maxBytes, writeBuffer.capacity() * 2));
+        }
+        ByteBuffer out = writeBuffer;
+        out.clear();
+        out.position(FRAME_BYTES);
+        out.putInt(score);
+        out.putInt(wave);
+        out.putLong(echo.createdAt);
+        out.put((byte) echo.sourceTimeline.ordinal());
+        out.putInt(echo.getPointCount());
+        echo.writePoints(out);
+
+        int length = out.position() - FRAME_BYTES;
+        crc.reset();
+        crc.update(out.array(), FRAME_BYTES, length);
+        out.putInt(0, length);
+        out.putInt(4, (int) crc.getValue());
+        out.flip();
+
+        long position = end;
+        while (out.hasRemaining()) {
+            position += channel.write(out, position);
+        }
+        index(end + FRAME_BYTES, score, wave);
+        end = position;
+        return count - 1;
+    }
+
+    /**
+     * Flush appended records to the device.
+     */
+    public synchronized void sync() throws IOException {
+        channel.force(false);
+    }
+
+    // ==================== READ ====================
+
+    /**
+     * Decode echo id from the mapping onto the heap for playback.
+     */
+    public synchronized TemporalEcho load(int id) throws IOException {
+        checkId(id);
+        if (mapped == null || mapped.capacity() < end) {
+            remap(end); // Cover records appended since the last mapping
+        }
+        ByteBuffer in = mapped.duplicate().position((int) offsets[id] + 8);
+        long createdAt = in.getLong();
+        TimelineType source = TimelineType.values()[in.get()];
+        int points = in.getInt();
+        return TemporalEcho.readPoints(in, points, source, createdAt);
+    }
+
+    /**
+     * Id of the rank-th best run by score (0 = best), or -1 past the end.
+     */
+    public synchronized int bestByScore(int rank) {
+        return rank < count ? (int) byScore[count - 1 - rank] : -1;
+    }
+
+    /**
+     * Id of the rank-th furthest run by wave (0 = furthest), or -1.
+     */
+    public synchronized int bestByWave(int rank) {
+        return rank < count ? (int) byWave[count - 1 - rank] : -1;
+    }
+
+    /**
+     * Number of runs scoring at least score; they are ranks 0 to n - 1 of
+     * bestByScore().
+     */
+    public synchronized int countScoreAtLeast(int score) {
+        return count - lowerBound(byScore, key(score, 0));
+    }
+
+    public synchronized int countWaveAtLeast(int wave) {
+        return count - lowerBound(byWave, key(wave, 0));
+    }
+
+    public synchronized int getScore(int id) {
+        checkId(id);
+        return scores[id];
+    }
+
+    public synchronized int getWave(int id) {
+        checkId(id);
+        return waves[id];
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= count) {
+            throw new IndexOutOfBoundsException("Echo " + id + " of " + count);
+        }
+    }
+
+    public synchronized int size() { return count; }
+    public synchronized long getFileBytes() { return end; }
+    public Path getFile() { return file; }
+
+    @Override
+    public synchronized void close() throws IOException {
+        mapped = null;
+        channel.close();
+    }
+}
@@ -68,7 +68,7 @@ public class Future extends Timeline {
         // In future, paths are clear (advanced construction)
         Node node = map.getNode(x, y);
         if (node != null) {
-            map.modifyTile(x, y, true);
+            setWalkable(x, y, true);
         }
     }
     
@@ -82,6 +82,11 @@ public class Future extends Timeline {
         return "FUTURE";
     }
     
+    @Override
+    public TimelineManager.TimelineType getType() {
+        return TimelineManager.TimelineType.FUTURE;
+    }
+    
     @Override
     public String getEffectDescription() {
         return "Tech Surge: Move faster, use tech abilities";
@@ -45,7 +45,7 @@ public class Past extends Timeline {
         Node node = map.getNode(x, y);
         if (node != null) {
             // Create obstacles (ancient ruins)
-            map.modifyTile(x, y, false);
+            setWalkable(x, y, false);
         }
     }
     
@@ -59,6 +59,11 @@ public class Past extends Timeline {
         return "PAST";
     }
     
+    @Override
+    public TimelineManager.TimelineType getType() {
+        return TimelineManager.TimelineType.PAST;
+    }
+    
     @Override
     public String getEffectDescription() {
         return "Ancient Power: Enemies slower, you deal more damage";
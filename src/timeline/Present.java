@@ -48,7 +48,7 @@ public class Present extends Timeline {
         // In present, clear obstacles (modern clearing)
         Node node = map.getNode(x, y);
         if (node != null) {
-            map.modifyTile(x, y, true);
+            setWalkable(x, y, true);
         }
     }
     
@@ -62,6 +62,11 @@ public class Present extends Timeline {
         return "PRESENT";
     }
     
+    @Override
+    public TimelineManager.TimelineType getType() {
+        return TimelineManager.TimelineType.PRESENT;
+    }
+    
     @Override
     public String getEffectDescription() {
         return "Temporal Balance: Stable timeline, create anchors";
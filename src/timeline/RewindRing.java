@@ -0,0 +1,99 @@
+package timeline;
+
+/**
+ * Time-indexed ring of player rewind samples in preallocated primitive
+ * arrays.
+ *
+ * A sample is kept at most every sampleMillis, so the capacity covers a
+ * fixed span of time whatever the frame rate, and recording never
+ * allocates. seek() binary-searches the timestamps and interpolates the
+ * position between the two samples around the requested time.
+ */
+final class RewindRing {
+    private final long sampleMillis;
+    private final long[] times;
+    private final double[] xs;
+    private final double[] ys;
+    private final int[] healths;
+    private final int[] energies;
+    private int oldest = 0;
+    private int count = 0;
+
+    // Result of the last seek()
+    private double x, y;
+    private int health, energy;
+
+    RewindRing(long spanMillis, long sampleMillis) {
+        this.sampleMillis = Math.max(1, sampleMillis);
+        int capacity = (int) (spanMillis / this.sampleMillis) + 2;
+        times = new long[capacity];
+        xs = new double[capacity];
+        ys = new double[capacity];
+        healths = new int[capacity];
+        energies = new int[capacity];
+    }
+
+    void record(long now, double px, double py, int h, int e) {
+        if (count > 0 && now - times[index(count - 1)] < sampleMillis) return;
+        int i;
+        if (count < times.length) {
+            i = index(count++);
+        } else {
+            i = oldest;
+            oldest = (oldest + 1) % times.length;
+        }
+        times[i] = now;
+        xs[i] = px;
+        ys[i] = py;
+        healths[i] = h;
+        energies[i] = e;
+    }
+
+    /**
+     * Load the state at time into the getters, clamped to the samples held.
+     * Returns false when nothing has been recorded.
+     */
+    boolean seek(long time) {
+        if (count == 0) return false;
+        int lo = 0;
+        int hi = count - 1;
+        int found = 0;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (times[index(mid)] <= time) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        int a = index(found);
+        x = xs[a];
+        y = ys[a];
+        health = healths[a];
+        energy = energies[a];
+        if (found + 1 < count && time > times[a]) {
+            int b = index(found + 1);
+            double f = (double) (time - times[a]) / (times[b] - times[a]);
+            x += (xs[b] - x) * f;
+            y += (ys[b] - y) * f;
+        }
+        return true;
+    }
+
+    void clear() {
+        oldest = 0;
+        count = 0;
+    }
+
+    private int index(int i) {
+        return (oldest + i) % times.length;
+    }
+
+    boolean isEmpty() { return count == 0; }
+    int size() { return count; }
+    double getX() { return x; }
+    double getY() { return y; }
+    int getHealth() { return health; }
+    int getEnergy() { return energy; }
+}
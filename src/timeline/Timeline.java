@@ -1,22 +1,32 @@
 package timeline;
 
 import map.GridMap;
+import map.MapLayer;
+import timeline.TimelineManager.TimelineType;
 import java.util.List;
 import java.util.ArrayList;
 
 /**
  * Base class for all timeline types.
  * Each timeline has unique properties and effects on the game world.
+ * Map changes go straight to the shared GridMap, which the game reads,
+ * unless the timeline is layered: TimelineManager's timelines write to
+ * their own layer over the grid instead, so the eras can differ without
+ * copying it.
  */
 public abstract class Timeline {
     protected GridMap map;
+    protected final MapLayer layer;
     protected List<TimelineEvent> events = new ArrayList<>();
     protected double energyCostMultiplier = 1.0;
     protected double visibilityRange = 1.0;
     protected boolean hasSpecialVision = false;
+    private TimelineEventBus eventBus; // set by TimelineManager; events bypass the list
+    private boolean layered = false;   // set by TimelineManager
 
     protected Timeline(GridMap map) {
         this.map = map;
+        this.layer = new MapLayer(map);
     }
 
     /**
@@ -35,47 +45,79 @@ public abstract class Timeline {
      */
     public abstract String getName();
     
+    public abstract TimelineType getType();
+    
     /**
      * Get special effect description for this timeline.
      */
     public abstract String getEffectDescription();
     
+    /**
+     * Record an event in this timeline. With a bus attached it is queued
+     * there (and dropped when the queue is full) instead of the list.
+     */
     public void addEvent(TimelineEvent event) {
-        events.add(event);
+        if (eventBus != null) {
+            eventBus.post(getType(), event.type, event.x, event.y);
+        } else {
+            events.add(event);
+        }
+    }
+    
+    /**
+     * Allocation-free addEvent(); false when the bus dropped the event.
+     */
+    public boolean postEvent(EventType type, int x, int y) {
+        if (eventBus != null) {
+            return eventBus.post(getType(), type, x, y);
+        }
+        events.add(new TimelineEvent(type, x, y));
+        return true;
+    }
+    
+    void setEventBus(TimelineEventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+    
+    void setLayered(boolean layered) {
+        this.layered = layered;
+    }
+    
+    /**
+     * Write a tile change to this timeline's layer when layered, otherwise
+     * to the shared grid.
+     */
+    protected void setWalkable(int x, int y, boolean walkable) {
+        if (layered) {
+            layer.setWalkable(x, y, walkable);
+        } else {
+            map.modifyTile(x, y, walkable);
+        }
     }
     
     public List<TimelineEvent> getEvents() {
         return events;
     }
     
+    public MapLayer getLayer() { return layer; }
     public double getEnergyCostMultiplier() { return energyCostMultiplier; }
     public double getVisibilityRange() { return visibilityRange; }
     public boolean hasSpecialVision() { return hasSpecialVision; }
     
+    /**
+     * Butterfly effect for a timeline without a bus: derive events in the
+     * other timelines from the listed ones through the default routes, then
+     * clear the list. Timelines attached to a TimelineEventBus are routed
+     * in batch by TimelineEventBus.processTick() instead.
+     */
     public void propagateToOtherTimelines(Timeline past, Timeline present, Timeline future) {
-        // Butterfly effect: changes in one timeline affect others
+        TimelineType source = getType();
         for (TimelineEvent event : events) {
-            if (event.type == EventType.ENEMY_KILLED) {
-                // Killing an enemy in the past prevents it from appearing in the future
-                if (this instanceof Past) {
-                    future.addEvent(new TimelineEvent(EventType.ENEMY_PREVENTED, event.x, event.y));
-                }
-                // Killing in future creates echoes in present
-                if (this instanceof Future) {
-                    present.addEvent(new TimelineEvent(EventType.ECHO_CREATED, event.x, event.y));
-                }
-            } else if (event.type == EventType.COLLECTIBLE_TAKEN) {
-                // Taking a collectible in present might create echoes in past/future
-                if (this instanceof Present) {
-                    past.addEvent(new TimelineEvent(EventType.ECHO_CREATED, event.x, event.y));
-                    future.addEvent(new TimelineEvent(EventType.ECHO_CREATED, event.x, event.y));
-                }
-            } else if (event.type == EventType.OBSTACLE_DESTROYED) {
-                // Destroying obstacle in past removes it from all timelines
-                if (this instanceof Past) {
-                    present.addEvent(new TimelineEvent(EventType.PATH_OPENED, event.x, event.y));
-                    future.addEvent(new TimelineEvent(EventType.PATH_OPENED, event.x, event.y));
-                }
+            for (int route : TimelineRoutes.DEFAULT.routesFor(source, event.type)) {
+                TimelineType target = TimelineRoutes.target(route);
+                Timeline timeline = target == TimelineType.PAST ? past
+                    : target == TimelineType.FUTURE ? future : present;
+                timeline.addEvent(new TimelineEvent(TimelineRoutes.type(route), event.x, event.y));
             }
         }
         events.clear(); // Clear processed events
@@ -0,0 +1,184 @@
+package timeline;
+
+import timeline.Timeline.EventType;
+import timeline.TimelineManager.TimelineType;
+
+import java.util.Arrays;
+
+/**
+ * Batched timeline event pipeline.
+ *
+ * Events are posted as (source timeline, type, x, y) into a preallocated
+ * ring queue per EventType - parallel primitive arrays, so posting never
+ * allocates. Once per tick processTick() drains the events that were queued
+ * when it started, type by type: each goes to the handlers registered for
+ * its type, then through its TimelineRoutes, which map (source, type) to
+ * the derived events other timelines receive (the butterfly effect). Derived
+ * events are queued for the next tick, so chains cannot loop within one.
+ *
+ * Back-pressure: a full queue rejects post() and counts the drop, and
+ * isSaturated() warns producers once a queue is three quarters full so
+ * they can shed low-value events first. At most batchLimit events of a
+ * type are handled per tick; the rest wait.
+ *
+ * Single-threaded: post and process from the thread that owns the timelines.
+ */
+public final class TimelineEventBus {
+
+    /**
+     * Receives processed events.
+     */
+    public interface Handler {
+        void onEvent(TimelineType source, EventType type, int x, int y, int tick);
+    }
+
+    private static final TimelineType[] TIMELINES = TimelineType.values();
+    private static final EventType[] TYPES = EventType.values();
+    private static final Handler[] NO_HANDLERS = new Handler[0];
+
+    private final int capacity;
+    private final int mask;
+    private final int batchLimit;
+
+    // One ring per EventType
+    private final byte[][] sources;
+    private final int[][] xs;
+    private final int[][] ys;
+    private final int[][] ticks;
+    private final int[] heads = new int[TYPES.length];
+    private final int[] sizes = new int[TYPES.length];
+    private final int[] batch = new int[TYPES.length];
+
+    private TimelineRoutes routes = TimelineRoutes.DEFAULT;
+    private final Handler[][] handlers = new Handler[TYPES.length][];
+
+    private final long[] posted = new long[TYPES.length];
+    private final long[] dropped = new long[TYPES.length];
+    private long processed = 0;
+    private int tick = 0;
+
+    /**
+     * capacity events per type, rounded up to a power of two.
+     */
+    public TimelineEventBus(int capacity, int batchLimit) {
+        this.capacity = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = this.capacity - 1;
+        this.batchLimit = batchLimit;
+        sources = new byte[TYPES.length][this.capacity];
+        xs = new int[TYPES.length][this.capacity];
+        ys = new int[TYPES.length][this.capacity];
+        ticks = new int[TYPES.length][this.capacity];
+        Arrays.fill(handlers, NO_HANDLERS);
+    }
+
+    // ==================== SETUP ====================
+
+    /**
+     * An event of type in source also raises derived in target.
+     */
+    public void addRoute(TimelineType source, EventType type, TimelineType target, EventType derived) {
+        routes = routes.with(source, type, target, derived);
+    }
+
+    public void clearRoutes() {
+        routes = TimelineRoutes.NONE;
+    }
+
+    public void setRoutes(TimelineRoutes routes) {
+        this.routes = routes;
+    }
+
+    public TimelineRoutes getRoutes() { return routes; }
+
+    public void addHandler(EventType type, Handler handler) {
+        Handler[] current = handlers[type.ordinal()];
+        Handler[] next = Arrays.copyOf(current, current.length + 1);
+        next[current.length] = handler;
+        handlers[type.ordinal()] = next;
+    }
+
+    // ==================== PIPELINE ====================
+
+    /**
+     * Queue an event; false (and a counted drop) when its queue is full.
+     */
+    public boolean post(TimelineType source, EventType type, int x, int y) {
+        int t = type.ordinal();
+        if (sizes[t] == capacity) {
+            dropped[t]++;
+            return false;
+        }
+        int i = (heads[t] + sizes[t]++) & mask;
+        sources[t][i] = (byte) source.ordinal();
+        xs[t][i] = x;
+        ys[t][i] = y;
+        ticks[t][i] = tick;
+        posted[t]++;
+        return true;
+    }
+
+    /**
+     * Handle and route the events queued before this call, at most
+     * batchLimit per type. Returns the number handled.
+     */
+    public int processTick() {
+        for (int t = 0; t < TYPES.length; t++) {
+            batch[t] = Math.min(sizes[t], batchLimit);
+        }
+        int handled = 0;
+        for (int t = 0; t < TYPES.length; t++) {
+            int n = batch[t];
+            if (n == 0) continue;
+            EventType type = TYPES[t];
+            Handler[] typeHandlers = handlers[t];
+            byte[] src = sources[t];
+            int[] ex = xs[t];
+            int[] ey = ys[t];
+            int[] et = ticks[t];
+            int head = heads[t];
+            for (int k = 0; k < n; k++) {
+                int i = (head + k) & mask;
+                TimelineType source = TIMELINES[src[i]];
+                int x = ex[i];
+                int y = ey[i];
+                for (Handler handler : typeHandlers) {
+                    handler.onEvent(source, type, x, y, et[i]);
+                }
+                for (int route : routes.routesFor(src[i], t)) {
+                    post(TimelineRoutes.target(route), TimelineRoutes.type(route), x, y);
+                }
+            }
+            heads[t] = (head + n) & mask;
+            sizes[t] -= n;
+            handled += n;
+        }
+        processed += handled;
+        tick++;
+        return handled;
+    }
+
+    /**
+     * Drop everything queued, e.g. on a new game; counters are kept.
+     */
+    public void clear() {
+        Arrays.fill(heads, 0);
+        Arrays.fill(sizes, 0);
+    }
+
+    public boolean isSaturated(EventType type) {
+        return sizes[type.ordinal()] >= capacity - (capacity >> 2);
+    }
+
+    public int getQueued(EventType type) { return sizes[type.ordinal()]; }
+    public long getPosted(EventType type) { return posted[type.ordinal()]; }
+    public long getDropped(EventType type) { return dropped[type.ordinal()]; }
+    public long getProcessed() { return processed; }
+    public int getTick() { return tick; }
+    public int getCapacity() { return capacity; }
+
+    public long getTotalDropped() {
+        long total = 0;
+        for (long d : dropped) total += d;
+        return total;
+    }
+}
@@ -0,0 +1,145 @@
+package timeline;
+
+import timeline.Timeline.EventType;
+import timeline.TimelineManager.TimelineType;
+
+import java.util.Arrays;
+
+/**
+ * Append-only columnar log of timeline events with a spatial-temporal
+ * index.
+ *
+ * Every event is a row in parallel primitive columns (tick, x, y, type,
+ * source timeline) inside a ring of fixed capacity, so the log holds the
+ * most recent capacity events and appending never allocates. Ticks must
+ * not decrease; an older tick is recorded as the latest one.
+ *
+ * The index cuts the map into 4x4 tile buckets and threads each event onto
+ * a chain of earlier events in the same bucket (newest first). A query for
+ * a cell rectangle and tick window visits only the overlapping buckets and
+ * walks each chain until it passes the start of the window, so its cost
+ * follows the events near the rectangle, not the size of the log.
+ *
+ * Single-threaded, like TimelineEventBus.
+ */
+public final class TimelineEventLog {
+
+    /**
+     * Receives query results, newest first within each bucket.
+     */
+    public interface Visitor {
+        void visit(TimelineType source, EventType type, int x, int y, int tick);
+    }
+
+    private static final TimelineType[] TIMELINES = TimelineType.values();
+    private static final EventType[] TYPES = EventType.values();
+    private static final int BUCKET_SHIFT = 2;
+
+    private final int capacity;
+    private final int mask;
+    private final int bucketsPerRow;
+
+    // Columns, indexed by sequence number & mask
+    private final int[] ticks;
+    private final short[] xs;
+    private final short[] ys;
+    private final byte[] types;
+    private final byte[] sources;
+    private final long[] previousInBucket; // sequence number, -1 at the chain end
+
+    private final long[] bucketHead;
+    private long next = 0; // sequence number of the next event
+    private int lastTick = 0;
+
+    /**
+     * Log for a mapSize x mapSize grid holding the latest capacity events
+     * (rounded up to a power of two).
+     */
+    public TimelineEventLog(int mapSize, int capacity) {
+        this.capacity = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = this.capacity - 1;
+        this.bucketsPerRow = Math.max(1, (mapSize + (1 << BUCKET_SHIFT) - 1) >> BUCKET_SHIFT);
+        ticks = new int[this.capacity];
+        xs = new short[this.capacity];
+        ys = new short[this.capacity];
+        types = new byte[this.capacity];
+        sources = new byte[this.capacity];
+        previousInBucket = new long[this.capacity];
+        bucketHead = new long[bucketsPerRow * bucketsPerRow];
+        Arrays.fill(bucketHead, -1);
+    }
+
+    public void append(TimelineType source, EventType type, int x, int y, int tick) {
+        tick = Math.max(tick, lastTick);
+        lastTick = tick;
+        int i = (int) (next & mask);
+        int bucket = bucket(x, y);
+        ticks[i] = tick;
+        xs[i] = (short) x;
+        ys[i] = (short) y;
+        types[i] = (byte) type.ordinal();
+        sources[i] = (byte) source.ordinal();
+        previousInBucket[i] = bucketHead[bucket];
+        bucketHead[bucket] = next++;
+    }
+
+    // ==================== QUERIES ====================
+
+    /**
+     * Visit the events of type (null: any) with x1 <= x <= x2,
+     * y1 <= y <= y2 and fromTick <= tick <= toTick. Returns the count.
+     */
+    public int query(EventType type, int x1, int y1, int x2, int y2, int fromTick, int toTick, Visitor visitor) {
+        if (x1 > x2 || y1 > y2 || fromTick > toTick) return 0;
+        int bx1 = bucketCoord(x1);
+        int by1 = bucketCoord(y1);
+        int bx2 = bucketCoord(x2);
+        int by2 = bucketCoord(y2);
+        long oldest = next - capacity;
+        int wanted = type == null ? -1 : type.ordinal();
+        int found = 0;
+        for (int by = by1; by <= by2; by++) {
+            for (int bx = bx1; bx <= bx2; bx++) {
+                for (long seq = bucketHead[by * bucketsPerRow + bx]; seq >= 0 && seq >= oldest; ) {
+                    int i = (int) (seq & mask);
+                    int tick = ticks[i];
+                    if (tick < fromTick) break; // The rest of the chain is older
+                    int x = xs[i];
+                    int y = ys[i];
+                    if (tick <= toTick && (wanted < 0 || types[i] == wanted)
+                        && x >= x1 && x <= x2 && y >= y1 && y <= y2) {
+                        found++;
+                        if (visitor != null) {
+                            visitor.visit(TIMELINES[sources[i]], TYPES[types[i]], x, y, tick);
+                        }
+                    }
+                    seq = previousInBucket[i];
+                }
+            }
+        }
+        return found;
+    }
+
+    public int count(EventType type, int x1, int y1, int x2, int y2, int fromTick, int toTick) {
+        return query(type, x1, y1, x2, y2, fromTick, toTick, null);
+    }
+
+    private int bucket(int x, int y) {
+        return bucketCoord(y) * bucketsPerRow + bucketCoord(x);
+    }
+
+    private int bucketCoord(int v) {
+        return Math.max(0, Math.min(bucketsPerRow - 1, v >> BUCKET_SHIFT));
+    }
+
+    public void clear() {
+        Arrays.fill(bucketHead, -1);
+        next = 0;
+        lastTick = 0;
+    }
+
+    public int size() { return (int) Math.min(next, capacity); }
+    public long getAppended() { return next; }
+    public int getCapacity() { return capacity; }
+    public int getLastTick() { return lastTick; }
+}
@@ -1,6 +1,12 @@
 package timeline;
 
+import dsa.PersistentIntMap;
 import map.GridMap;
+import map.MapLayer;
+import util.Constants;
+import util.GameSettings;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.*;
 
 /**
@@ -23,16 +29,21 @@ public class TimelineManager {
     
     // Current state
     private TimelineType currentTimeline = TimelineType.PRESENT;
+    private MapLayer activeLayer; // current timeline's map, swapped on switch
     private double stability = 100.0; // 0-100, low stability = paradox risk
     private int paradoxCount = 0;
     
     // Temporal Echo system - records player positions for ghost replay
-    private List<TemporalEcho> pastEchoes = new ArrayList<>();
-    private List<TemporalEcho> futureEchoes = new ArrayList<>();
-    private List<EchoPoint> currentRecording = new ArrayList<>();
-    private long recordingStartTime = 0;
     private static final int MAX_ECHO_DURATION = 5000; // 5 seconds of recording
     private static final int MAX_ECHOES = 3;
+    private static final int ECHO_SAMPLE_MS = 16; // closer points are skipped
+    private final EchoRing pastEchoes = new EchoRing(MAX_ECHOES);
+    private final EchoRing futureEchoes = new EchoRing(MAX_ECHOES);
+    private static final int MAX_GHOST_ECHOES = 8;
+    private final EchoRing ghostEchoes = new EchoRing(MAX_GHOST_ECHOES); // earlier sessions, every timeline
+    private final TemporalEcho currentRecording =
+        new TemporalEcho(MAX_ECHO_DURATION / ECHO_SAMPLE_MS + 2, TimelineType.PRESENT);
+    private long recordingStartTime = 0;
     
     // Timeline shift cooldown
     private long lastShiftTime = 0;
@@ -56,15 +67,40 @@ public class TimelineManager {
     // Causality chains
     private List<CausalityChain> activeChains = new ArrayList<>();
     
-    // Rewind buffer - stores recent positions for rewind ability
-    private Deque<RewindState> rewindBuffer = new ArrayDeque<>();
-    private static final int REWIND_BUFFER_SIZE = 180; // ~3 seconds at 60fps
+    // Event pipeline - butterfly effects routed in one batch per update()
+    private static final int EVENT_QUEUE_CAPACITY = 4096; // per event type
+    private static final int EVENT_BATCH_LIMIT = 2048;    // per type per tick
+    private final TimelineEventBus eventBus = new TimelineEventBus(EVENT_QUEUE_CAPACITY, EVENT_BATCH_LIMIT);
+    private static final int EVENT_LOG_CAPACITY = 1 << 16; // latest events kept for queries
+    private final TimelineEventLog eventLog;
+    
+    // Versioned world - a new WorldVersion per update(), alternate branches forked by paradoxes
+    private static final int MAX_BRANCHES = 4;
+    private PersistentIntMap<WorldVersion.EntityState> entities = PersistentIntMap.empty();
+    private WorldVersion head;
+    private long tick = 0;
+    private final List<WorldVersion> branches = new ArrayList<>();
+    
+    // Rewind buffer - recent player states by time, for the rewind ability
+    private final RewindRing rewindBuffer = new RewindRing(Constants.REWIND_MAX_DURATION_MS, Constants.REWIND_SAMPLE_MS);
     
     public TimelineManager(GridMap map) {
         this.map = map;
         this.past = new Past(map);
         this.present = new Present(map);
         this.future = new Future(map);
+        this.activeLayer = present.getLayer();
+        this.past.setEventBus(eventBus);
+        this.present.setEventBus(eventBus);
+        this.future.setEventBus(eventBus);
+        this.past.setLayered(true);
+        this.present.setLayered(true);
+        this.future.setLayered(true);
+        this.eventLog = new TimelineEventLog(map.getSize(), EVENT_LOG_CAPACITY);
+        for (Timeline.EventType type : Timeline.EventType.values()) {
+            eventBus.addHandler(type, eventLog::append);
+        }
+        this.head = commitVersion();
     }
     
     // ==================== TIMELINE SWITCHING ====================
@@ -99,7 +135,7 @@ public class TimelineManager {
         }
         
         // Save echo of current position before switching
-        if (currentRecording.size() > 0) {
+        if (!currentRecording.isEmpty()) {
             saveCurrentEcho();
         }
         
@@ -121,6 +157,7 @@ public class TimelineManager {
         
         TimelineType oldTimeline = currentTimeline;
         currentTimeline = newTimeline;
+        activeLayer = targetTimeline.getLayer(); // O(1): the layers already hold each era's tiles
         lastShiftTime = System.currentTimeMillis();
         
         // Trigger causality chain if applicable
@@ -129,6 +166,17 @@ public class TimelineManager {
         return true;
     }
     
+    /**
+     * Map of the current timeline: the shared grid plus its overrides.
+     */
+    public MapLayer getActiveLayer() {
+        return activeLayer;
+    }
+    
+    public boolean isWalkable(int x, int y) {
+        return activeLayer.isWalkable(x, y);
+    }
+    
     private Timeline getTimeline(TimelineType type) {
         switch (type) {
             case PAST: return past;
@@ -202,19 +250,31 @@ public class TimelineManager {
     
     // ==================== TEMPORAL ECHO SYSTEM ====================
     
+    // Echo action codes, one byte per recorded point
+    public static final byte ACTION_IDLE = 0;
+    public static final byte ACTION_MOVING = 1;
+    public static final byte ACTION_SHOOTING = 2;
+    public static final byte ACTION_DASH = 3;
+    
     /**
      * Record player position for echo replay.
      * Call this every frame while in a timeline.
      */
     public void recordEchoPoint(double x, double y, double angle, String action) {
-        if (System.currentTimeMillis() - recordingStartTime > MAX_ECHO_DURATION) {
+        recordEchoPoint(x, y, angle, actionCode(action));
+    }
+    
+    /**
+     * Record player position for echo replay with an ACTION_* code.
+     * Points closer than ECHO_SAMPLE_MS to the previous one are skipped.
+     */
+    public void recordEchoPoint(double x, double y, double angle, byte action) {
+        long offset = System.currentTimeMillis() - recordingStartTime;
+        if (offset > MAX_ECHO_DURATION) {
             return; // Stop recording after max duration
         }
         
-        currentRecording.add(new EchoPoint(
-            x, y, angle, action,
-            System.currentTimeMillis() - recordingStartTime
-        ));
+        currentRecording.append(offset, x, y, angle, action);
     }
     
     /**
@@ -223,99 +283,406 @@ public class TimelineManager {
     private void saveCurrentEcho() {
         if (currentRecording.isEmpty()) return;
         
-        List<TemporalEcho> targetList = (currentTimeline == TimelineType.PAST) 
+        EchoRing target = (currentTimeline == TimelineType.PAST) 
             ? pastEchoes : futureEchoes;
         
-        if (targetList.size() >= MAX_ECHOES) {
-            targetList.remove(0); // Remove oldest echo
+        target.add(currentRecording.copy(currentTimeline)); // Replaces the oldest echo when full
+    }
+    
+    /**
+     * Number of echoes active in the current timeline.
+     * Echoes from PAST appear in FUTURE and vice versa; in PRESENT both
+     * appear as faint ghosts. Ghost echoes from the library appear
+     * everywhere.
+     */
+    public int getActiveEchoCount() {
+        return getTimelineEchoCount() + ghostEchoes.size();
+    }
+    
+    private int getTimelineEchoCount() {
+        switch (currentTimeline) {
+            case PAST:
+                return futureEchoes.size();
+            case FUTURE:
+                return pastEchoes.size();
+            default:
+                return pastEchoes.size() + futureEchoes.size();
         }
-        
-        targetList.add(new TemporalEcho(new ArrayList<>(currentRecording), currentTimeline));
     }
     
     /**
-     * Get active echoes for the current timeline.
-     * Echoes from PAST appear in FUTURE and vice versa.
+     * Active echo i, 0 <= i < getActiveEchoCount(); past echoes come first
+     * in PRESENT, library ghosts last.
      */
-    public List<TemporalEcho> getActiveEchoes() {
+    public TemporalEcho getActiveEcho(int i) {
+        int own = getTimelineEchoCount();
+        if (i >= own) return ghostEchoes.get(i - own);
         switch (currentTimeline) {
             case PAST:
-                return futureEchoes; // See echoes from future
+                return futureEchoes.get(i); // See echoes from future
             case FUTURE:
-                return pastEchoes; // See echoes from past
+                return pastEchoes.get(i); // See echoes from past
             default:
-                // In present, see both as faint ghosts
-                List<TemporalEcho> combined = new ArrayList<>();
-                combined.addAll(pastEchoes);
-                combined.addAll(futureEchoes);
-                return combined;
+                return i < pastEchoes.size() ? pastEchoes.get(i) : futureEchoes.get(i - pastEchoes.size());
+        }
+    }
+    
+    /**
+     * Append this session's echoes, including the one being recorded, to a
+     * library, tagged with the run's score and wave. Call once per run.
+     */
+    public void archiveEchoes(EchoLibrary library, int score, int wave) throws IOException {
+        for (int i = 0; i < pastEchoes.size(); i++) library.append(pastEchoes.get(i), score, wave);
+        for (int i = 0; i < futureEchoes.size(); i++) library.append(futureEchoes.get(i), score, wave);
+        if (!currentRecording.isEmpty()) {
+            library.append(currentRecording.copy(currentTimeline), score, wave);
+        }
+    }
+    
+    /**
+     * Replace the ghost echoes with the best runs of a library by score.
+     * Only these are decoded onto the heap; returns how many were loaded.
+     * On a read error the previous ghosts are kept.
+     */
+    public int loadGhostEchoes(EchoLibrary library, int count) throws IOException {
+        int n = Math.min(Math.min(count, MAX_GHOST_ECHOES), library.size());
+        TemporalEcho[] loaded = new TemporalEcho[n];
+        for (int rank = 0; rank < n; rank++) {
+            loaded[rank] = library.load(library.bestByScore(rank));
+        }
+        ghostEchoes.clear();
+        for (TemporalEcho echo : loaded) {
+            ghostEchoes.add(echo);
+        }
+        return n;
+    }
+    
+    /**
+     * Get active echoes for the current timeline as a live read-only view;
+     * nothing is copied. Per-frame code should index with
+     * getActiveEchoCount() / getActiveEcho(i) instead of iterating.
+     */
+    public List<TemporalEcho> getActiveEchoes() {
+        return activeEchoes;
+    }
+    
+    private final List<TemporalEcho> activeEchoes = new AbstractList<TemporalEcho>() {
+        @Override
+        public TemporalEcho get(int index) {
+            if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("Echo " + index);
+            return getActiveEcho(index);
+        }
+        
+        @Override
+        public int size() {
+            return getActiveEchoCount();
+        }
+    };
+    
+    static byte actionCode(String action) {
+        if (action == null) return ACTION_IDLE;
+        switch (action) {
+            case "moving": return ACTION_MOVING;
+            case "shooting": return ACTION_SHOOTING;
+            case "dash": return ACTION_DASH;
+            default: return ACTION_IDLE;
         }
     }
     
-    public static class EchoPoint {
-        public final double x;
-        public final double y;
-        public final double angle;
-        public final String action; // "idle", "moving", "shooting", "dash"
-        public final long timeOffset; // ms from start
+    public static String actionName(byte code) {
+        switch (code) {
+            case ACTION_MOVING: return "moving";
+            case ACTION_SHOOTING: return "shooting";
+            case ACTION_DASH: return "dash";
+            default: return "idle";
+        }
+    }
+    
+    /**
+     * Fixed-size ring of echoes; adding to a full ring replaces the oldest.
+     */
+    private static final class EchoRing {
+        private final TemporalEcho[] slots;
+        private int oldest = 0;
+        private int size = 0;
+        
+        EchoRing(int capacity) {
+            slots = new TemporalEcho[capacity];
+        }
         
-        public EchoPoint(double x, double y, double angle, String action, long timeOffset) {
-            this.x = x;
-            this.y = y;
-            this.angle = angle;
-            this.action = action;
-            this.timeOffset = timeOffset;
+        void add(TemporalEcho echo) {
+            if (size == slots.length) {
+                slots[oldest] = echo;
+                oldest = (oldest + 1) % slots.length;
+            } else {
+                slots[(oldest + size++) % slots.length] = echo;
+            }
+        }
+        
+        TemporalEcho get(int i) {
+            return slots[(oldest + i) % slots.length];
+        }
+        
+        void clear() {
+            Arrays.fill(slots, null);
+            oldest = 0;
+            size = 0;
+        }
+        
+        int size() {
+            return size;
         }
     }
     
+    /**
+     * One recorded ghost run in parallel primitive arrays: time offset (ms,
+     * unsigned 16-bit, so at most MAX_OFFSET_MS), position quantized to
+     * 1/128 tile, angle quantized to 1/65536 turn and a byte action code -
+     * 9 bytes per point.
+     * 
+     * Playback keeps a cursor that only moves forward, so advancing every
+     * echo each frame is O(1) amortized; sampleAt() binary-searches for
+     * random access. Position and angle are interpolated between points.
+     */
     public static class TemporalEcho {
-        public final List<EchoPoint> points;
+        private static final double POSITION_SCALE = 128.0;
+        private static final double ANGLE_SCALE = 65536 / (2 * Math.PI);
+        static final int MAX_OFFSET_MS = Character.MAX_VALUE; // about 65 seconds
+        
+        private char[] times;
+        private short[] xs;
+        private short[] ys;
+        private short[] angles;
+        private byte[] actions;
+        private int count = 0;
+        
         public final TimelineType sourceTimeline;
         public final long createdAt;
-        public int currentIndex = 0;
         public boolean isPlaying = false;
         public long playStartTime = 0;
+        private int cursor = 0;
+        
+        // Sample from the last advance() or sampleAt()
+        private double x;
+        private double y;
+        private double angle;
+        private byte action;
+        
+        TemporalEcho(int capacity, TimelineType source) {
+            this(capacity, source, System.currentTimeMillis());
+        }
         
-        public TemporalEcho(List<EchoPoint> points, TimelineType source) {
-            this.points = points;
+        private TemporalEcho(int capacity, TimelineType source, long createdAt) {
+            this.times = new char[capacity];
+            this.xs = new short[capacity];
+            this.ys = new short[capacity];
+            this.angles = new short[capacity];
+            this.actions = new byte[capacity];
             this.sourceTimeline = source;
-            this.createdAt = System.currentTimeMillis();
+            this.createdAt = createdAt;
+        }
+        
+        /**
+         * Append a point; offsets must not decrease. Returns false when the
+         * point was skipped, including offsets beyond MAX_OFFSET_MS.
+         */
+        boolean append(long offset, double px, double py, double a, byte act) {
+            if (count == times.length) return false;
+            if (offset < 0 || offset > MAX_OFFSET_MS) return false;
+            if (count > 0 && offset - times[count - 1] < ECHO_SAMPLE_MS) return false;
+            times[count] = (char) offset;
+            xs[count] = quantize(px);
+            ys[count] = quantize(py);
+            angles[count] = (short) Math.round(a * ANGLE_SCALE); // wraps, like the angle
+            actions[count] = act;
+            count++;
+            return true;
+        }
+        
+        private static short quantize(double v) {
+            long q = Math.round(v * POSITION_SCALE);
+            return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, q));
+        }
+        
+        /**
+         * Trimmed copy of the points recorded so far.
+         */
+        TemporalEcho copy(TimelineType source) {
+            TemporalEcho echo = new TemporalEcho(0, source);
+            echo.times = Arrays.copyOf(times, count);
+            echo.xs = Arrays.copyOf(xs, count);
+            echo.ys = Arrays.copyOf(ys, count);
+            echo.angles = Arrays.copyOf(angles, count);
+            echo.actions = Arrays.copyOf(actions, count);
+            echo.count = count;
+            return echo;
+        }
+        
+        void clear() {
+            count = 0;
+            cursor = 0;
+        }
+        
+        /**
+         * Upper bound of writePoints() output for points points.
+         */
+        static int maxEncodedBytes(int points) {
+            return points * 13;
+        }
+        
+        /**
+         * Stream the points as zigzag varints of the change from the
+         * previous point (time, x, y, angle) plus the action byte; a
+         * walking player takes 5-6 bytes a point.
+         */
+        void writePoints(ByteBuffer out) {
+            int t = 0, px = 0, py = 0, pa = 0;
+            for (int i = 0; i < count; i++) {
+                writeVarint(out, zigzag(times[i] - t));
+                writeVarint(out, zigzag(xs[i] - px));
+                writeVarint(out, zigzag(ys[i] - py));
+                writeVarint(out, zigzag((short) (angles[i] - pa)));
+                out.put(actions[i]);
+                t = times[i];
+                px = xs[i];
+                py = ys[i];
+                pa = angles[i];
+            }
+        }
+        
+        /**
+         * Decode count points written by writePoints().
+         */
+        static TemporalEcho readPoints(ByteBuffer in, int count, TimelineType source, long createdAt) {
+            TemporalEcho echo = new TemporalEcho(count, source, createdAt);
+            int t = 0, px = 0, py = 0, pa = 0;
+            for (int i = 0; i < count; i++) {
+                t += unzigzag(readVarint(in));
+                px += unzigzag(readVarint(in));
+                py += unzigzag(readVarint(in));
+                pa += unzigzag(readVarint(in));
+                echo.times[i] = (char) t;
+                echo.xs[i] = (short) px;
+                echo.ys[i] = (short) py;
+                echo.angles[i] = (short) pa;
+                echo.actions[i] = in.get();
+            }
+            echo.count = count;
+            return echo;
+        }
+        
+        private static void writeVarint(ByteBuffer out, int value) {
+            while ((value & ~0x7F) != 0) {
+                out.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.put((byte) value);
+        }
+        
+        private static int readVarint(ByteBuffer in) {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = in.get();
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+        
+        private static int zigzag(int value) {
+            return (value << 1) ^ (value >> 31);
+        }
+        
+        private static int unzigzag(int value) {
+            return (value >>> 1) ^ -(value & 1);
         }
         
         public void startPlayback() {
             isPlaying = true;
             playStartTime = System.currentTimeMillis();
-            currentIndex = 0;
+            cursor = 0;
         }
         
-        public EchoPoint getCurrentPoint() {
-            if (!isPlaying || points.isEmpty()) return null;
+        /**
+         * Move playback to the current time; returns false (and stops
+         * playing) once past the last point.
+         */
+        public boolean advance() {
+            if (!isPlaying || count == 0) return false;
             
             long elapsed = System.currentTimeMillis() - playStartTime;
-            
-            // Find the point closest to current time
-            for (int i = currentIndex; i < points.size(); i++) {
-                if (points.get(i).timeOffset >= elapsed) {
-                    currentIndex = i;
-                    return points.get(i);
+            if (elapsed > times[count - 1]) {
+                // Playback finished
+                isPlaying = false;
+                cursor = count - 1;
+                return false;
+            }
+            while (cursor + 1 < count && times[cursor + 1] <= elapsed) {
+                cursor++;
+            }
+            interpolate(cursor, elapsed);
+            return true;
+        }
+        
+        /**
+         * Load the sample at offset ms into the getters, clamped to the
+         * recording; returns false for an empty echo.
+         */
+        public boolean sampleAt(long offset) {
+            if (count == 0) return false;
+            int lo = 0;
+            int hi = count - 1;
+            int found = 0;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (times[mid] <= offset) {
+                    found = mid;
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
                 }
             }
-            
-            // Playback finished
-            isPlaying = false;
-            return null;
+            interpolate(found, offset);
+            return true;
+        }
+        
+        private void interpolate(int i, long offset) {
+            double f = 0;
+            int j = i;
+            if (i + 1 < count && offset > times[i]) {
+                j = i + 1;
+                f = (double) (offset - times[i]) / (times[j] - times[i]);
+            }
+            x = (xs[i] + (xs[j] - xs[i]) * f) / POSITION_SCALE;
+            y = (ys[i] + (ys[j] - ys[i]) * f) / POSITION_SCALE;
+            short turn = (short) (angles[j] - angles[i]); // shortest way round
+            angle = (angles[i] + turn * f) / ANGLE_SCALE;
+            action = actions[i];
         }
         
         public boolean isFinished() {
-            return !isPlaying && currentIndex >= points.size() - 1;
+            return !isPlaying && cursor >= count - 1;
         }
+        
+        public boolean isEmpty() { return count == 0; }
+        public int getPointCount() { return count; }
+        public long getDuration() { return count == 0 ? 0 : times[count - 1]; }
+        public int getBytes() { return count * 9; }
+        public double getX() { return x; }
+        public double getY() { return y; }
+        public double getAngle() { return angle; }
+        public byte getAction() { return action; }
+        public String getActionName() { return actionName(action); }
     }
     
     // ==================== SPECIAL ABILITIES ====================
     
     /**
-     * REWIND - Go back in time 3 seconds.
-     * Restores health, position, and removes recent enemies.
+     * REWIND - Go back in time GameSettings.getRewindDuration() (3 seconds
+     * by default). Restores health and position only; the world itself (enemies,
+     * projectiles, pickups, score) is rewound by game.WorldHistory.
      */
     public RewindResult activateRewind() {
         if (System.currentTimeMillis() - lastRewindTime < REWIND_COOLDOWN) {
@@ -326,16 +693,9 @@ public class TimelineManager {
             return new RewindResult(false, "No rewind data", 0, 0, 0);
         }
         
-        // Get state from 3 seconds ago (or oldest available)
-        RewindState targetState = null;
-        int stepsBack = Math.min(rewindBuffer.size(), REWIND_BUFFER_SIZE);
-        
-        Iterator<RewindState> it = rewindBuffer.descendingIterator();
-        for (int i = 0; i < stepsBack && it.hasNext(); i++) {
-            targetState = it.next();
-        }
-        
-        if (targetState == null) {
+        // Get state from the rewind duration ago (or oldest available)
+        long target = System.currentTimeMillis() - GameSettings.getRewindDuration();
+        if (!rewindBuffer.seek(target)) {
             return new RewindResult(false, "Rewind failed", 0, 0, 0);
         }
         
@@ -343,34 +703,16 @@ public class TimelineManager {
         stability = Math.max(0, stability - 15); // Costs stability
         
         return new RewindResult(true, "Time Rewound!", 
-            targetState.x, targetState.y, targetState.health);
+            rewindBuffer.getX(), rewindBuffer.getY(), rewindBuffer.getHealth());
     }
     
     /**
      * Save current state to rewind buffer.
-     * Call every frame.
+     * Call every frame; samples are kept every REWIND_SAMPLE_MS whatever
+     * the frame rate.
      */
     public void saveRewindState(double x, double y, int health, int energy) {
-        if (rewindBuffer.size() >= REWIND_BUFFER_SIZE) {
-            rewindBuffer.removeFirst();
-        }
-        rewindBuffer.addLast(new RewindState(x, y, health, energy, System.currentTimeMillis()));
-    }
-    
-    public static class RewindState {
-        public final double x;
-        public final double y;
-        public final int health;
-        public final int energy;
-        public final long timestamp;
-        
-        public RewindState(double x, double y, int health, int energy, long timestamp) {
-            this.x = x;
-            this.y = y;
-            this.health = health;
-            this.energy = energy;
-            this.timestamp = timestamp;
-        }
+        rewindBuffer.record(System.currentTimeMillis(), x, y, health, energy);
     }
     
     public static class RewindResult {
@@ -472,6 +814,7 @@ public class TimelineManager {
      * Trigger a time paradox - spawns paradox enemies or effects.
      */
     private void triggerParadox(double playerX, double playerY) {
+        forkBranch(); // The world as it was before the paradox
         paradoxCount++;
         
         // Paradox effects based on count
@@ -563,18 +906,132 @@ public class TimelineManager {
         }
         
         // Update echo playback
-        for (TemporalEcho echo : getActiveEchoes()) {
+        for (int i = 0, n = getActiveEchoCount(); i < n; i++) {
+            TemporalEcho echo = getActiveEcho(i);
             if (echo.isPlaying) {
-                echo.getCurrentPoint(); // Advances the echo
+                echo.advance();
             }
         }
+        
+        // Route this tick's timeline events
+        eventBus.processTick();
+        
+        tick++;
+        head = commitVersion();
+    }
+    
+    /**
+     * Queue an event in the current timeline; false when it was dropped.
+     */
+    public boolean postEvent(Timeline.EventType type, int x, int y) {
+        return eventBus.post(currentTimeline, type, x, y);
+    }
+    
+    public TimelineEventBus getEventBus() {
+        return eventBus;
+    }
+    
+    public TimelineEventLog getEventLog() {
+        return eventLog;
+    }
+    
+    /**
+     * Events of type (null: any) logged in the cell rectangle during the
+     * last windowMillis, taking update() to run once per frame.
+     */
+    public int countRecentEvents(Timeline.EventType type, int x1, int y1, int x2, int y2, long windowMillis) {
+        int now = eventBus.getTick();
+        return eventLog.count(type, x1, y1, x2, y2, now - millisToTicks(windowMillis), now);
+    }
+    
+    /**
+     * Whether an enemy killed in the past keeps enemies from spawning near
+     * (x, y): an ENEMY_PREVENTED event within radius in the last windowMillis.
+     */
+    public boolean isSpawnPrevented(int x, int y, int radius, long windowMillis) {
+        return countRecentEvents(Timeline.EventType.ENEMY_PREVENTED,
+            x - radius, y - radius, x + radius, y + radius, windowMillis) > 0;
+    }
+    
+    private static int millisToTicks(long millis) {
+        return (int) Math.min(Integer.MAX_VALUE, millis * Constants.TARGET_FPS / 1000);
+    }
+    
+    // ==================== VERSIONED WORLD ====================
+    
+    /**
+     * Snapshot the current state; O(1), since tiles and entities are
+     * already persistent.
+     */
+    private WorldVersion commitVersion() {
+        return new WorldVersion(tick, currentTimeline, stability, paradoxCount,
+            past.getLayer().getVersion(), present.getLayer().getVersion(),
+            future.getLayer().getVersion(), entities);
+    }
+    
+    /**
+     * Add or update an entity in the versioned world, keyed by its id.
+     */
+    public void trackEntity(WorldVersion.EntityState entity) {
+        entities = entities.put(entity.id, entity);
+    }
+    
+    public void untrackEntity(int id) {
+        entities = entities.remove(id);
+    }
+    
+    /**
+     * Latest version, made by the last update().
+     */
+    public WorldVersion getHead() {
+        return head;
+    }
+    
+    /**
+     * Keep the current world as an alternate branch; returns its index.
+     * The oldest branch is dropped beyond MAX_BRANCHES.
+     */
+    public int forkBranch() {
+        if (branches.size() == MAX_BRANCHES) {
+            branches.remove(0);
+        }
+        branches.add(commitVersion());
+        return branches.size() - 1;
+    }
+    
+    public List<WorldVersion> getBranches() {
+        return Collections.unmodifiableList(branches);
+    }
+    
+    public void discardBranch(int index) {
+        branches.remove(index);
+    }
+    
+    /**
+     * Make a branch the live world, swapping out the current one; costs
+     * O(changes) between the two. The current world is kept as a branch in
+     * its place, so switching back is possible.
+     */
+    public void switchToBranch(int index) {
+        WorldVersion target = branches.get(index);
+        branches.set(index, commitVersion());
+        past.getLayer().setVersion(target.pastTiles);
+        present.getLayer().setVersion(target.presentTiles);
+        future.getLayer().setVersion(target.futureTiles);
+        entities = target.entities;
+        currentTimeline = target.timeline;
+        activeLayer = getTimeline(currentTimeline).getLayer();
+        stability = target.stability;
+        paradoxCount = target.paradoxCount;
+        head = commitVersion();
     }
     
     /**
      * Start playing all echoes for current timeline.
      */
     public void playEchoes() {
-        for (TemporalEcho echo : getActiveEchoes()) {
+        for (int i = 0, n = getActiveEchoCount(); i < n; i++) {
+            TemporalEcho echo = getActiveEcho(i);
             if (!echo.isFinished()) {
                 echo.startPlayback();
             }
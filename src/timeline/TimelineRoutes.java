@@ -0,0 +1,87 @@
+package timeline;
+
+import timeline.Timeline.EventType;
+import timeline.TimelineManager.TimelineType;
+
+import java.util.Arrays;
+
+/**
+ * Butterfly rules: which derived events an event of a type in a source
+ * timeline raises in the other timelines.
+ *
+ * A table indexed by (source, type) of packed ints (target << 16 | derived
+ * type), decoded by target() and type(). Immutable, so DEFAULT is shared by
+ * TimelineEventBus, Timeline.propagateToOtherTimelines() and ParallelEras;
+ * with() returns a table with one more route.
+ */
+public final class TimelineRoutes {
+
+    private static final TimelineType[] TIMELINES = TimelineType.values();
+    private static final EventType[] TYPES = EventType.values();
+    private static final int[] NO_ROUTES = new int[0];
+
+    public static final TimelineRoutes NONE = new TimelineRoutes(empty());
+
+    /**
+     * The butterfly rules Timeline.propagateToOtherTimelines always had.
+     */
+    public static final TimelineRoutes DEFAULT = NONE
+        // Killing an enemy in the past prevents it from appearing in the future
+        .with(TimelineType.PAST, EventType.ENEMY_KILLED, TimelineType.FUTURE, EventType.ENEMY_PREVENTED)
+        // Killing in future creates echoes in present
+        .with(TimelineType.FUTURE, EventType.ENEMY_KILLED, TimelineType.PRESENT, EventType.ECHO_CREATED)
+        // Taking a collectible in present creates echoes in past and future
+        .with(TimelineType.PRESENT, EventType.COLLECTIBLE_TAKEN, TimelineType.PAST, EventType.ECHO_CREATED)
+        .with(TimelineType.PRESENT, EventType.COLLECTIBLE_TAKEN, TimelineType.FUTURE, EventType.ECHO_CREATED)
+        // Destroying an obstacle in the past opens the path in later timelines
+        .with(TimelineType.PAST, EventType.OBSTACLE_DESTROYED, TimelineType.PRESENT, EventType.PATH_OPENED)
+        .with(TimelineType.PAST, EventType.OBSTACLE_DESTROYED, TimelineType.FUTURE, EventType.PATH_OPENED);
+
+    private final int[][] routes;
+
+    private TimelineRoutes(int[][] routes) {
+        this.routes = routes;
+    }
+
+    private static int[][] empty() {
+        int[][] routes = new int[TIMELINES.length * TYPES.length][];
+        Arrays.fill(routes, NO_ROUTES);
+        return routes;
+    }
+
+    /**
+     * These routes plus: an event of type in source also raises derived in
+     * target.
+     */
+    public TimelineRoutes with(TimelineType source, EventType type, TimelineType target, EventType derived) {
+        int[][] next = routes.clone();
+        int slot = slot(source.ordinal(), type.ordinal());
+        int[] current = routes[slot];
+        next[slot] = Arrays.copyOf(current, current.length + 1);
+        next[slot][current.length] = (target.ordinal() << 16) | derived.ordinal();
+        return new TimelineRoutes(next);
+    }
+
+    /**
+     * Packed routes of (source, type); do not modify the array.
+     */
+    public int[] routesFor(TimelineType source, EventType type) {
+        return routes[slot(source.ordinal(), type.ordinal())];
+    }
+
+    int[] routesFor(int source, int type) {
+        return routes[slot(source, type)];
+    }
+
+    private static int slot(int source, int type) {
+        return source * TYPES.length + type;
+    }
+
+    public static TimelineType target(int route) {
+        return TIMELINES[route >>> 16];
+    }
+
+    public static EventType type(int route) {
+        return TYPES[route & 0xFFFF];
+    }
+}
@@ -0,0 +1,108 @@
+package timeline;
+
+import dsa.PersistentIntMap;
+import map.MapLayer;
+import timeline.TimelineManager.TimelineType;
+
+import java.util.Objects;
+
+/**
+ * One immutable version of the timeline world: each era's tile overrides,
+ * the tracked entities by id and the timeline meters.
+ *
+ * Tiles and entities live in PersistentIntMaps, so a version made from the
+ * previous one shares every unchanged node with it. TimelineManager makes a
+ * version per tick for the cost of this object; keeping a branch costs only
+ * what changed since it forked, and diff() compares two versions in
+ * O(changes).
+ */
+public final class WorldVersion {
+
+    /**
+     * Immutable state of one tracked entity.
+     */
+    public static final class EntityState {
+        public final int id;
+        public final String kind;
+        public final double x;
+        public final double y;
+        public final int health;
+
+        public EntityState(int id, String kind, double x, double y, int health) {
+            this.id = id;
+            this.kind = kind;
+            this.x = x;
+            this.y = y;
+            this.health = health;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof EntityState)) return false;
+            EntityState other = (EntityState) o;
+            return id == other.id && health == other.health
+                && Double.compare(x, other.x) == 0 && Double.compare(y, other.y) == 0
+                && Objects.equals(kind, other.kind);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, kind, x, y, health);
+        }
+    }
+
+    /**
+     * Receives the differences found by diff().
+     */
+    public interface Changes {
+        void tileChanged(TimelineType era, int x, int y);
+        void entityChanged(int id, EntityState before, EntityState after); // null when absent
+    }
+
+    public final long tick;
+    public final TimelineType timeline;
+    public final double stability;
+    public final int paradoxCount;
+    final PersistentIntMap<MapLayer.Chunk> pastTiles;
+    final PersistentIntMap<MapLayer.Chunk> presentTiles;
+    final PersistentIntMap<MapLayer.Chunk> futureTiles;
+    final PersistentIntMap<EntityState> entities;
+
+    WorldVersion(long tick, TimelineType timeline, double stability, int paradoxCount,
+                 PersistentIntMap<MapLayer.Chunk> pastTiles,
+                 PersistentIntMap<MapLayer.Chunk> presentTiles,
+                 PersistentIntMap<MapLayer.Chunk> futureTiles,
+                 PersistentIntMap<EntityState> entities) {
+        this.tick = tick;
+        this.timeline = timeline;
+        this.stability = stability;
+        this.paradoxCount = paradoxCount;
+        this.pastTiles = pastTiles;
+        this.presentTiles = presentTiles;
+        this.futureTiles = futureTiles;
+        this.entities = entities;
+    }
+
+    public EntityState getEntity(int id) {
+        return entities.get(id);
+    }
+
+    public int getEntityCount() {
+        return entities.size();
+    }
+
+    /**
+     * Report every tile override and entity that differs in other.
+     */
+    public void diff(WorldVersion other, Changes changes) {
+        MapLayer.diff(pastTiles, other.pastTiles, (x, y) -> changes.tileChanged(TimelineType.PAST, x, y));
+        MapLayer.diff(presentTiles, other.presentTiles, (x, y) -> changes.tileChanged(TimelineType.PRESENT, x, y));
+        MapLayer.diff(futureTiles, other.futureTiles, (x, y) -> changes.tileChanged(TimelineType.FUTURE, x, y));
+        entities.diff(other.entities, new PersistentIntMap.DiffVisitor<EntityState>() {
+            @Override public void added(int id, EntityState value) { changes.entityChanged(id, null, value); }
+            @Override public void removed(int id, EntityState value) { changes.entityChanged(id, value, null); }
+            @Override public void changed(int id, EntityState before, EntityState after) { changes.entityChanged(id, before, after); }
+        });
+    }
+}
@@ -0,0 +1,424 @@
+package ui;
+
+import javafx.scene.image.Image;
+import javafx.scene.paint.Paint;
+import javafx.scene.text.Font;
+import java.util.Arrays;
+
+/**
+ * Renderer that groups primitives by paint state.
+ *
+ * Outside a batch every command passes straight through, minus state
+ * changes that set the value already in effect. Between beginBatch and
+ * flushBatch, draw commands are recorded together with the fill, stroke,
+ * line width, alpha and font they were issued under; flushBatch then emits
+ * them grouped by state (stable within a state), so the delegate sees one
+ * state change per distinct state instead of one per primitive. Only use a
+ * batch where the draw order between primitives does not matter.
+ *
+ * Paints are compared by identity, so callers should take them from
+ * PaintCache. Buffers grow as needed and are reused across frames.
+ */
+public class BatchingRenderer implements Renderer {
+    private static final byte FILL_RECT = 0;
+    private static final byte FILL_OVAL = 1;
+    private static final byte STROKE_OVAL = 2;
+    private static final byte STROKE_LINE = 3;
+    private static final byte FILL_ROUND_RECT = 4;
+    private static final byte FILL_TEXT = 5;
+    private static final byte DRAW_IMAGE = 6;
+    private static final int STRIDE = 6;
+    private static final int MAX_SAVE_DEPTH = 32;
+
+    private final Renderer delegate;
+
+    // State as requested by the caller
+    private Paint fill;
+    private Paint stroke;
+    private double lineWidth = 1;
+    private double alpha = 1;
+    private Font font;
+    private final Paint[] savedFill = new Paint[MAX_SAVE_DEPTH];
+    private final Paint[] savedStroke = new Paint[MAX_SAVE_DEPTH];
+    private final double[] savedLineWidth = new double[MAX_SAVE_DEPTH];
+    private final double[] savedAlpha = new double[MAX_SAVE_DEPTH];
+    private final Font[] savedFont = new Font[MAX_SAVE_DEPTH];
+    private int saveDepth = 0;
+
+    // State last sent to the delegate
+    private Paint sentFill;
+    private Paint sentStroke;
+    private double sentLineWidth = 1;
+    private double sentAlpha = 1;
+    private Font sentFont;
+    private final Paint[] savedSentFill = new Paint[MAX_SAVE_DEPTH];
+    private final Paint[] savedSentStroke = new Paint[MAX_SAVE_DEPTH];
+    private final double[] savedSentLineWidth = new double[MAX_SAVE_DEPTH];
+    private final double[] savedSentAlpha = new double[MAX_SAVE_DEPTH];
+    private final Font[] savedSentFont = new Font[MAX_SAVE_DEPTH];
+
+    // Batch buffers
+    private boolean batching = false;
+    private int count = 0;
+    private byte[] ops = new byte[256];
+    private double[] coords = new double[256 * STRIDE];
+    private int[] stateOf = new int[256];
+    private Object[] payload = new Object[256];
+    private int[] order = new int[256];
+
+    // Distinct states in the current batch
+    private int stateCount = 0;
+    private Paint[] stateFill = new Paint[16];
+    private Paint[] stateStroke = new Paint[16];
+    private double[] stateLineWidth = new double[16];
+    private double[] stateAlpha = new double[16];
+    private Font[] stateFont = new Font[16];
+    private int[] stateStart = new int[17];
+    private int currentState = -1;
+
+    // Statistics for the last frame
+    private int requestedChanges;
+    private int emittedChanges;
+    private int lastRequestedChanges;
+    private int lastEmittedChanges;
+
+    public BatchingRenderer(Renderer delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void beginFrame() {
+        requestedChanges = 0;
+        emittedChanges = 0;
+        delegate.beginFrame();
+    }
+
+    @Override
+    public void endFrame() {
+        flushBatch();
+        lastRequestedChanges = requestedChanges;
+        lastEmittedChanges = emittedChanges;
+        delegate.endFrame();
+    }
+
+    /**
+     * State changes the render code asked for in the last frame.
+     */
+    public int getRequestedStateChanges() { return lastRequestedChanges; }
+
+    /**
+     * State changes actually sent to the delegate in the last frame.
+     */
+    public int getEmittedStateChanges() { return lastEmittedChanges; }
+
+    // ==== BATCHING ====
+
+    @Override
+    public void beginBatch() {
+        flushBatch();
+        batching = true;
+    }
+
+    @Override
+    public void flushBatch() {
+        if (!batching) return;
+        batching = false;
+        if (count == 0) {
+            stateCount = 0;
+            currentState = -1;
+            return;
+        }
+
+        // Counting sort by state id keeps issue order within each state
+        Arrays.fill(stateStart, 0, stateCount + 1, 0);
+        for (int i = 0; i < count; i++) stateStart[stateOf[i] + 1]++;
+        for (int s = 0; s < stateCount; s++) stateStart[s + 1] += stateStart[s];
+        for (int i = 0; i < count; i++) order[stateStart[stateOf[i]]++] = i;
+
+        int lastState = -1;
+        for (int k = 0; k < count; k++) {
+            int i = order[k];
+            int s = stateOf[i];
+            if (s != lastState) {
+                applyState(stateFill[s], stateStroke[s], stateLineWidth[s], stateAlpha[s], stateFont[s]);
+                lastState = s;
+            }
+            emit(i);
+        }
+
+        Arrays.fill(payload, 0, count, null);
+        Arrays.fill(stateFill, 0, stateCount, null);
+        Arrays.fill(stateStroke, 0, stateCount, null);
+        Arrays.fill(stateFont, 0, stateCount, null);
+        count = 0;
+        stateCount = 0;
+        currentState = -1;
+    }
+
+    private void emit(int i) {
+        int c = i * STRIDE;
+        switch (ops[i]) {
+            case FILL_RECT: delegate.fillRect(coords[c], coords[c + 1], coords[c + 2], coords[c + 3]); break;
+            case FILL_OVAL: delegate.fillOval(coords[c], coords[c + 1], coords[c + 2], coords[c + 3]); break;
+            case STROKE_OVAL: delegate.strokeOval(coords[c], coords[c + 1], coords[c + 2], coords[c + 3]); break;
+            case STROKE_LINE: delegate.strokeLine(coords[c], coords[c + 1], coords[c + 2], coords[c + 3]); break;
+            case FILL_ROUND_RECT:
+                delegate.fillRoundRect(coords[c], coords[c + 1], coords[c + 2], coords[c + 3], coords[c + 4], coords[c + 5]);
+                break;
+            case FILL_TEXT: delegate.fillText((String) payload[i], coords[c], coords[c + 1]); break;
+            case DRAW_IMAGE:
+                delegate.drawImage((Image) payload[i], coords[c], coords[c + 1], coords[c + 2], coords[c + 3]);
+                break;
+            default: break;
+        }
+    }
+
+    private int stateId() {
+        if (currentState >= 0) return currentState;
+        for (int s = 0; s < stateCount; s++) {
+            if (stateFill[s] == fill && stateStroke[s] == stroke && stateLineWidth[s] == lineWidth
+                    && stateAlpha[s] == alpha && stateFont[s] == font) {
+                currentState = s;
+                return s;
+            }
+        }
+        if (stateCount == stateFill.length) {
+            int capacity = stateCount * 2;
+            stateFill = Arrays.copyOf(stateFill, capacity);
+            stateStroke = Arrays.copyOf(stateStroke, capacity);
+            stateLineWidth = Arrays.copyOf(stateLineWidth, capacity);
+            stateAlpha = Arrays.copyOf(stateAlpha, capacity);
+            stateFont = Arrays.copyOf(stateFont, capacity);
+            stateStart = Arrays.copyOf(stateStart, capacity + 1);
+        }
+        stateFill[stateCount] = fill;
+        stateStroke[stateCount] = stroke;
+        stateLineWidth[stateCount] = lineWidth;
+        stateAlpha[stateCount] = alpha;
+        stateFont[stateCount] = font;
+        currentState = stateCount++;
+        return currentState;
+    }
+
+    private void record(byte op, double a, double b, double c, double d, double e, double f, Object data) {
+        if (count == ops.length) {
+            int capacity = count * 2;
+            ops = Arrays.copyOf(ops, capacity);
+            coords = Arrays.copyOf(coords, capacity * STRIDE);
+            stateOf = Arrays.copyOf(stateOf, capacity);
+            payload = Arrays.copyOf(payload, capacity);
+            order = new int[capacity];
+        }
+        int base = count * STRIDE;
+        ops[count] = op;
+        coords[base] = a;
+        coords[base + 1] = b;
+        coords[base + 2] = c;
+        coords[base + 3] = d;
+        coords[base + 4] = e;
+        coords[base + 5] = f;
+        payload[count] = data;
+        stateOf[count] = stateId();
+        count++;
+    }
+
+    private void applyState(Paint f, Paint s, double w, double a, Font fo) {
+        if (f != null && f != sentFill) { delegate.setFill(f); sentFill = f; emittedChanges++; }
+        if (s != null && s != sentStroke) { delegate.setStroke(s); sentStroke = s; emittedChanges++; }
+        if (w != sentLineWidth) { delegate.setLineWidth(w); sentLineWidth = w; emittedChanges++; }
+        if (a != sentAlpha) { delegate.setGlobalAlpha(a); sentAlpha = a; emittedChanges++; }
+        if (fo != null && fo != sentFont) { delegate.setFont(fo); sentFont = fo; emittedChanges++; }
+    }
+
+    private void syncState() {
+        applyState(fill, stroke, lineWidth, alpha, font);
+    }
+
+    // ==== STATE ====
+
+    @Override
+    public void save() {
+        flushBatch();
+        requestedChanges++;
+        emittedChanges++;
+        if (saveDepth < MAX_SAVE_DEPTH) {
+            savedFill[saveDepth] = fill;
+            savedStroke[saveDepth] = stroke;
+            savedLineWidth[saveDepth] = lineWidth;
+            savedAlpha[saveDepth] = alpha;
+            savedFont[saveDepth] = font;
+            savedSentFill[saveDepth] = sentFill;
+            savedSentStroke[saveDepth] = sentStroke;
+            savedSentLineWidth[saveDepth] = sentLineWidth;
+            savedSentAlpha[saveDepth] = sentAlpha;
+            savedSentFont[saveDepth] = sentFont;
+        }
+        saveDepth++;
+        delegate.save();
+    }
+
+    @Override
+    public void restore() {
+        flushBatch();
+        requestedChanges++;
+        emittedChanges++;
+        delegate.restore();
+        currentState = -1;
+        if (saveDepth > 0) {
+            saveDepth--;
+            if (saveDepth < MAX_SAVE_DEPTH) {
+                // The delegate is back to what it had at save time
+                fill = savedFill[saveDepth];
+                stroke = savedStroke[saveDepth];
+                lineWidth = savedLineWidth[saveDepth];
+                alpha = savedAlpha[saveDepth];
+                font = savedFont[saveDepth];
+                sentFill = savedSentFill[saveDepth];
+                sentStroke = savedSentStroke[saveDepth];
+                sentLineWidth = savedSentLineWidth[saveDepth];
+                sentAlpha = savedSentAlpha[saveDepth];
+                sentFont = savedSentFont[saveDepth];
+                savedFill[saveDepth] = null;
+                savedStroke[saveDepth] = null;
+                savedFont[saveDepth] = null;
+                savedSentFill[saveDepth] = null;
+                savedSentStroke[saveDepth] = null;
+                savedSentFont[saveDepth] = null;
+                return;
+            }
+        }
+        // Unbalanced or too deep: the delegate's state is unknown, resend on next use
+        sentFill = null;
+        sentStroke = null;
+        sentLineWidth = Double.NaN;
+        sentAlpha = Double.NaN;
+        sentFont = null;
+    }
+
+    @Override
+    public void setFill(Paint paint) {
+        requestedChanges++;
+        fill = paint;
+        currentState = -1;
+    }
+
+    @Override
+    public void setStroke(Paint paint) {
+        requestedChanges++;
+        stroke = paint;
+        currentState = -1;
+    }
+
+    @Override
+    public void setLineWidth(double width) {
+        requestedChanges++;
+        lineWidth = width;
+        currentState = -1;
+    }
+
+    @Override
+    public void setGlobalAlpha(double alpha) {
+        requestedChanges++;
+        this.alpha = alpha;
+        currentState = -1;
+    }
+
+    @Override
+    public void setFont(Font font) {
+        requestedChanges++;
+        this.font = font;
+        currentState = -1;
+    }
+
+    @Override
+    public void setLineDashes(double... dashes) {
+        flushBatch();
+        requestedChanges++;
+        emittedChanges++;
+        delegate.setLineDashes(dashes);
+    }
+
+    // ==== DRAWING ====
+
+    @Override
+    public void clearRect(double x, double y, double w, double h) {
+        flushBatch();
+        delegate.clearRect(x, y, w, h);
+    }
+
+    @Override
+    public void fillRect(double x, double y, double w, double h) {
+        if (batching) { record(FILL_RECT, x, y, w, h, 0, 0, null); return; }
+        syncState();
+        delegate.fillRect(x, y, w, h);
+    }
+
+    @Override
+    public void strokeRect(double x, double y, double w, double h) {
+        flushBatch();
+        syncState();
+        delegate.strokeRect(x, y, w, h);
+    }
+
+    @Override
+    public void fillOval(double x, double y, double w, double h) {
+        if (batching) { record(FILL_OVAL, x, y, w, h, 0, 0, null); return; }
+        syncState();
+        delegate.fillOval(x, y, w, h);
+    }
+
+    @Override
+    public void strokeOval(double x, double y, double w, double h) {
+        if (batching) { record(STROKE_OVAL, x, y, w, h, 0, 0, null); return; }
+        syncState();
+        delegate.strokeOval(x, y, w, h);
+    }
+
+    @Override
+    public void fillRoundRect(double x, double y, double w, double h, double arcWidth, double arcHeight) {
+        if (batching) { record(FILL_ROUND_RECT, x, y, w, h, arcWidth, arcHeight, null); return; }
+        syncState();
+        delegate.fillRoundRect(x, y, w, h, arcWidth, arcHeight);
+    }
+
+    @Override
+    public void strokeRoundRect(double x, double y, double w, double h, double arcWidth, double arcHeight) {
+        flushBatch();
+        syncState();
+        delegate.strokeRoundRect(x, y, w, h, arcWidth, arcHeight);
+    }
+
+    @Override
+    public void strokeLine(double x1, double y1, double x2, double y2) {
+        if (batching) { record(STROKE_LINE, x1, y1, x2, y2, 0, 0, null); return; }
+        syncState();
+        delegate.strokeLine(x1, y1, x2, y2);
+    }
+
+    @Override
+    public void fillPolygon(double[] xPoints, double[] yPoints, int count) {
+        // Point arrays may be reused by the caller, so polygons are never deferred
+        flushBatch();
+        syncState();
+        delegate.fillPolygon(xPoints, yPoints, count);
+    }
+
+    @Override
+    public void fillText(String text, double x, double y) {
+        if (batching) { record(FILL_TEXT, x, y, 0, 0, 0, 0, text); return; }
+        syncState();
+        delegate.fillText(text, x, y);
+    }
+
+    @Override
+    public void drawImage(Image image, double x, double y) {
+        drawImage(image, x, y, image.getWidth(), image.getHeight());
+    }
+
+    @Override
+    public void drawImage(Image image, double x, double y, double w, double h) {
+        if (batching) { record(DRAW_IMAGE, x, y, w, h, 0, 0, image); return; }
+        syncState();
+        delegate.drawImage(image, x, y, w, h);
+    }
+}
@@ -0,0 +1,50 @@
+package ui;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Paint;
+import javafx.scene.text.Font;
+
+/**
+ * Renderer that draws straight into a JavaFX canvas.
+ */
+public class FxRenderer implements Renderer {
+    private final GraphicsContext gc;
+
+    public FxRenderer(GraphicsContext gc) {
+        this.gc = gc;
+    }
+
+    public GraphicsContext getGraphicsContext() { return gc; }
+
+    @Override public void save() { gc.save(); }
+    @Override public void restore() { gc.restore(); }
+    @Override public void setFill(Paint paint) { gc.setFill(paint); }
+    @Override public void setStroke(Paint paint) { gc.setStroke(paint); }
+    @Override public void setLineWidth(double width) { gc.setLineWidth(width); }
+    @Override public void setGlobalAlpha(double alpha) { gc.setGlobalAlpha(alpha); }
+    @Override public void setFont(Font font) { gc.setFont(font); }
+    @Override public void setLineDashes(double... dashes) { gc.setLineDashes(dashes); }
+
+    @Override public void clearRect(double x, double y, double w, double h) { gc.clearRect(x, y, w, h); }
+    @Override public void fillRect(double x, double y, double w, double h) { gc.fillRect(x, y, w, h); }
+    @Override public void strokeRect(double x, double y, double w, double h) { gc.strokeRect(x, y, w, h); }
+    @Override public void fillOval(double x, double y, double w, double h) { gc.fillOval(x, y, w, h); }
+    @Override public void strokeOval(double x, double y, double w, double h) { gc.strokeOval(x, y, w, h); }
+
+    @Override
+    public void fillRoundRect(double x, double y, double w, double h, double arcWidth, double arcHeight) {
+        gc.fillRoundRect(x, y, w, h, arcWidth, arcHeight);
+    }
+
+    @Override
+    public void strokeRoundRect(double x, double y, double w, double h, double arcWidth, double arcHeight) {
+        gc.strokeRoundRect(x, y, w, h, arcWidth, arcHeight);
+    }
+
+    @Override public void strokeLine(double x1, double y1, double x2, double y2) { gc.strokeLine(x1, y1, x2, y2); }
+    @Override public void fillPolygon(double[] xPoints, double[] yPoints, int count) { gc.fillPolygon(xPoints, yPoints, count); }
+    @Override public void fillText(String text, double x, double y) { gc.fillText(text, x, y); }
+    @Override public void drawImage(Image image, double x, double y) { gc.drawImage(image, x, y); }
+    @Override public void drawImage(Image image, double x, double y, double w, double h) { gc.drawImage(image, x, y, w, h); }
+}
@@ -1,19 +1,29 @@
 package ui;
 
+import game.GameCommand;
 import game.GameEngine;
 import game.GameEngine.*;
+import game.RenderSnapshot;
+import game.SimulationLoop;
+import game.TripleBuffer;
+import game.WorldHistory;
 import map.GridMap;
 import map.Node;
 import player.Player;
+import util.Constants;
 import util.GameSettings;
+import util.LatencyHistogram;
+import util.PhaseProfiler;
 import javafx.animation.AnimationTimer;
 import javafx.animation.FadeTransition;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.effect.*;
+import javafx.scene.image.Image;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.MouseButton;
 import javafx.scene.layout.*;
@@ -24,13 +34,23 @@ import javafx.stage.Stage;
 import javafx.stage.Screen;
 import javafx.geometry.Rectangle2D;
 import javafx.util.Duration;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class GameView {
+    private static final Logger logger = Logger.getLogger(GameView.class.getName());
+    
     private GameEngine engine;
     private Stage stage;
     private Canvas gameCanvas;
-    private GraphicsContext gc;
+    private Renderer gc;
+    private RecordingRenderer frameRecorder;
+    private BatchingRenderer batcher;
+    private String debugOverlayText = "";
     private Player player;
     private AnimationTimer gameLoop;
     
@@ -72,18 +92,54 @@ public class GameView {
     
     // HUD Elements for new design
     private Text levelText, timelineText, waveText, scoreText;
-    private Text killsText, fpsText, waveProgressText, gameTimeText;
+    private Text killsText, fpsText, qualityText, waveProgressText, gameTimeText;
     private ProgressIndicator healthBar, energyBar, ammoBar;
     private Canvas strategicMapCanvas, threatLevelCanvas;
+    private TileLayerCache tileLayer;
+    private final SpriteAtlas sprites = new SpriteAtlas();
+    private final double[] trapXs = new double[3];
+    private final double[] trapYs = new double[3];
+    
+    // View culling: visible tile rectangle, handed to the next snapshot capture
+    private static final double CULL_MARGIN_PX = 64;
+    private volatile double viewMinX, viewMinY, viewMaxX, viewMaxY;
+    private StrategicMapPanel strategicMap;
+    private ThreatPanel threatPanel;
+    private long lastPanelRefresh = 0;
     private VBox notificationArea;
     private VBox dashCooldownBar, ultimateCooldownBar;
+    private Rectangle healthBarFill, energyBarFill;
+    private final HudModel hud = new HudModel();
+    private final QualityGovernor quality = new QualityGovernor(Constants.FRAME_TIME_NS);
+    private long lastFrameNanos = 0;
+    private static final int HUD_BAR_WIDTH = 190;
+    private static final int COOLDOWN_BAR_WIDTH = 240;
     
     // State
     private String currentTimeline = "PRESENT";
     private double time = 0;
     private long lastShot = 0;
     private boolean gameOver = false;
-    private boolean paused = false;
+    private volatile boolean paused = false;
+    
+    // Simulation: engine, player and the game rules below run on the
+    // simulation thread (THREADED_SIMULATION) or inline at the start of each
+    // frame. The FX thread only reads published snapshots, and reaches the
+    // simulation through submitted commands.
+    private SimulationLoop<GameCommand> simulation;
+    private TripleBuffer<RenderSnapshot> snapshots;
+    private final Queue<Runnable> presentation = new ConcurrentLinkedQueue<>();
+    private long simTick = 0;
+    private double moveX = 0, moveY = 0;
+    private boolean firing = false, dashHeld = false, ultimateHeld = false;
+    
+    // FX side: current snapshot, interpolated player position (tiles) and
+    // the last input sent, so commands are only submitted on change
+    private RenderSnapshot frame;
+    private double playerDrawX, playerDrawY, prevPlayerX, prevPlayerY;
+    private double sentMoveX = 0, sentMoveY = 0, sentAim = Double.NaN;
+    private final boolean[] sentHeld = new boolean[GameCommand.Type.values().length];
+    private boolean dashClicked = false;
     
     // NEW: Performance & Stats tracking
     private long frameCount = 0;
@@ -97,6 +153,19 @@ public class GameView {
     private long lastUltimateTime = 0;
     private static final long DASH_COOLDOWN = 2000; // 2 seconds
     private static final long ULTIMATE_COOLDOWN = 15000; // 15 seconds
+    
+    // Frame-phase profiler (F9 dumps the session histograms to CSV)
+    private static final int PHASE_INPUT = 0;
+    private static final int PHASE_UPDATE = 1;
+    private static final int PHASE_COLLISIONS = 2;
+    private static final int PHASE_EFFECTS_UPDATE = 3;
+    private static final int PHASE_RENDER = 4;
+    private static final int PHASE_EFFECTS_RENDER = 5;
+    private static final int PHASE_HUD = 6;
+    private static final int PHASE_FRAME = 7;
+    private final PhaseProfiler profiler = new PhaseProfiler(
+        "input", "update", "collisions", "fx-update", "render", "fx-render", "hud", "frame");
+    private String[] profileLines = new String[0];
 
     // Cyberpunk color palette
     private static final Color NEON_CYAN = Color.web("#00ffff");
@@ -108,6 +177,21 @@ public class GameView {
     private static final Color DARK_BG = Color.web("#0a0a0f");
     private static final Color NEON_ORANGE = Color.web("#ff6600");
     private static final Color NEON_GOLD = Color.web("#ffd700");
+    private static final Color HP_BAR_BG = Color.web("#1a2a25", 0.9);
+    private static final Color HP_HIGH = Color.web("#22c55e");
+    private static final Color HP_MID = Color.web("#f59e0b");
+    private static final Color HP_LOW = Color.web("#ef4444");
+    private static final Color HUD_GOOD = Color.web("#22c55e");
+    private static final Color HUD_WARN = Color.web("#fbbf24");
+    private static final Color HUD_BAD = Color.web("#ef4444");
+    private static final RadialGradient VIGNETTE = new RadialGradient(0, 0, 0.5, 0.5, 0.7, true, CycleMethod.NO_CYCLE,
+        new Stop(0, Color.TRANSPARENT),
+        new Stop(1, Color.web("#000", 0.6))
+    );
+    private static final Color DASH_READY = Color.web("#00ffff");
+    private static final Color DASH_CHARGING = Color.web("#00ffff", 0.5);
+    private static final Color ULTIMATE_READY = Color.web("#ffd700");
+    private static final Color ULTIMATE_CHARGING = Color.web("#ffd700", 0.5);
 
     public GameView(GameEngine engine, Stage stage) {
         this.engine = engine;
@@ -116,6 +200,10 @@ public class GameView {
     }
 
     public void show() {
+        // Release caches bound to a previous engine's map (restart/retry)
+        stopSimulation();
+        disposeMapCaches();
+        
         // === 1. GET SCREEN SIZE DYNAMICALLY ===
         Rectangle2D screen = Screen.getPrimary().getVisualBounds();
         screenWidth = screen.getWidth();
@@ -138,6 +226,7 @@ public class GameView {
 
         // === TOP HUD (8% of screen height) ===
         HBox topHUD = createTopHUD();
+        hud.invalidate(); // fresh nodes, push everything once
         topHUD.setPrefHeight(topHudHeight);
         topHUD.setMinHeight(topHudHeight);
         topHUD.setMaxHeight(topHudHeight);
@@ -152,7 +241,11 @@ public class GameView {
         
         // === GAME CANVAS - Dynamic size ===
         gameCanvas = new Canvas(gameWidth, gameHeight);
-        gc = gameCanvas.getGraphicsContext2D();
+        // Debug builds record draw calls / state changes per frame on the way through
+        Renderer fx = new FxRenderer(gameCanvas.getGraphicsContext2D());
+        frameRecorder = Constants.DEBUG_MODE ? new RecordingRenderer(fx) : null;
+        batcher = new BatchingRenderer(frameRecorder != null ? frameRecorder : fx);
+        gc = batcher;
         
         // === RIGHT PANEL (15% of screen, min 220, max 300) ===
         VBox rightPanel = createRightPanel();
@@ -214,7 +307,7 @@ public class GameView {
         scene.setOnMouseDragged(e -> updateMouse(e.getSceneX(), e.getSceneY()));
         scene.setOnMousePressed(e -> {
             if (e.getButton() == MouseButton.PRIMARY) mouseDown = true;
-            if (e.getButton() == MouseButton.SECONDARY) doDash();
+            if (e.getButton() == MouseButton.SECONDARY) dashClicked = true;
         });
         scene.setOnMouseReleased(e -> {
             if (e.getButton() == MouseButton.PRIMARY) mouseDown = false;
@@ -226,6 +319,8 @@ public class GameView {
         // Initialize enhanced features
         initEnhancedFeatures();
         
+        tileLayer = new TileLayerCache(engine.getMap());
+        
         startGameLoop();
     }
     
@@ -237,9 +332,9 @@ public class GameView {
         mouseY = sy - canvasTop;
         
         // Calculate aim angle
-        double playerScreenX = player.getVisualX() * tileSize - cameraX + tileSize/2;
-        double playerScreenY = player.getVisualY() * tileSize - cameraY + tileSize/2;
-        player.setAimAngle(Math.atan2(mouseY - playerScreenY, mouseX - playerScreenX));
+        double playerScreenX = playerDrawX * tileSize - cameraX + tileSize/2;
+        double playerScreenY = playerDrawY * tileSize - cameraY + tileSize/2;
+        submitAim(Math.atan2(mouseY - playerScreenY, mouseX - playerScreenX));
     }
     
     private HBox createTopHUD() {
@@ -326,9 +421,11 @@ public class GameView {
         
         // === HEALTH BAR (Red) ===
         StackPane healthBarBox = createHUDBar("#dc2626", "#7f1d1d", 200);
+        healthBarFill = (Rectangle) healthBarBox.getUserData();
         
         // === ENERGY BAR (Blue/Purple) ===
         StackPane energyBarBox = createHUDBar("#6366f1", "#312e81", 200);
+        energyBarFill = (Rectangle) energyBarBox.getUserData();
         
         // === SCORE BOX (Green) ===
         HBox scoreBox = new HBox(10);
@@ -352,13 +449,14 @@ public class GameView {
         barContainer.setPrefSize(width, 35);
         barContainer.setStyle("-fx-background-color: " + bgColor + "; -fx-border-color: " + fillColor + "; -fx-border-width: 2; -fx-border-radius: 6; -fx-background-radius: 6;");
         
-        // Inner fill bar (will be updated in updateHUD)
+        // Inner fill bar (updated in updateHUD through userData)
         Rectangle fill = new Rectangle(width - 10, 20);
         fill.setFill(Color.web(fillColor));
         fill.setArcWidth(4);
         fill.setArcHeight(4);
         
         barContainer.getChildren().add(fill);
+        barContainer.setUserData(fill);
         return barContainer;
     }
     
@@ -419,6 +517,10 @@ public class GameView {
         HBox fpsRow = createStatRow("⚡ FPS:", "60", "#22c55e");
         fpsText = (Text) ((HBox)fpsRow).getChildren().get(1);
         
+        // Effect quality picked by the governor
+        HBox qualityRow = createStatRow("✦ QUALITY:", quality.getLevel().name(), "#a855f7");
+        qualityText = (Text) qualityRow.getChildren().get(1);
+        
         // Wave Progress
         HBox waveRow = createStatRow("🌊 WAVE:", "0/5", "#06b6d4");
         waveProgressText = (Text) ((HBox)waveRow).getChildren().get(1);
@@ -427,7 +529,7 @@ public class GameView {
         HBox timeRow = createStatRow("⏱ TIME:", "00:00", "#fbbf24");
         gameTimeText = (Text) ((HBox)timeRow).getChildren().get(1);
         
-        statsSection.getChildren().addAll(statsHeader, killsRow, fpsRow, waveRow, timeRow);
+        statsSection.getChildren().addAll(statsHeader, killsRow, fpsRow, qualityRow, waveRow, timeRow);
         
         // === COOLDOWNS SECTION ===
         VBox cooldownSection = new VBox(6);
@@ -466,7 +568,8 @@ public class GameView {
         mapHeader.getChildren().addAll(mapIcon, mapTitle);
         
         strategicMapCanvas = new Canvas(250, 140);
-        drawStrategicMap(strategicMapCanvas.getGraphicsContext2D());
+        strategicMap = new StrategicMapPanel(strategicMapCanvas,
+            new FxRenderer(strategicMapCanvas.getGraphicsContext2D()), engine.getMap());
         
         mapSection.getChildren().addAll(mapHeader, strategicMapCanvas);
         
@@ -486,7 +589,9 @@ public class GameView {
         threatHeader.getChildren().addAll(threatIcon, threatTitle);
         
         threatLevelCanvas = new Canvas(250, 100);
-        drawThreatLevel(threatLevelCanvas.getGraphicsContext2D());
+        threatPanel = new ThreatPanel(threatLevelCanvas,
+            new FxRenderer(threatLevelCanvas.getGraphicsContext2D()));
+        lastPanelRefresh = 0; // both panels are drawn from the first snapshot
         
         threatSection.getChildren().addAll(threatHeader, threatLevelCanvas);
         
@@ -534,133 +639,9 @@ public class GameView {
         return box;
     }
     
-    private void drawStrategicMap(GraphicsContext mgc) {
-        double mapWidth = 250, mapHeight = 140;
-        
-        // Dark background
-        mgc.setFill(Color.web("#0f172a"));
-        mgc.fillRect(0, 0, mapWidth, mapHeight);
-        
-        GridMap map = engine.getMap();
-        double scale = mapWidth / map.getSize();
-        double scaleY = mapHeight / map.getSize();
-        
-        // Draw walls
-        for (int i = 0; i < map.getSize(); i++) {
-            for (int j = 0; j < map.getSize(); j++) {
-                if (!map.getNode(i, j).isWalkable()) {
-                    mgc.setFill(Color.web("#1e3a5f"));
-                    mgc.fillRect(i * scale, j * scaleY, scale, scaleY);
-                }
-            }
-        }
-        
-        // Draw collectibles as colored dots
-        for (Collectible c : engine.getCollectibles()) {
-            String color;
-            switch (c.getType()) {
-                case HEALTH: color = "#ef4444"; break;
-                case ENERGY: color = "#fbbf24"; break;
-                case AMMO: color = "#06b6d4"; break;
-                default: color = "#a855f7";
-            }
-            mgc.setFill(Color.web(color));
-            mgc.fillOval(c.getX() * scale - 2, c.getY() * scaleY - 2, 5, 5);
-        }
-        
-        // Draw enemies as colored dots
-        for (Enemy e : engine.getEnemies()) {
-            String color;
-            switch (e.getType()) {
-                case CHASER: color = "#10b981"; break;
-                case SHOOTER: color = "#fbbf24"; break;
-                case TANK: color = "#6b7280"; break;
-                case BOSS: color = "#ef4444"; break;
-                default: color = "#f97316";
-            }
-            mgc.setFill(Color.web(color));
-            mgc.fillOval(e.getX() * scale - 3, e.getY() * scaleY - 3, 7, 7);
-        }
-        
-        // Draw player (yellow with glow effect)
-        double px = player.getX() * scale;
-        double py = player.getY() * scaleY;
-        mgc.setFill(Color.web("#fbbf24", 0.3));
-        mgc.fillOval(px - 8, py - 8, 16, 16);
-        mgc.setFill(Color.web("#fbbf24"));
-        mgc.fillOval(px - 4, py - 4, 8, 8);
-        
-        // Border
-        mgc.setStroke(Color.web("#1e3a5f"));
-        mgc.setLineWidth(1);
-        mgc.strokeRect(0, 0, mapWidth, mapHeight);
-    }
-    
-    private void drawThreatLevel(GraphicsContext tgc) {
-        double mapWidth = 250, mapHeight = 100;
-        
-        // Dark background
-        tgc.setFill(Color.web("#0f172a"));
-        tgc.fillRect(0, 0, mapWidth, mapHeight);
-        
-        // Create a threat heat map grid
-        int gridSize = 12;
-        double cellW = mapWidth / gridSize;
-        double cellH = mapHeight / gridSize;
-        
-        GridMap map = engine.getMap();
-        double mapScale = (double) map.getSize() / gridSize;
-        
-        // Calculate threat levels for each cell
-        for (int i = 0; i < gridSize; i++) {
-            for (int j = 0; j < gridSize; j++) {
-                double centerX = (i + 0.5) * mapScale;
-                double centerY = (j + 0.5) * mapScale;
-                
-                // Count nearby enemies and their threat
-                double threat = 0;
-                for (Enemy e : engine.getEnemies()) {
-                    double dist = Math.sqrt(Math.pow(e.getX() - centerX, 2) + Math.pow(e.getY() - centerY, 2));
-                    if (dist < 5) {
-                        double threatValue = 1.0;
-                        if (e.getType() == EnemyType.BOSS) threatValue = 3.0;
-                        else if (e.getType() == EnemyType.TANK) threatValue = 2.0;
-                        else if (e.getType() == EnemyType.SHOOTER) threatValue = 1.5;
-                        threat += threatValue * (5 - dist) / 5;
-                    }
-                }
-                
-                // Draw cell with threat color
-                if (threat > 0) {
-                    Color threatColor;
-                    if (threat > 3) threatColor = Color.web("#ef4444"); // Red - high
-                    else if (threat > 2) threatColor = Color.web("#f97316"); // Orange
-                    else if (threat > 1) threatColor = Color.web("#fbbf24"); // Yellow
-                    else if (threat > 0.5) threatColor = Color.web("#06b6d4"); // Cyan - low
-                    else threatColor = Color.web("#3b82f6"); // Blue - minimal
-                    
-                    tgc.setFill(threatColor);
-                    tgc.fillRect(i * cellW + 1, j * cellH + 1, cellW - 2, cellH - 2);
-                }
-            }
-        }
-        
-        // Draw grid lines
-        tgc.setStroke(Color.web("#1e3a5f", 0.5));
-        tgc.setLineWidth(1);
-        for (int i = 0; i <= gridSize; i++) {
-            tgc.strokeLine(i * cellW, 0, i * cellW, mapHeight);
-            tgc.strokeLine(0, i * cellH, mapWidth, i * cellH);
-        }
-        
-        // Border
-        tgc.setStroke(Color.web("#1e3a5f"));
-        tgc.setLineWidth(1);
-        tgc.strokeRect(0, 0, mapWidth, mapHeight);
-    }
-    
     private void startGameLoop() {
         gameStartTime = System.currentTimeMillis();
+        startSimulation();
         gameLoop = new AnimationTimer() {
             @Override
             public void handle(long now) {
@@ -673,20 +654,157 @@ public class GameView {
                         currentFps = (int) frameCount;
                         frameCount = 0;
                         lastFpsTime = now;
+                        refreshProfileLines();
                     }
                     
+                    // Each stop() returns the time the next phase starts at;
+                    // the tick records its own update/collision phases
+                    long frameStart = profiler.start();
+                    long t = frameStart;
                     processInput();
-                    update();
+                    t = profiler.stop(PHASE_INPUT, t);
+                    if (simulation == null) {
+                        stepSimulation();
+                        t = profiler.start();
+                    }
+                    drainPresentation();
+                    updateView();
                     updateEnhancedFeatures();
+                    t = profiler.stop(PHASE_EFFECTS_UPDATE, t);
+                    gc.beginFrame();
                     render();
+                    t = profiler.stop(PHASE_RENDER, t);
                     renderEnhancedFeatures();
+                    renderDebugOverlay();
+                    gc.endFrame();
+                    t = profiler.stop(PHASE_EFFECTS_RENDER, t);
                     updateHUD();
+                    t = profiler.stop(PHASE_HUD, t);
+                    profiler.record(PHASE_FRAME, t - frameStart);
+                    
+                    // Interval spans pulse to pulse; work is what this frame cost
+                    if (Constants.ADAPTIVE_QUALITY && lastFrameNanos != 0
+                            && quality.record(now - lastFrameNanos, t - frameStart)) {
+                        applyQuality();
+                    }
+                    lastFrameNanos = now;
                 }
             }
         };
         gameLoop.start();
     }
     
+    /**
+     * Publish a first snapshot from the FX thread, then hand engine and
+     * player over to the simulation thread (or keep ticking inline).
+     */
+    private void startSimulation() {
+        snapshots = new TripleBuffer<>(RenderSnapshot::new);
+        presentation.clear();
+        history.clear();
+        viewMinX = viewMinY = Double.NEGATIVE_INFINITY;
+        viewMaxX = viewMaxY = Double.POSITIVE_INFINITY;
+        moveX = moveY = 0;
+        firing = dashHeld = ultimateHeld = false;
+        sentMoveX = sentMoveY = 0;
+        sentAim = Double.NaN;
+        Arrays.fill(sentHeld, false);
+        
+        publishSnapshot();
+        snapshots.acquire();
+        frame = snapshots.front();
+        prevPlayerX = playerDrawX = frame.getPlayerVisualX();
+        prevPlayerY = playerDrawY = frame.getPlayerVisualY();
+        
+        // A new engine starts at full detail; carry the current level over
+        QualityGovernor.Level level = quality.getLevel();
+        engine.setParticleMultiplier(level.particleMultiplier);
+        engine.setTrailLength(level.trailLength);
+        lastFrameNanos = 0;
+        
+        if (Constants.THREADED_SIMULATION) {
+            simulation = new SimulationLoop<>(new GameSimulation(), Constants.FRAME_TIME_NS);
+            simulation.start("chronogrid-simulation");
+        }
+    }
+    
+    /**
+     * Hand the engine-side knobs of the new quality level to the simulation;
+     * the render-side knobs are read straight from the governor.
+     */
+    private void applyQuality() {
+        QualityGovernor.Level level = quality.getLevel();
+        submit(GameCommand.effectDetail(level.particleMultiplier, level.trailLength));
+    }
+    
+    /**
+     * Stop the simulation thread; afterwards engine and player may be
+     * replaced from the FX thread.
+     */
+    private void stopSimulation() {
+        if (simulation != null) {
+            simulation.stop();
+            simulation = null;
+        }
+    }
+    
+    private class GameSimulation implements SimulationLoop.Simulation<GameCommand> {
+        @Override
+        public void apply(GameCommand command) {
+            applyCommand(command);
+        }
+        
+        @Override
+        public boolean step() {
+            return stepSimulation();
+        }
+    }
+    
+    /**
+     * Queue a command for the simulation thread, or apply it right away when
+     * the simulation ticks inline.
+     */
+    private void submit(GameCommand command) {
+        SimulationLoop<GameCommand> loop = simulation;
+        if (loop != null) {
+            loop.submit(command);
+        } else {
+            applyCommand(command);
+        }
+    }
+    
+    private void submitAim(double angle) {
+        if (angle == sentAim) return;
+        sentAim = angle;
+        submit(GameCommand.aim(angle));
+    }
+    
+    private void submitHeld(GameCommand.Type button, boolean down) {
+        if (sentHeld[button.ordinal()] == down) return;
+        sentHeld[button.ordinal()] = down;
+        submit(GameCommand.hold(button, down));
+    }
+    
+    /**
+     * Run a presentation side effect (scene graph, screen effects, overlay
+     * systems) on the FX thread. From the simulation thread it is queued and
+     * runs at the start of the next frame.
+     */
+    private void present(Runnable effect) {
+        if (Platform.isFxApplicationThread()) {
+            effect.run();
+        } else {
+            presentation.offer(effect);
+        }
+    }
+    
+    private void drainPresentation() {
+        Runnable effect;
+        while ((effect = presentation.poll()) != null) {
+            effect.run();
+        }
+    }
+    
     private void processInput() {
         // Pause toggle
         if (keys.contains(KeyCode.P) || keys.contains(KeyCode.ESCAPE)) {
@@ -707,7 +825,13 @@ public class GameView {
         
         if (dx != 0 || dy != 0) {
             double len = Math.sqrt(dx*dx + dy*dy);
-            player.move(dx/len, dy/len);
+            dx /= len;
+            dy /= len;
+        }
+        if (dx != sentMoveX || dy != sentMoveY) {
+            sentMoveX = dx;
+            sentMoveY = dy;
+            submit(GameCommand.move(dx, dy));
         }
         
         // === AIMING (Arrow Keys) - Keyboard aiming ===
@@ -718,64 +842,130 @@ public class GameView {
         if (keys.contains(KeyCode.RIGHT)) aimDx = 1;
         
         if (aimDx != 0 || aimDy != 0) {
-            player.setAimAngle(Math.atan2(aimDy, aimDx));
+            submitAim(Math.atan2(aimDy, aimDx));
         }
         
-        // === SHOOTING (SPACE or J) ===
-        if (keys.contains(KeyCode.SPACE) || keys.contains(KeyCode.J)) {
-            doShoot();
-        }
+        // === SHOOTING (SPACE or J, or the primary mouse button) ===
+        submitHeld(GameCommand.Type.FIRE, keys.contains(KeyCode.SPACE) || keys.contains(KeyCode.J) || mouseDown);
         
-        // === DASH (SHIFT or K) ===
-        if (keys.contains(KeyCode.SHIFT) || keys.contains(KeyCode.K)) {
-            doDash();
-        }
+        // === DASH (SHIFT or K, or a secondary click) ===
+        submitHeld(GameCommand.Type.DASH, keys.contains(KeyCode.SHIFT) || keys.contains(KeyCode.K) || dashClicked);
+        dashClicked = false;
         
         // === ULTIMATE (Q or L) ===
-        if (keys.contains(KeyCode.Q) || keys.contains(KeyCode.L)) {
-            doUltimate();
-        }
+        submitHeld(GameCommand.Type.ULTIMATE, keys.contains(KeyCode.Q) || keys.contains(KeyCode.L));
         
         // === TIMELINE SWITCH (1/2/3 or Z/X/C) ===
-        if (keys.contains(KeyCode.DIGIT1) || keys.contains(KeyCode.Z)) switchTimeline("PAST");
-        if (keys.contains(KeyCode.DIGIT2) || keys.contains(KeyCode.X)) switchTimeline("PRESENT");
-        if (keys.contains(KeyCode.DIGIT3) || keys.contains(KeyCode.C)) switchTimeline("FUTURE");
+        if (keys.contains(KeyCode.DIGIT1) || keys.contains(KeyCode.Z)) {
+            submit(GameCommand.switchTimeline("PAST"));
+            keys.remove(KeyCode.DIGIT1);
+            keys.remove(KeyCode.Z);
+        }
+        if (keys.contains(KeyCode.DIGIT2) || keys.contains(KeyCode.X)) {
+            submit(GameCommand.switchTimeline("PRESENT"));
+            keys.remove(KeyCode.DIGIT2);
+            keys.remove(KeyCode.X);
+        }
+        if (keys.contains(KeyCode.DIGIT3) || keys.contains(KeyCode.C)) {
+            submit(GameCommand.switchTimeline("FUTURE"));
+            keys.remove(KeyCode.DIGIT3);
+            keys.remove(KeyCode.C);
+        }
         
         // === TIMELINE ABILITIES (4/5/6 or V/B/N) ===
         // 4 or V = Timeline-specific ability
         if (keys.contains(KeyCode.DIGIT4) || keys.contains(KeyCode.V)) {
-            activateTimelineAbility();
+            submit(GameCommand.of(GameCommand.Type.TIMELINE_ABILITY));
             keys.remove(KeyCode.DIGIT4);
             keys.remove(KeyCode.V);
         }
         // 5 or B = Time Slow (any timeline)
         if (keys.contains(KeyCode.DIGIT5) || keys.contains(KeyCode.B)) {
-            activateTimeSlow();
+            submit(GameCommand.of(GameCommand.Type.TIME_SLOW));
             keys.remove(KeyCode.DIGIT5);
             keys.remove(KeyCode.B);
         }
         // 6 or N = Create Anchor (Present) / Quantum Dash (Future) / Ancestral Sight (Past)
         if (keys.contains(KeyCode.DIGIT6) || keys.contains(KeyCode.N)) {
-            activateSecondaryAbility();
+            submit(GameCommand.of(GameCommand.Type.SECONDARY_ABILITY));
             keys.remove(KeyCode.DIGIT6);
             keys.remove(KeyCode.N);
         }
         
+        // T = Rewind (any timeline)
+        if (keys.contains(KeyCode.T)) {
+            submit(GameCommand.of(GameCommand.Type.REWIND));
+            keys.remove(KeyCode.T);
+        }
+        
         // === QUICK RESTART (R) ===
         if (keys.contains(KeyCode.R)) quickRestart();
         
+        // === PROFILE DUMP (F9) ===
+        if (keys.contains(KeyCode.F9)) {
+            keys.remove(KeyCode.F9);
+            dumpProfile();
+        }
+        
         // === QUICK STATS (TAB) ===
         if (keys.contains(KeyCode.TAB)) showQuickStats();
-        
-        // === ALTERNATE: Mouse controls (optional) ===
-        if (mouseDown) {
-            doShoot();
+    }
+    
+    /**
+     * Apply one input command to the simulation; runs on the thread that
+     * ticks it. Held buttons act immediately on press and then once per tick
+     * until released.
+     */
+    private void applyCommand(GameCommand command) {
+        switch (command.getType()) {
+            case MOVE:
+                moveX = command.getX();
+                moveY = command.getY();
+                break;
+            case AIM:
+                player.setAimAngle(command.getAngle());
+                break;
+            case FIRE:
+                firing = command.isDown();
+                if (firing) doShoot();
+                break;
+            case DASH:
+                dashHeld = command.isDown();
+                if (dashHeld) doDash();
+                break;
+            case ULTIMATE:
+                ultimateHeld = command.isDown();
+                if (ultimateHeld) doUltimate();
+                break;
+            case SWITCH_TIMELINE:
+                switchTimeline(command.getParameter());
+                break;
+            case TIMELINE_ABILITY:
+                activateTimelineAbility();
+                break;
+            case TIME_SLOW:
+                activateTimeSlow();
+                break;
+            case SECONDARY_ABILITY:
+                activateSecondaryAbility();
+                break;
+            case REWIND:
+                activateRewind();
+                break;
+            case ADD_SCORE:
+                engine.addScore(command.getPoints());
+                break;
+            case EFFECT_DETAIL:
+                engine.setParticleMultiplier(command.getParticleMultiplier());
+                engine.setTrailLength(command.getTrailLength());
+                break;
         }
     }
     
     private void quickRestart() {
         keys.remove(KeyCode.R);
         gameLoop.stop();
+        stopSimulation();
         engine = new GameEngine();
         player = new Player("Hero", engine.getMap(), "PRESENT");
         gameOver = false;
@@ -785,6 +975,38 @@ public class GameView {
         show();
     }
     
+    private void dumpProfile() {
+        String name = "frame-profile-" + System.currentTimeMillis() + ".csv";
+        try {
+            profiler.writeCsv(Paths.get(Constants.PROFILE_DIRECTORY, name));
+            showNotification("PROFILE SAVED", "#22c55e");
+        } catch (IOException ex) {
+            logger.log(Level.WARNING, "Could not write frame profile", ex);
+            showNotification("PROFILE FAILED", "#ef4444");
+        }
+    }
+    
+    /**
+     * Snapshot the last second of phase timings for the overlay, then start
+     * a new window.
+     */
+    private void refreshProfileLines() {
+        // The simulation thread records into the same profiler
+        synchronized (profiler) {
+            if (Constants.DEBUG_MODE && Constants.SHOW_FPS) {
+                String[] lines = new String[profiler.getPhaseCount()];
+                for (int i = 0; i < lines.length; i++) {
+                    LatencyHistogram h = profiler.getWindow(i);
+                    lines[i] = String.format(Locale.ROOT, "%-11s p50 %6.2f  p99 %6.2f  max %6.2f ms",
+                        profiler.getName(i), h.valueAtPercentile(50) / 1e6,
+                        h.valueAtPercentile(99) / 1e6, h.getMax() / 1e6);
+                }
+                profileLines = lines;
+            }
+            profiler.rollWindow();
+        }
+    }
+    
     private boolean showingQuickStats = false;
     
     private void showQuickStats() {
@@ -809,8 +1031,8 @@ public class GameView {
         player.dash();
         lastDashTime = now;
         addShake(8);
-        screenEffects.add(new ScreenEffect("#00ffff", 15));
-        addFloatingText("DASH!", gameWidth/2, gameHeight/2 - 50, NEON_CYAN);
+        addScreenFlash("#00ffff", 15);
+        addCenterText("DASH!", -50, NEON_CYAN);
     }
     
     private void doUltimate() {
@@ -821,7 +1043,7 @@ public class GameView {
         player.useUltimate(engine);
         lastUltimateTime = now;
         addShake(15);
-        screenEffects.add(new ScreenEffect("#ffd700", 20));
+        addScreenFlash("#ffd700", 20);
         showNotification("ULTIMATE!", "#ffd700");
         
         // Kill all enemies on screen for ultimate effect
@@ -837,15 +1059,12 @@ public class GameView {
         totalKills++;
         currentWaveKills++;
         
-        // Update kill streak
-        if (killStreakSystem != null) {
-            killStreakSystem.addKill();
-        }
-        
-        // Add combo
-        if (comboSystem != null) {
-            comboSystem.addCombo();
-        }
+        // Kill streak and combo are display systems; streak bonuses come
+        // back to the simulation as ADD_SCORE commands
+        present(() -> {
+            if (killStreakSystem != null) killStreakSystem.addKill();
+            if (comboSystem != null) comboSystem.addCombo();
+        });
         
         // Score based on enemy type
         int scoreGain;
@@ -860,7 +1079,7 @@ public class GameView {
         engine.addScore(scoreGain);
         
         // Floating score text
-        addFloatingText("+" + scoreGain, e.getVisualX() * tileSize - cameraX, e.getVisualY() * tileSize - cameraY, NEON_GOLD);
+        addWorldText("+" + scoreGain, e.getVisualX(), e.getVisualY(), 0, NEON_GOLD);
         
         // Check wave completion
         if (currentWaveKills >= waveKillsRequired) {
@@ -874,22 +1093,23 @@ public class GameView {
         
         showNotification("WAVE COMPLETE!", "#22c55e");
         addShake(10);
-        screenEffects.add(new ScreenEffect("#22c55e", 15));
+        addScreenFlash("#22c55e", 15);
         
         // Bonus points
         engine.addScore(engine.getWave() * 100);
-        addFloatingText("WAVE BONUS +" + (engine.getWave() * 100), gameWidth/2, gameHeight/2, NEON_GREEN);
+        addCenterText("WAVE BONUS +" + (engine.getWave() * 100), 0, NEON_GREEN);
         
         // Add power-up for completing wave
-        if (powerUpDisplay != null) {
-            powerUpDisplay.addPowerUp("Wave Bonus", NEON_GREEN, 180);
-        }
+        addPowerUp("Wave Bonus", NEON_GREEN, 180);
     }
     
     // ==================== TIMELINE ABILITIES ====================
     
     private long lastTimelineAbilityTime = 0;
     private long lastTimeSlowTime = 0;
+    private long lastRewindTime = 0;
+    private final WorldHistory history = new WorldHistory(Constants.REWIND_MAX_DURATION_MS * 1_000_000L,
+        Constants.REWIND_KEYFRAME_INTERVAL, Constants.REWIND_BUFFER_BYTES, Constants.FRAME_TIME_NS);
     private boolean isTimeSlowed = false;
     private long timeSlowEnd = 0;
     
@@ -909,34 +1129,29 @@ public class GameView {
             case "PAST":
                 // Ancestral Sight - reveal hidden elements
                 showNotification("ANCESTRAL SIGHT!", "#4a90d9");
-                screenEffects.add(new ScreenEffect("#4a90d9", 20));
+                addScreenFlash("#4a90d9", 20);
                 addShake(3);
-                if (powerUpDisplay != null) {
-                    powerUpDisplay.addPowerUp("Ancestral Sight", Color.web("#4a90d9"), 300);
-                }
+                addPowerUp("Ancestral Sight", Color.web("#4a90d9"), 300);
                 break;
                 
             case "PRESENT":
                 // Return to Anchor (if set)
                 showNotification("TEMPORAL ANCHOR ACTIVATED!", "#10b981");
-                screenEffects.add(new ScreenEffect("#10b981", 20));
+                addScreenFlash("#10b981", 20);
                 addShake(5);
                 // Restore some health
                 player.heal(20);
-                addFloatingText("+20 HP", player.getVisualX() * tileSize - cameraX, 
-                    player.getVisualY() * tileSize - cameraY - 30, NEON_GREEN);
+                addWorldText("+20 HP", player.getVisualX(), player.getVisualY(), -30, NEON_GREEN);
                 break;
                 
             case "FUTURE":
                 // Time Stop - freeze all enemies
                 showNotification("TIME STOP!", "#a855f7");
-                screenEffects.add(new ScreenEffect("#a855f7", 30));
+                addScreenFlash("#a855f7", 30);
                 addShake(8);
                 isTimeSlowed = true;
                 timeSlowEnd = System.currentTimeMillis() + 3000; // 3 seconds
-                if (powerUpDisplay != null) {
-                    powerUpDisplay.addPowerUp("TIME FROZEN", Color.web("#a855f7"), 180);
-                }
+                addPowerUp("TIME FROZEN", Color.web("#a855f7"), 180);
                 break;
         }
         
@@ -965,11 +1180,8 @@ public class GameView {
         lastTimeSlowTime = System.currentTimeMillis();
         
         showNotification("TIME SLOWED", "#fbbf24");
-        screenEffects.add(new ScreenEffect("#fbbf24", 15));
-        
-        if (powerUpDisplay != null) {
-            powerUpDisplay.addPowerUp("Time Slow", Color.web("#fbbf24"), 300);
-        }
+        addScreenFlash("#fbbf24", 15);
+        addPowerUp("Time Slow", Color.web("#fbbf24"), 300);
     }
     
     /**
@@ -988,19 +1200,15 @@ public class GameView {
                 }
                 player.useEnergy(20);
                 showNotification("ANCIENT BLESSING!", "#4a90d9");
-                addFloatingText("+50% DMG", player.getVisualX() * tileSize - cameraX, 
-                    player.getVisualY() * tileSize - cameraY - 30, Color.web("#4a90d9"));
-                if (powerUpDisplay != null) {
-                    powerUpDisplay.addPowerUp("Damage Boost", Color.web("#4a90d9"), 360);
-                }
+                addWorldText("+50% DMG", player.getVisualX(), player.getVisualY(), -30, Color.web("#4a90d9"));
+                addPowerUp("Damage Boost", Color.web("#4a90d9"), 360);
                 break;
                 
             case "PRESENT":
                 // Create Anchor - save current position
                 showNotification("ANCHOR CREATED!", "#10b981");
-                screenEffects.add(new ScreenEffect("#10b981", 10));
-                addFloatingText("SAVED", player.getVisualX() * tileSize - cameraX, 
-                    player.getVisualY() * tileSize - cameraY - 30, NEON_GREEN);
+                addScreenFlash("#10b981", 10);
+                addWorldText("SAVED", player.getVisualX(), player.getVisualY(), -30, NEON_GREEN);
                 break;
                 
             case "FUTURE":
@@ -1021,7 +1229,7 @@ public class GameView {
                 newY = Math.max(1, Math.min(23, newY));
                 
                 // Create trail effect
-                screenEffects.add(new ScreenEffect("#a855f7", 10));
+                addScreenFlash("#a855f7", 10);
                 showNotification("QUANTUM DASH!", "#a855f7");
                 
                 player.setPosition(newX, newY);
@@ -1030,6 +1238,31 @@ public class GameView {
         }
     }
     
+    /**
+     * Rewind - world and player jump back GameSettings.getRewindDuration().
+     * Enemies, projectiles and pickups return as they were; health is only
+     * ever given back, never taken.
+     */
+    private void activateRewind() {
+        if (System.currentTimeMillis() - lastRewindTime < Constants.REWIND_COOLDOWN) {
+            showNotification("REWIND ON COOLDOWN", "#ef4444");
+            return;
+        }
+        if (!history.rewind(engine, GameSettings.getRewindDuration() * 1_000_000L)) {
+            showNotification("NO REWIND DATA", "#ef4444");
+            return;
+        }
+        
+        player.setPosition(history.getPlayerX(), history.getPlayerY());
+        int lostHealth = history.getPlayerHealth() - player.getHealth();
+        if (lostHealth > 0) player.heal(lostHealth);
+        lastRewindTime = System.currentTimeMillis();
+        
+        showNotification("TIME REWOUND!", "#06b6d4");
+        addScreenFlash("#06b6d4", 25);
+        addShake(6);
+    }
+    
     private void switchTimeline(String tl) {
         if (currentTimeline.equals(tl)) return;
         currentTimeline = tl;
@@ -1053,27 +1286,62 @@ public class GameView {
                 engine.getPresent().applyChange((int)player.getX(), (int)player.getY());
         }
         
-        // Update HUD timeline display
-        if (timelineText != null) {
-            timelineText.setText(tl);
-            timelineText.setFill(Color.web(color));
-        }
-        
-        screenEffects.add(new ScreenEffect(color, 15));
+        // The HUD timeline display follows the published snapshot
+        addScreenFlash(color, 15);
         addShake(5);
         showNotification(effectName, color);
         
         // Add power-up indicator for timeline buff
-        if (powerUpDisplay != null) {
-            powerUpDisplay.addPowerUp(effectName, Color.web(color), 120);
-        }
+        addPowerUp(effectName, Color.web(color), 120);
     }
     
+    // Presentation helpers: safe to call from the simulation thread
+
     private void addShake(double intensity) {
-        shakeIntensity = Math.max(shakeIntensity, intensity);
+        present(() -> shakeIntensity = Math.max(shakeIntensity, intensity));
+    }
+    
+    private void addScreenFlash(String color, int life) {
+        present(() -> screenEffects.add(new ScreenEffect(color, life)));
+    }
+    
+    private void addPowerUp(String name, Color color, int duration) {
+        present(() -> {
+            if (powerUpDisplay != null) powerUpDisplay.addPowerUp(name, color, duration);
+        });
+    }
+    
+    /**
+     * Floating text at a world position (tiles), placed against the camera
+     * when it is shown.
+     */
+    private void addWorldText(String text, double worldX, double worldY, double offsetY, Color color) {
+        present(() -> addFloatingText(text, worldX * tileSize - cameraX, worldY * tileSize - cameraY + offsetY, color));
+    }
+    
+    private void addCenterText(String text, double offsetY, Color color) {
+        present(() -> addFloatingText(text, gameWidth/2, gameHeight/2 + offsetY, color));
+    }
+    
+    private void addDamageIndicator(double worldX, double worldY, int damage) {
+        present(() -> {
+            if (damageIndicators != null) {
+                damageIndicators.addIndicator(worldX * tileSize - cameraX, worldY * tileSize - cameraY, damage, false);
+            }
+        });
+    }
+    
+    private void addPlayerDamageIndicator(int damage) {
+        present(() -> {
+            if (damageIndicators != null) damageIndicators.addIndicator(gameWidth/2, gameHeight/2, damage, true);
+        });
     }
     
     private void showNotification(String text, String color) {
+        if (!Platform.isFxApplicationThread()) {
+            presentation.offer(() -> showNotification(text, color));
+            return;
+        }
         Text notif = new Text(text);
         notif.setFont(Font.font("Arial Black", FontWeight.BLACK, 32));
         notif.setFill(Color.web(color));
@@ -1093,24 +1361,90 @@ public class GameView {
         ft.play();
     }
     
-    private void update() {
+    /**
+     * One simulation tick: held input, engine, collisions and pickups, then
+     * a snapshot for the renderer. Returns false once the game is over.
+     */
+    private boolean stepSimulation() {
+        if (paused) return true;
+        long start = profiler.start();
+        
+        if (moveX != 0 || moveY != 0) player.move(moveX, moveY);
+        if (firing) doShoot();
+        if (dashHeld) doDash();
+        if (ultimateHeld) doUltimate();
+        
         player.updateVisuals();
         engine.update(player.getX(), player.getY());
         
-        // Collisions
+        // Collisions (also counted in the enclosing update phase)
+        long collisionStart = profiler.start();
         checkCollisions();
+        profiler.stop(PHASE_COLLISIONS, collisionStart);
         
         // Collectibles
         Collectible c = engine.checkCollectible(player.getX(), player.getY());
         if (c != null) applyCollectible(c);
         
+        history.record(engine, System.nanoTime(), player.getX(), player.getY(), player.getHealth(), player.getEnergy());
+        
+        boolean over = player.getHealth() <= 0;
+        if (over) {
+            present(() -> {
+                gameOver = true;
+                showGameOver();
+            });
+        }
+        
+        publishSnapshot();
+        profiler.stop(PHASE_UPDATE, start);
+        return !over;
+    }
+    
+    /**
+     * Copy the tick's state into the back snapshot and publish it. Entity
+     * detail is limited to the rectangle the last frame drew, widened by a
+     * tile because the camera keeps moving until the snapshot is shown.
+     */
+    private void publishSnapshot() {
+        RenderSnapshot next = snapshots.back();
+        next.capture(engine, player, ++simTick, viewMinX - 1, viewMinY - 1, viewMaxX + 1, viewMaxY + 1);
+        next.setProgress(currentTimeline, totalKills, currentWaveKills, waveKillsRequired);
+        next.setCooldowns(lastDashTime, lastUltimateTime);
+        next.setPublishNanos(System.nanoTime());
+        snapshots.publish();
+    }
+    
+    /**
+     * FX side of a frame: pick up the newest snapshot, interpolate the
+     * player between the last two ticks, then move the camera and decay
+     * shake and screen effects.
+     */
+    private void updateView() {
+        if (snapshots.acquire()) {
+            prevPlayerX = frame.getPlayerVisualX();
+            prevPlayerY = frame.getPlayerVisualY();
+            frame = snapshots.front();
+        }
+        
+        // Render one tick behind the simulation so positions move smoothly
+        // between ticks; an inline tick has just run, so draw it as is
+        double alpha = 1;
+        SimulationLoop<GameCommand> loop = simulation;
+        if (loop != null) {
+            alpha = (System.nanoTime() - frame.getPublishNanos()) / (double) loop.getTickNanos();
+            alpha = Math.max(0, Math.min(1, alpha));
+        }
+        playerDrawX = prevPlayerX + (frame.getPlayerVisualX() - prevPlayerX) * alpha;
+        playerDrawY = prevPlayerY + (frame.getPlayerVisualY() - prevPlayerY) * alpha;
+        
         // Camera
-        double targetCamX = player.getVisualX() * tileSize - gameWidth/2 + tileSize/2;
-        double targetCamY = player.getVisualY() * tileSize - gameHeight/2 + tileSize/2;
+        double targetCamX = playerDrawX * tileSize - gameWidth/2 + tileSize/2;
+        double targetCamY = playerDrawY * tileSize - gameHeight/2 + tileSize/2;
         cameraX += (targetCamX - cameraX) * 0.08;
         cameraY += (targetCamY - cameraY) * 0.08;
         
-        double maxCam = engine.getMap().getSize() * tileSize - gameWidth;
+        double maxCam = frame.getMapSize() * tileSize - gameWidth;
         cameraX = Math.max(0, Math.min(maxCam, cameraX));
         cameraY = Math.max(0, Math.min(maxCam, cameraY));
         
@@ -1126,12 +1460,6 @@ public class GameView {
         
         // Effects decay
         screenEffects.removeIf(e -> --e.life <= 0);
-        
-        // Game over check
-        if (player.getHealth() <= 0) {
-            gameOver = true;
-            showGameOver();
-        }
     }
     
     private void checkCollisions() {
@@ -1159,10 +1487,7 @@ public class GameView {
                         engine.spawnParticles(p.getX(), p.getY(), "hit", 8);
                         
                         // Add damage indicator
-                        if (damageIndicators != null) {
-                            damageIndicators.addIndicator(e.getVisualX() * tileSize - cameraX, 
-                                e.getVisualY() * tileSize - cameraY, player.getDamage(), false);
-                        }
+                        addDamageIndicator(e.getVisualX(), e.getVisualY(), player.getDamage());
                         
                         pi.remove();
                         
@@ -1170,7 +1495,7 @@ public class GameView {
                             onEnemyKilled(e);
                             engine.spawnParticles(e.getX(), e.getY(), "explosion", 25);
                             addShake(e.getType() == EnemyType.BOSS ? 20 : 8);
-                            screenEffects.add(new ScreenEffect("#ffffff", 8));
+                            addScreenFlash("#ffffff", 8);
                             ei.remove();
                         }
                         break;
@@ -1180,12 +1505,10 @@ public class GameView {
                 if (dist(p.getX(), p.getY(), player.getX(), player.getY()) < 0.6) {
                     player.takeDamage(5, engine);
                     addShake(5);
-                    screenEffects.add(new ScreenEffect("#ef4444", 10));
+                    addScreenFlash("#ef4444", 10);
                     
                     // Add damage indicator for player
-                    if (damageIndicators != null) {
-                        damageIndicators.addIndicator(gameWidth/2, gameHeight/2, 5, true);
-                    }
+                    addPlayerDamageIndicator(5);
                     
                     pi.remove();
                 }
@@ -1197,12 +1520,10 @@ public class GameView {
             if (dist(e.getX(), e.getY(), player.getX(), player.getY()) < 0.7) {
                 player.takeDamage(e.getType().damage, engine);
                 addShake(8);
-                screenEffects.add(new ScreenEffect("#ef4444", 12));
+                addScreenFlash("#ef4444", 12);
                 
                 // Add damage indicator
-                if (damageIndicators != null) {
-                    damageIndicators.addIndicator(gameWidth/2, gameHeight/2, e.getType().damage, true);
-                }
+                addPlayerDamageIndicator(e.getType().damage);
             }
         }
         
@@ -1212,7 +1533,7 @@ public class GameView {
                 if (System.currentTimeMillis() - t.getLastDamage() > 1000) { // Damage once per second
                     player.takeDamage(t.getType().damage, engine);
                     addShake(3);
-                    screenEffects.add(new ScreenEffect("#8b5cf6", 8));
+                    addScreenFlash("#8b5cf6", 8);
                     t.setLastDamage(System.currentTimeMillis());
                 }
             }
@@ -1252,57 +1573,95 @@ public class GameView {
     }
     
     private void updateHUD() {
-        // Update level/wave display
-        levelText.setText("LEVEL " + ((engine.getWave() - 1) / 5 + 1));
-        waveText.setText("Wave " + engine.getWave());
+        // Scene-graph nodes are only touched when their displayed value changes;
+        // every game value comes from the current snapshot
+        RenderSnapshot f = frame;
+        int wave = f.getWave();
+        if (hud.set(HudModel.WAVE, wave)) {
+            levelText.setText("LEVEL " + ((wave - 1) / 5 + 1));
+            waveText.setText("Wave " + wave);
+        }
         
         // Update score
-        scoreText.setText(String.valueOf(engine.getScore()));
+        int score = f.getScore();
+        if (hud.set(HudModel.SCORE, score)) {
+            scoreText.setText(String.valueOf(score));
+        }
         
         // Update timeline text
-        timelineText.setText(currentTimeline);
-        switch (currentTimeline) {
-            case "PAST": timelineText.setFill(Color.web("#3b82f6")); break;
-            case "FUTURE": timelineText.setFill(Color.web("#a855f7")); break;
-            default: timelineText.setFill(Color.web("#10b981"));
+        String timeline = f.getTimeline();
+        if (hud.set(HudModel.TIMELINE, TimelineTheme.of(timeline).ordinal())) {
+            timelineText.setText(timeline);
+            switch (timeline) {
+                case "PAST": timelineText.setFill(Color.web("#3b82f6")); break;
+                case "FUTURE": timelineText.setFill(Color.web("#a855f7")); break;
+                default: timelineText.setFill(Color.web("#10b981"));
+            }
         }
         
         // Update kills display
-        if (killsText != null) {
-            killsText.setText(String.valueOf(totalKills));
+        if (killsText != null && hud.set(HudModel.KILLS, f.getKills())) {
+            killsText.setText(String.valueOf(f.getKills()));
         }
         
         // Update FPS display
         if (fpsText != null) {
-            fpsText.setText(String.valueOf(currentFps));
+            if (hud.set(HudModel.FPS, currentFps)) {
+                fpsText.setText(String.valueOf(currentFps));
+            }
             // Color based on FPS performance
-            if (currentFps >= 55) fpsText.setFill(Color.web("#22c55e"));
-            else if (currentFps >= 30) fpsText.setFill(Color.web("#fbbf24"));
-            else fpsText.setFill(Color.web("#ef4444"));
+            int band = currentFps >= 55 ? 2 : currentFps >= 30 ? 1 : 0;
+            if (hud.set(HudModel.FPS_BAND, band)) {
+                fpsText.setFill(band == 2 ? HUD_GOOD : band == 1 ? HUD_WARN : HUD_BAD);
+            }
+        }
+        
+        // Update quality level
+        QualityGovernor.Level level = quality.getLevel();
+        if (qualityText != null && hud.set(HudModel.QUALITY, level.ordinal())) {
+            qualityText.setText(level.name());
+            qualityText.setFill(level == QualityGovernor.Level.HIGH ? HUD_GOOD
+                : level == QualityGovernor.Level.MEDIUM ? HUD_WARN : HUD_BAD);
         }
         
         // Update wave progress
         if (waveProgressText != null) {
-            waveProgressText.setText(currentWaveKills + "/" + waveKillsRequired);
+            boolean killsChanged = hud.set(HudModel.WAVE_KILLS, f.getWaveKills());
+            boolean requiredChanged = hud.set(HudModel.WAVE_KILLS_REQUIRED, f.getWaveKillsRequired());
+            if (killsChanged || requiredChanged) {
+                waveProgressText.setText(f.getWaveKills() + "/" + f.getWaveKillsRequired());
+            }
         }
         
         // Update game time
         if (gameTimeText != null) {
             long elapsedSeconds = (System.currentTimeMillis() - gameStartTime) / 1000;
-            int minutes = (int) (elapsedSeconds / 60);
-            int seconds = (int) (elapsedSeconds % 60);
-            gameTimeText.setText(String.format("%02d:%02d", minutes, seconds));
+            if (hud.set(HudModel.ELAPSED_SECONDS, (int) elapsedSeconds)) {
+                int minutes = (int) (elapsedSeconds / 60);
+                int seconds = (int) (elapsedSeconds % 60);
+                gameTimeText.setText(String.format("%02d:%02d", minutes, seconds));
+            }
+        }
+        
+        // Health / energy bars in the top HUD, in whole-pixel steps
+        if (healthBarFill != null) {
+            int px = barPixels(HUD_BAR_WIDTH, f.getHealth(), f.getMaxHealth());
+            if (hud.set(HudModel.HEALTH_PX, px)) healthBarFill.setWidth(px);
+        }
+        if (energyBarFill != null) {
+            int px = barPixels(HUD_BAR_WIDTH, f.getEnergy(), f.getMaxEnergy());
+            if (hud.set(HudModel.ENERGY_PX, px)) energyBarFill.setWidth(px);
         }
         
         // Update cooldown bars
         updateCooldownBars();
         
-        // Update strategic map and threat level displays
-        if (strategicMapCanvas != null) {
-            drawStrategicMap(strategicMapCanvas.getGraphicsContext2D());
-        }
-        if (threatLevelCanvas != null) {
-            drawThreatLevel(threatLevelCanvas.getGraphicsContext2D());
+        // Strategic map and threat panel refresh at a lower rate than the viewport
+        long nowNs = System.nanoTime();
+        if (nowNs - lastPanelRefresh >= 1_000_000_000L / level.panelRefreshHz) {
+            lastPanelRefresh = nowNs;
+            if (strategicMap != null) strategicMap.draw(f);
+            if (threatPanel != null) threatPanel.draw(f);
         }
     }
     
@@ -1313,10 +1672,10 @@ public class GameView {
         if (dashCooldownBar != null) {
             Rectangle fill = (Rectangle) dashCooldownBar.getUserData();
             if (fill != null) {
-                long elapsed = now - lastDashTime;
-                double progress = Math.min(1.0, (double) elapsed / DASH_COOLDOWN);
-                fill.setWidth(240 * progress);
-                fill.setFill(progress >= 1.0 ? Color.web("#00ffff") : Color.web("#00ffff", 0.5));
+                int px = barPixels(COOLDOWN_BAR_WIDTH, now - frame.getLastDashTime(), DASH_COOLDOWN);
+                if (hud.set(HudModel.DASH_PX, px)) fill.setWidth(px);
+                boolean ready = px >= COOLDOWN_BAR_WIDTH;
+                if (hud.set(HudModel.DASH_READY, ready)) fill.setFill(ready ? DASH_READY : DASH_CHARGING);
             }
         }
         
@@ -1324,73 +1683,108 @@ public class GameView {
         if (ultimateCooldownBar != null) {
             Rectangle fill = (Rectangle) ultimateCooldownBar.getUserData();
             if (fill != null) {
-                long elapsed = now - lastUltimateTime;
-                double progress = Math.min(1.0, (double) elapsed / ULTIMATE_COOLDOWN);
-                fill.setWidth(240 * progress);
-                fill.setFill(progress >= 1.0 ? Color.web("#ffd700") : Color.web("#ffd700", 0.5));
+                int px = barPixels(COOLDOWN_BAR_WIDTH, now - frame.getLastUltimateTime(), ULTIMATE_COOLDOWN);
+                if (hud.set(HudModel.ULTIMATE_PX, px)) fill.setWidth(px);
+                boolean ready = px >= COOLDOWN_BAR_WIDTH;
+                if (hud.set(HudModel.ULTIMATE_READY, ready)) fill.setFill(ready ? ULTIMATE_READY : ULTIMATE_CHARGING);
             }
         }
     }
+    
+    /**
+     * Bar fill width for value/max, clamped and rounded down to whole pixels.
+     */
+    private static int barPixels(int width, double value, double max) {
+        if (max <= 0) return 0;
+        double progress = Math.max(0, Math.min(1.0, value / max));
+        return (int) (width * progress);
+    }
 
+    /**
+     * Draw one frame of the viewport into another renderer, e.g. a headless
+     * RecordingRenderer for measuring render cost. Requires show() to have run.
+     */
+    public void renderTo(Renderer target) {
+        Renderer previous = gc;
+        gc = new BatchingRenderer(target);
+        try {
+            gc.beginFrame();
+            render();
+            renderEnhancedFeatures();
+            gc.endFrame();
+        } finally {
+            gc = previous;
+        }
+    }
+    
+    /**
+     * Per-frame draw statistics, or null when DEBUG_MODE is off.
+     */
+    public RecordingRenderer getFrameRecorder() {
+        return frameRecorder;
+    }
+    
+    /**
+     * Phase timings for the last second and draw cost of the previous
+     * frame (DEBUG_MODE + SHOW_FPS).
+     * The text is rebuilt a few times per second so the overlay itself
+     * barely shows up in the allocation numbers.
+     */
+    private void renderDebugOverlay() {
+        if (!Constants.DEBUG_MODE || !Constants.SHOW_FPS || frameRecorder == null) return;
+        
+        if (frameRecorder.getFrameCount() % 15 == 0) {
+            long alloc = frameRecorder.getAllocatedBytes();
+            debugOverlayText = "draws " + frameRecorder.getDrawCalls()
+                + " (img " + frameRecorder.getImageDraws() + ")"
+                + "  state " + batcher.getRequestedStateChanges() + " -> " + batcher.getEmittedStateChanges()
+                + "  alloc " + (alloc < 0 ? "n/a" : (alloc / 1024) + " KB")
+                + "  quality " + quality.getLevel() + " (" + quality.getChanges() + " changes)"
+                + "  rewind " + String.format("%.1fs %d KB/s, restore %d us", history.getSecondsHeld(),
+                    history.getBytesPerSecond() / 1024, history.getLastRestoreNanos() / 1000);
+        }
+        
+        double lineHeight = 15;
+        double boxHeight = 22 + profileLines.length * lineHeight;
+        double top = gameHeight - 8 - boxHeight;
+        gc.setFill(PaintCache.color("#000000", 0.55));
+        gc.fillRoundRect(8, top, 420, boxHeight, 6, 6);
+        gc.setFont(PaintCache.font("Consolas", 12));
+        gc.setFill(PaintCache.color("#06b6d4"));
+        for (int i = 0; i < profileLines.length; i++) {
+            gc.fillText(profileLines[i], 16, top + 16 + i * lineHeight);
+        }
+        gc.setFill(PaintCache.color("#22c55e"));
+        gc.fillText(debugOverlayText, 16, gameHeight - 14);
+    }
+    
     private void render() {
-        gc.setFill(Color.web("#0a0f14"));
+        RenderSnapshot f = frame;
+        int glowLayers = quality.getLevel().glowLayers;
+        gc.setFill(PaintCache.color("#0a0f14"));
         gc.fillRect(0, 0, gameWidth, gameHeight);
         
-        // Get timeline theme - teal/green color scheme like reference
-        Color floorA, floorB, wallMain, wallLight, accent;
-        switch (currentTimeline) {
-            case "PAST":
-                floorA = Color.web("#0d1520"); floorB = Color.web("#0a1218");
-                wallMain = Color.web("#1a3545"); wallLight = Color.web("#2a4555");
-                accent = Color.web("#3b82f6");
-                break;
-            case "FUTURE":
-                floorA = Color.web("#120d20"); floorB = Color.web("#0f0a18");
-                wallMain = Color.web("#351a4c"); wallLight = Color.web("#452a5c");
-                accent = Color.web("#a855f7");
-                break;
-            default: // PRESENT - teal/green theme like reference image
-                floorA = Color.web("#0f1a18"); floorB = Color.web("#0c1614");
-                wallMain = Color.web("#1a3530"); wallLight = Color.web("#254540");
-                accent = Color.web("#22c55e");
-        }
+        // Static floor/wall layer, pre-rendered per timeline theme; only the
+        // chunks overlapping the camera are drawn
+        tileLayer.draw(gc, TimelineTheme.of(f.getTimeline()), tileSize, cameraX, cameraY, gameWidth, gameHeight);
         
-        GridMap map = engine.getMap();
-        
-        // Draw tiles
-        for (int i = 0; i < map.getSize(); i++) {
-            for (int j = 0; j < map.getSize(); j++) {
-                double sx = i * tileSize - cameraX;
-                double sy = j * tileSize - cameraY;
-                
-                if (sx < -tileSize || sx > gameWidth || sy < -tileSize || sy > gameHeight) continue;
-                
-                Node node = map.getNode(i, j);
-                
-                if (node.isWalkable()) {
-                    gc.setFill((i + j) % 2 == 0 ? floorA : floorB);
-                    gc.fillRect(sx, sy, tileSize, tileSize);
-                } else {
-                    // Wall with 3D effect
-                    gc.setFill(wallMain);
-                    gc.fillRect(sx, sy, tileSize, tileSize);
-                    gc.setFill(wallLight);
-                    gc.fillRect(sx, sy, tileSize, 5);
-                    gc.fillRect(sx, sy, 5, tileSize);
-                    gc.setFill(Color.web("#000", 0.3));
-                    gc.fillRect(sx, sy + tileSize - 5, tileSize, 5);
-                    gc.fillRect(sx + tileSize - 5, sy, 5, tileSize);
-                }
-            }
-        }
+        // Visible world rectangle in tiles, padded so glows, outlines and
+        // trails that poke in from just off-screen are still drawn. The next
+        // snapshot only carries entity detail inside it.
+        double pad = Math.max(2, CULL_MARGIN_PX / tileSize);
+        viewMinX = cameraX / tileSize - pad;
+        viewMinY = cameraY / tileSize - pad;
+        viewMaxX = (cameraX + gameWidth) / tileSize + pad;
+        viewMaxY = (cameraY + gameHeight) / tileSize + pad;
         
         // Draw collectibles - yellow dots like reference
-        for (Collectible c : engine.getCollectibles()) {
-            double sx = c.getX() * tileSize - cameraX + tileSize/2;
-            double sy = c.getY() * tileSize - cameraY + tileSize/2 + Math.sin(time * 3 + c.getBobOffset()) * 3;
+        gc.beginBatch();
+        for (int i = 0; i < f.getCollectibleCount(); i++) {
+            double sx = f.getCollectibleX(i) * tileSize - cameraX + tileSize/2;
+            double sy = f.getCollectibleY(i) * tileSize - cameraY + tileSize/2 + Math.sin(time * 3 + f.getCollectibleBob(i)) * 3;
             
             String color;
-            switch (c.getType()) {
+            switch (f.getCollectibleType(i)) {
                 case HEALTH: color = "#ef4444"; break;
                 case ENERGY: color = "#fbbf24"; break;
                 case AMMO: color = "#06b6d4"; break;
@@ -1404,133 +1798,101 @@ public class GameView {
             }
             
             // Outer glow
-            gc.setFill(Color.web(color, 0.25));
-            gc.fillOval(sx - 12, sy - 12, 24, 24);
+            if (glowLayers >= 1) {
+                gc.setFill(PaintCache.color(color, 0.25));
+                gc.fillOval(sx - 12, sy - 12, 24, 24);
+            }
             
             // Inner dot
-            gc.setFill(Color.web(color));
+            gc.setFill(PaintCache.color(color));
             gc.fillOval(sx - 6, sy - 6, 12, 12);
         }
+        gc.flushBatch();
         
         // Draw traps
-        for (Trap t : engine.getTraps()) {
-            double sx = t.getX() * tileSize - cameraX + tileSize/2;
-            double sy = t.getY() * tileSize - cameraY + tileSize/2;
+        for (int i = 0; i < f.getTrapCount(); i++) {
+            double sx = f.getTrapX(i) * tileSize - cameraX + tileSize/2;
+            double sy = f.getTrapY(i) * tileSize - cameraY + tileSize/2;
             
             String color;
-            switch (t.getType()) {
+            switch (f.getTrapType(i)) {
                 case SPIKES: color = "#ef4444"; break;
                 case POISON: color = "#22c55e"; break;
                 default: color = "#ef4444";
             }
             
             // Triangle indicator
-            gc.setFill(Color.web(color, 0.6));
-            gc.fillPolygon(
-                new double[]{sx, sx - 8, sx + 8},
-                new double[]{sy - 8, sy + 6, sy + 6},
-                3
-            );
-        }
-        
-        // Draw enemies
-        for (Enemy e : engine.getEnemies()) {
-            // Skip invisible enemies that are not visible
-            if (e.getType() == EnemyType.INVISIBLE && !e.isVisible()) continue;
-
-            double sx = e.getVisualX() * tileSize - cameraX + tileSize/2;
-            double sy = e.getVisualY() * tileSize - cameraY + tileSize/2;
-            double size = e.getType() == EnemyType.BOSS ? 44 : e.getType() == EnemyType.TANK ? 32 : 24;
-
-            // Color based on enemy type - tan/beige for normal, colors for special
-            String bodyColor, glowColor;
-            switch (e.getType()) {
-                case CHASER: bodyColor = "#d4a574"; glowColor = "#22c55e"; break;
-                case SHOOTER: bodyColor = "#e8c090"; glowColor = "#f59e0b"; break;
-                case TANK: bodyColor = "#8b7355"; glowColor = "#6b7280"; break;
-                case TELEPORTER: bodyColor = "#c4b0d4"; glowColor = "#a855f7"; break;
-                case INVISIBLE: bodyColor = "#9ca3af"; glowColor = "#6b7280"; break;
-                case SUMMONER: bodyColor = "#e8a4c4"; glowColor = "#ec4899"; break;
-                case BOSS: bodyColor = "#ff6b6b"; glowColor = "#ef4444"; break;
-                default: bodyColor = "#d4a574"; glowColor = "#f97316";
-            }
-
-            // Shadow
-            gc.setFill(Color.web("#000", 0.25));
-            gc.fillOval(sx - size/2 + 3, sy + size/3, size - 2, size/4);
+            gc.setFill(PaintCache.color(color, 0.6));
+            trapXs[0] = sx; trapXs[1] = sx - 8; trapXs[2] = sx + 8;
+            trapYs[0] = sy - 8; trapYs[1] = sy + 6; trapYs[2] = sy + 6;
+            gc.fillPolygon(trapXs, trapYs, 3);
+        }
+        
+        // Draw enemies (hidden INVISIBLE enemies are left out of the snapshot)
+        for (int i = 0; i < f.getEnemyCount(); i++) {
+            EnemyType type = f.getEnemyType(i);
+            double sx = f.getEnemyX(i) * tileSize - cameraX + tileSize/2;
+            double sy = f.getEnemyY(i) * tileSize - cameraY + tileSize/2;
+            double size = SpriteAtlas.enemySize(type);
 
             // Enhanced boss outline
-            if (e.getType() == EnemyType.BOSS) {
+            if (type == EnemyType.BOSS && glowLayers >= 1) {
                 double outlinePulse = 0.5 + 0.5 * Math.sin(time * 4);
-                gc.setStroke(Color.web("#ef4444", 0.7 * outlinePulse + 0.3));
+                gc.setStroke(PaintCache.color("#ef4444", 0.7 * outlinePulse + 0.3));
                 gc.setLineWidth(6 + 2 * outlinePulse);
                 gc.strokeOval(sx - size/2 - 8, sy - size/2 - 8, size + 16, size + 16);
             }
 
-            // Outer glow
-            gc.setFill(Color.web(glowColor, 0.2));
-            gc.fillOval(sx - size/2 - 4, sy - size/2 - 4, size + 8, size + 8);
-
-            // Body with gradient
-            RadialGradient enemyGrad = new RadialGradient(0, 0, 0.3, 0.3, 1, true, CycleMethod.NO_CYCLE,
-                new Stop(0, e.isHit() ? Color.WHITE : Color.web(bodyColor).brighter()),
-                new Stop(0.7, e.isHit() ? Color.web("#dddddd") : Color.web(bodyColor)),
-                new Stop(1, e.isHit() ? Color.web("#aaaaaa") : Color.web(bodyColor).darker())
-            );
-            gc.setFill(enemyGrad);
-            gc.fillOval(sx - size/2, sy - size/2, size, size);
-
-            // Eye
-            double eyeX = sx + Math.cos(e.getAngle()) * size/5;
-            double eyeY = sy + Math.sin(e.getAngle()) * size/5;
-            gc.setFill(Color.WHITE);
-            gc.fillOval(eyeX - 4, eyeY - 4, 8, 8);
-            gc.setFill(Color.web("#1a1a1a"));
-            gc.fillOval(eyeX - 2, eyeY - 2, 4, 4);
+            // Shadow, glow, body and eye from the atlas
+            Image sprite = sprites.enemy(type, f.isEnemyHit(i), f.getEnemyAngle(i));
+            gc.drawImage(sprite, sx - sprite.getWidth() / 2, sy - sprite.getHeight() / 2);
 
             // Health bar (only for damaged enemies)
-            double hpPct = (double)e.getHealth() / e.getMaxHealth();
+            double hpPct = (double)f.getEnemyHealth(i) / f.getEnemyMaxHealth(i);
             if (hpPct < 1.0) {
-                gc.setFill(Color.web("#1a2a25", 0.9));
+                gc.setFill(HP_BAR_BG);
                 gc.fillRoundRect(sx - size/2, sy - size/2 - 10, size, 5, 2, 2);
-                gc.setFill(hpPct > 0.5 ? Color.web("#22c55e") : hpPct > 0.25 ? Color.web("#f59e0b") : Color.web("#ef4444"));
+                gc.setFill(hpPct > 0.5 ? HP_HIGH : hpPct > 0.25 ? HP_MID : HP_LOW);
                 gc.fillRoundRect(sx - size/2, sy - size/2 - 10, size * hpPct, 5, 2, 2);
             }
         }
         
-        // Draw projectiles
-        for (Projectile p : engine.getProjectiles()) {
-            double sx = p.getX() * tileSize - cameraX;
-            double sy = p.getY() * tileSize - cameraY;
+        // Draw projectiles; trail alpha is baked into the stroke color so
+        // segments from all projectiles group by color in the batch
+        gc.beginBatch();
+        gc.setLineWidth(2);
+        for (int i = 0; i < f.getProjectileCount(); i++) {
+            double sx = f.getProjectileX(i) * tileSize - cameraX;
+            double sy = f.getProjectileY(i) * tileSize - cameraY;
+            boolean fromPlayer = f.isPlayerProjectile(i);
+            String trailColor = fromPlayer ? "#22c55e" : "#ef4444";
             
             // Trail
-            gc.setStroke(Color.web(p.isPlayer() ? "#22c55e" : "#ef4444", 0.4));
-            gc.setLineWidth(2);
-            for (int i = 0; i < p.getTrail().size() - 1; i++) {
-                double[] t1 = p.getTrail().get(i);
-                double[] t2 = p.getTrail().get(i + 1);
-                gc.setGlobalAlpha((double)i / p.getTrail().size() * 0.5);
-                gc.strokeLine(t1[0]*tileSize-cameraX, t1[1]*tileSize-cameraY, 
-                              t2[0]*tileSize-cameraX, t2[1]*tileSize-cameraY);
+            int first = f.getTrailStart(i);
+            int length = f.getTrailLength(i);
+            for (int k = 0; k < length - 1; k++) {
+                int a = first + k, b = a + 1;
+                gc.setStroke(PaintCache.color(trailColor, 0.4 * ((double)k / length * 0.5)));
+                gc.strokeLine(f.getTrailX(a)*tileSize-cameraX, f.getTrailY(a)*tileSize-cameraY, 
+                              f.getTrailX(b)*tileSize-cameraX, f.getTrailY(b)*tileSize-cameraY);
             }
-            gc.setGlobalAlpha(1);
             
-            // Bullet glow
-            gc.setFill(Color.web(p.isPlayer() ? "#22c55e" : "#ef4444", 0.3));
-            gc.fillOval(sx - 8, sy - 8, 16, 16);
-            // Bullet core
-            gc.setFill(Color.web(p.isPlayer() ? "#22c55e" : "#ef4444"));
-            gc.fillOval(sx - 4, sy - 4, 8, 8);
+            // Bullet glow and core
+            Image bullet = sprites.projectile(fromPlayer);
+            gc.drawImage(bullet, sx - bullet.getWidth() / 2, sy - bullet.getHeight() / 2);
         }
+        gc.flushBatch();
         
         // Draw particles
-        for (Particle p : engine.getParticles()) {
-            double sx = p.getX() * tileSize - cameraX;
-            double sy = p.getY() * tileSize - cameraY;
-            double alpha = p.getLife() / 60.0;
+        gc.beginBatch();
+        for (int i = 0; i < f.getParticleCount(); i++) {
+            double sx = f.getParticleX(i) * tileSize - cameraX;
+            double sy = f.getParticleY(i) * tileSize - cameraY;
+            double alpha = f.getParticleLife(i) / 60.0;
+            double size = f.getParticleSize(i);
             
             String color;
-            switch (p.getType()) {
+            switch (f.getParticleType(i)) {
                 case "hit": color = "#ffd700"; break;
                 case "explosion": color = "#ff6b6b"; break;
                 case "damage": color = "#ef4444"; break;
@@ -1539,64 +1901,45 @@ public class GameView {
                 default: color = "#ffffff";
             }
             
-            gc.setFill(Color.web(color, alpha));
-            gc.fillOval(sx - p.getSize()/2, sy - p.getSize()/2, p.getSize(), p.getSize());
+            gc.setFill(PaintCache.color(color, alpha));
+            gc.fillOval(sx - size/2, sy - size/2, size, size);
         }
+        gc.flushBatch();
         
-        // Draw damage numbers
-        for (DamageNumber d : engine.getDamageNumbers()) {
-            double sx = d.getX() * tileSize - cameraX;
-            double sy = d.getY() * tileSize - cameraY;
-            double alpha = d.getLife() / 40.0;
+        // Draw damage numbers; fade is baked into the fill color
+        gc.beginBatch();
+        for (int i = 0; i < f.getDamageNumberCount(); i++) {
+            double sx = f.getDamageNumberX(i) * tileSize - cameraX;
+            double sy = f.getDamageNumberY(i) * tileSize - cameraY;
+            double alpha = f.getDamageNumberLife(i) / 40.0;
+            boolean crit = f.isDamageNumberCrit(i);
             
-            gc.setGlobalAlpha(alpha);
-            gc.setFont(Font.font("Arial Black", d.isCrit() ? 22 : 16));
-            gc.setFill(d.isCrit() ? Color.web("#ffd700") : Color.WHITE);
-            gc.fillText((d.isCrit() ? "CRIT! " : "") + d.getDamage(), sx, sy);
-            gc.setGlobalAlpha(1);
+            gc.setFont(PaintCache.font("Arial Black", crit ? 22 : 16));
+            gc.setFill(PaintCache.color(crit ? "#ffd700" : "#ffffff", alpha));
+            gc.fillText((crit ? "CRIT! " : "") + f.getDamageNumberValue(i), sx, sy);
         }
+        gc.flushBatch();
         
         // Draw player - white/light circle with glow like reference
-        double px = player.getVisualX() * tileSize - cameraX + tileSize/2;
-        double py = player.getVisualY() * tileSize - cameraY + tileSize/2;
-
-        if (!player.isInvincible() || (int)(time * 20) % 2 == 0) {
-            // Shadow
-            gc.setFill(Color.web("#000", 0.3));
-            gc.fillOval(px - 12 + 3, py + 8, 24, 8);
-
-            // Enhanced pulsing glow for invincible/ability
-            double glowAlpha = player.isInvincible() ? (0.25 + 0.15 * Math.sin(time * 8)) : 0.15;
-            Color glowColor = player.isInvincible() ? Color.web("#fbbf24") : Color.web("#22c55e");
-            gc.setFill(glowColor.deriveColor(0, 1, 1, glowAlpha));
-            gc.fillOval(px - 30, py - 30, 60, 60);
-            gc.setFill(glowColor.deriveColor(0, 1, 1, glowAlpha + 0.1));
-            gc.fillOval(px - 22, py - 22, 44, 44);
+        double px = playerDrawX * tileSize - cameraX + tileSize/2;
+        double py = playerDrawY * tileSize - cameraY + tileSize/2;
 
-            // Main body - white/light with gradient
-            RadialGradient playerGrad = new RadialGradient(0, 0, 0.3, 0.3, 1, true, CycleMethod.NO_CYCLE,
-                new Stop(0, Color.web("#ffffff")),
-                new Stop(0.5, Color.web("#e0f0e8")),
-                new Stop(1, Color.web("#90c0a0"))
-            );
-            gc.setFill(playerGrad);
-            gc.fillOval(px - 16, py - 16, 32, 32);
-
-            // Inner highlight
-            gc.setFill(Color.web("#ffffff", 0.7));
-            gc.fillOval(px - 10, py - 12, 10, 7);
+        if (!f.isInvincible() || (int)(time * 20) % 2 == 0) {
+            // Shadow, glow and body from the atlas; glow pulses while invincible
+            Image sprite = sprites.player(f.isInvincible(), 0.5 + 0.5 * Math.sin(time * 8));
+            gc.drawImage(sprite, px - sprite.getWidth() / 2, py - sprite.getHeight() / 2);
 
             // Health bar above player
             double barWidth = 36;
-            double hpPct = player.getHealth() / 100.0;
-            gc.setFill(Color.web("#1a2a25", 0.9));
+            double hpPct = f.getHealth() / 100.0;
+            gc.setFill(HP_BAR_BG);
             gc.fillRoundRect(px - barWidth/2 - 2, py - 32, barWidth + 4, 8, 4, 4);
-            gc.setFill(Color.web("#22c55e"));
+            gc.setFill(HP_HIGH);
             gc.fillRoundRect(px - barWidth/2, py - 30, barWidth * hpPct, 4, 2, 2);
 
             // Shield indicator
-            if (player.getShield() > 0) {
-                gc.setStroke(Color.web("#3b82f6", 0.8));
+            if (f.getShield() > 0) {
+                gc.setStroke(PaintCache.color("#3b82f6", 0.8));
                 gc.setLineWidth(2);
                 gc.strokeOval(px - 20, py - 20, 40, 40);
             }
@@ -1604,17 +1947,17 @@ public class GameView {
         
         // Aim line
         double aimLen = 60;
-        double aimEndX = px + Math.cos(player.getAimAngle()) * aimLen;
-        double aimEndY = py + Math.sin(player.getAimAngle()) * aimLen;
+        double aimEndX = px + Math.cos(f.getAimAngle()) * aimLen;
+        double aimEndY = py + Math.sin(f.getAimAngle()) * aimLen;
         
-        gc.setStroke(Color.web("#00ffff", 0.4));
+        gc.setStroke(PaintCache.color("#00ffff", 0.4));
         gc.setLineWidth(2);
         gc.setLineDashes(8, 8);
         gc.strokeLine(px, py, aimEndX, aimEndY);
         gc.setLineDashes(0);
         
         // Crosshair
-        gc.setStroke(Color.web("#00ffff", 0.8));
+        gc.setStroke(PaintCache.color("#00ffff", 0.8));
         gc.setLineWidth(2);
         gc.strokeOval(aimEndX - 10, aimEndY - 10, 20, 20);
         gc.strokeLine(aimEndX - 15, aimEndY, aimEndX + 15, aimEndY);
@@ -1622,19 +1965,19 @@ public class GameView {
         
         gc.restore();
         
-        // Screen effects
-        for (ScreenEffect e : screenEffects) {
-            gc.setFill(Color.web(e.color, e.life / 30.0 * 0.3));
+        // Screen effects, newest last; lower quality keeps only the newest few
+        int firstEffect = Math.max(0, screenEffects.size() - quality.getLevel().maxScreenEffects);
+        for (int i = firstEffect; i < screenEffects.size(); i++) {
+            ScreenEffect e = screenEffects.get(i);
+            gc.setFill(PaintCache.color(e.color, e.life / 30.0 * 0.3));
             gc.fillRect(0, 0, gameWidth, gameHeight);
         }
         
         // Vignette
-        RadialGradient vignette = new RadialGradient(0, 0, 0.5, 0.5, 0.7, true, CycleMethod.NO_CYCLE,
-            new Stop(0, Color.TRANSPARENT),
-            new Stop(1, Color.web("#000", 0.6))
-        );
-        gc.setFill(vignette);
-        gc.fillRect(0, 0, gameWidth, gameHeight);
+        if (quality.getLevel().vignette) {
+            gc.setFill(VIGNETTE);
+            gc.fillRect(0, 0, gameWidth, gameHeight);
+        }
     }
     
     private void showGameOver() {
@@ -1661,6 +2004,7 @@ public class GameView {
         
         retryBtn.setOnMouseClicked(e -> {
             gameLoop.stop();
+            stopSimulation();
             engine = new GameEngine();
             player = new Player("Hero", engine.getMap(), "PRESENT");
             gameOver = false;
@@ -1703,8 +2047,17 @@ public class GameView {
         return btn;
     }
     
+    private void disposeMapCaches() {
+        if (tileLayer != null) tileLayer.dispose();
+        if (strategicMap != null) strategicMap.dispose();
+        tileLayer = null;
+        strategicMap = null;
+    }
+    
     private void returnToMenu() {
         if (gameLoop != null) gameLoop.stop();
+        stopSimulation();
+        disposeMapCaches();
         MainMenu menu = new MainMenu(stage);
         menu.show();
     }
@@ -1800,12 +2153,12 @@ public class GameView {
             gc.save();
             gc.setGlobalAlpha(life / maxLife);
             gc.setFill(color);
-            gc.setFont(Font.font("Arial Black", FontWeight.BLACK, size));
+            gc.setFont(PaintCache.font("Arial Black", FontWeight.BLACK, size));
             gc.fillText(text, x, y);
             
             // Glow effect
             gc.setGlobalAlpha((life / maxLife) * 0.5);
-            gc.setFill(Color.web("#ffffff", 0.8));
+            gc.setFill(PaintCache.color("#ffffff", 0.8));
             gc.fillText(text, x - 1, y - 1);
             gc.restore();
         }
@@ -1886,7 +2239,7 @@ public class GameView {
             double notifY = 10 + yOffset + 50; // Offset from top, slides in from above
             
             // Background
-            gc.setFill(Color.web("#1a1a2e", 0.9));
+            gc.setFill(PaintCache.color("#1a1a2e", 0.9));
             gc.fillRoundRect(notifX, notifY, notifWidth, notifHeight, 10, 10);
             gc.setStroke(color);
             gc.setLineWidth(2);
@@ -1894,12 +2247,12 @@ public class GameView {
             
             // Title
             gc.setFill(color);
-            gc.setFont(Font.font("Arial Black", FontWeight.BLACK, 16));
+            gc.setFont(PaintCache.font("Arial Black", FontWeight.BLACK, 16));
             gc.fillText(title, notifX + 15, notifY + 25);
             
             // Message
-            gc.setFill(Color.web("#cccccc"));
-            gc.setFont(Font.font("Arial", 13));
+            gc.setFill(PaintCache.color("#cccccc"));
+            gc.setFont(PaintCache.font("Arial", 13));
             gc.fillText(message, notifX + 15, notifY + 48);
             
             gc.restore();
@@ -1938,7 +2291,7 @@ public class GameView {
                 double alpha = Math.sin(shiftProgress * Math.PI) * 0.5;
                 gc.save();
                 gc.setGlobalAlpha(alpha);
-                gc.setFill(Color.web("#00ffff"));
+                gc.setFill(PaintCache.color("#00ffff"));
                 gc.fillRect(0, 0, gameWidth, gameHeight);
                 gc.restore();
             }
@@ -1977,14 +2330,16 @@ public class GameView {
                 gc.save();
                 gc.setGlobalAlpha(0.8);
                 gc.setFill(NEON_PURPLE);
-                gc.setFont(Font.font("Arial Black", FontWeight.BLACK, 24 * comboScale));
+                gc.setFont(PaintCache.font("Arial Black", FontWeight.BLACK, 24 * comboScale));
                 String comboText = currentCombo + "x COMBO!";
                 gc.fillText(comboText, gameWidth/2 - 100, gameHeight/2);
                 
                 // Glow
-                gc.setGlobalAlpha(0.4);
-                gc.setFill(Color.WHITE);
-                gc.fillText(comboText, gameWidth/2 - 99, gameHeight/2 - 1);
+                if (quality.getLevel().glowLayers >= 2) {
+                    gc.setGlobalAlpha(0.4);
+                    gc.setFill(Color.WHITE);
+                    gc.fillText(comboText, gameWidth/2 - 99, gameHeight/2 - 1);
+                }
                 gc.restore();
             }
         }
@@ -2032,7 +2387,7 @@ public class GameView {
                 double progress = (double)duration / maxDuration;
                 
                 // Background
-                gc.setFill(Color.web("#1a1a2e", 0.8));
+                gc.setFill(PaintCache.color("#1a1a2e", 0.8));
                 gc.fillRoundRect(x, y, 200, 30, 5, 5);
                 
                 // Progress bar
@@ -2041,7 +2396,7 @@ public class GameView {
                 
                 // Text
                 gc.setFill(Color.WHITE);
-                gc.setFont(Font.font("Arial", FontWeight.BOLD, 12));
+                gc.setFont(PaintCache.font("Arial", FontWeight.BOLD, 12));
                 gc.fillText(name.toUpperCase(), x + 10, y + 20);
             }
         }
@@ -2152,22 +2507,22 @@ public class GameView {
             if (currentStreak == 3) {
                 currentTitle = "TRIPLE KILL!";
                 showNotification("TRIPLE KILL!", "#f59e0b");
-                engine.addScore(50);
+                submit(GameCommand.addScore(50));
             } else if (currentStreak == 5) {
                 currentTitle = "KILLING SPREE!";
                 showNotification("KILLING SPREE!", "#ef4444");
-                engine.addScore(100);
+                submit(GameCommand.addScore(100));
             } else if (currentStreak == 10) {
                 currentTitle = "UNSTOPPABLE!";
                 showNotification("UNSTOPPABLE!", "#a855f7");
-                engine.addScore(250);
+                submit(GameCommand.addScore(250));
                 addShake(15);
             } else if (currentStreak == 15) {
                 currentTitle = "GODLIKE!";
                 showNotification("GODLIKE!", "#ffd700");
-                engine.addScore(500);
+                submit(GameCommand.addScore(500));
                 addShake(20);
-                screenEffects.add(new ScreenEffect("#ffd700", 30));
+                addScreenFlash("#ffd700", 30);
             }
         }
         
@@ -2186,18 +2541,20 @@ public class GameView {
                 
                 // Streak counter at top center
                 String streakText = currentStreak + "x STREAK";
-                gc.setFont(Font.font("Arial Black", FontWeight.BLACK, 24 * displayScale));
+                gc.setFont(PaintCache.font("Arial Black", FontWeight.BLACK, 24 * displayScale));
                 
                 // Glow effect
-                gc.setFill(Color.web("#ffd700", 0.3));
-                gc.fillText(streakText, gameWidth/2 - 70, 60);
+                if (quality.getLevel().glowLayers >= 2) {
+                    gc.setFill(PaintCache.color("#ffd700", 0.3));
+                    gc.fillText(streakText, gameWidth/2 - 70, 60);
+                }
                 
                 gc.setFill(NEON_GOLD);
                 gc.fillText(streakText, gameWidth/2 - 72, 58);
                 
                 // Title below
                 if (!currentTitle.isEmpty()) {
-                    gc.setFont(Font.font("Arial Black", 16));
+                    gc.setFont(PaintCache.font("Arial Black", 16));
                     gc.setFill(NEON_RED);
                     gc.fillText(currentTitle, gameWidth/2 - 60, 82);
                 }
@@ -2208,27 +2565,18 @@ public class GameView {
     }
     
     private class BossHealthBar {
-        private Enemy currentBoss = null;
         private double displayHealth = 0;
         
         void update() {
-            // Find active boss
-            currentBoss = null;
-            for (Enemy e : engine.getEnemies()) {
-                if (e.getType() == EnemyType.BOSS) {
-                    currentBoss = e;
-                    break;
-                }
-            }
-            
-            if (currentBoss != null) {
-                double targetHealth = (double) currentBoss.getHealth() / currentBoss.getMaxHealth();
+            // Active boss comes from the snapshot
+            if (frame.hasBoss()) {
+                double targetHealth = (double) frame.getBossHealth() / frame.getBossMaxHealth();
                 displayHealth += (targetHealth - displayHealth) * 0.1;
             }
         }
         
         void render() {
-            if (currentBoss != null && !currentBoss.isDead()) {
+            if (frame.hasBoss()) {
                 gc.save();
                 
                 double barWidth = 400;
@@ -2237,19 +2585,19 @@ public class GameView {
                 double barY = gameHeight - 60;
                 
                 // Background
-                gc.setFill(Color.web("#1a1a2e", 0.9));
+                gc.setFill(PaintCache.color("#1a1a2e", 0.9));
                 gc.fillRoundRect(barX - 5, barY - 25, barWidth + 10, barHeight + 35, 10, 10);
-                gc.setStroke(Color.web("#ef4444"));
+                gc.setStroke(PaintCache.color("#ef4444"));
                 gc.setLineWidth(2);
                 gc.strokeRoundRect(barX - 5, barY - 25, barWidth + 10, barHeight + 35, 10, 10);
                 
                 // Boss name
-                gc.setFont(Font.font("Arial Black", FontWeight.BLACK, 14));
-                gc.setFill(Color.web("#ef4444"));
+                gc.setFont(PaintCache.font("Arial Black", FontWeight.BLACK, 14));
+                gc.setFill(PaintCache.color("#ef4444"));
                 gc.fillText("⚔ BOSS ⚔", barX + barWidth/2 - 40, barY - 8);
                 
                 // Health bar background
-                gc.setFill(Color.web("#2a0a0a"));
+                gc.setFill(PaintCache.color("#2a0a0a"));
                 gc.fillRoundRect(barX, barY, barWidth, barHeight, 5, 5);
                 
                 // Health bar fill with gradient
@@ -2264,7 +2612,7 @@ public class GameView {
                 }
                 
                 // Health percentage text
-                gc.setFont(Font.font("Consolas", FontWeight.BOLD, 12));
+                gc.setFont(PaintCache.font("Consolas", FontWeight.BOLD, 12));
                 gc.setFill(Color.WHITE);
                 String healthText = (int)(displayHealth * 100) + "%";
                 gc.fillText(healthText, barX + barWidth/2 - 15, barY + 15);
@@ -2324,8 +2672,8 @@ public class GameView {
                 Color color = isPlayerDamage ? NEON_RED : NEON_ORANGE;
                 
                 // Shadow
-                gc.setFill(Color.web("#000000", 0.5));
-                gc.setFont(Font.font("Arial Black", FontWeight.BLACK, 16 * scale));
+                gc.setFill(PaintCache.color("#000000", 0.5));
+                gc.setFont(PaintCache.font("Arial Black", FontWeight.BLACK, 16 * scale));
                 gc.fillText(text, x + 2, y + 2);
                 
                 // Main text
@@ -2371,6 +2719,7 @@ public class GameView {
         restartBtn.setOnMouseClicked(e -> {
             hidePauseMenu();
             gameLoop.stop();
+            stopSimulation();
             engine = new GameEngine();
             player = new Player("Hero", engine.getMap(), "PRESENT");
             gameOver = false;
@@ -2393,15 +2742,15 @@ public class GameView {
         statsTitle.setFont(Font.font("Consolas", 14));
         statsTitle.setFill(Color.web("#666666"));
         
-        Text killsStat = new Text("Kills: " + totalKills);
+        Text killsStat = new Text("Kills: " + frame.getKills());
         killsStat.setFont(Font.font("Consolas", 16));
         killsStat.setFill(Color.WHITE);
         
-        Text scoreStat = new Text("Score: " + engine.getScore());
+        Text scoreStat = new Text("Score: " + frame.getScore());
         scoreStat.setFont(Font.font("Consolas", 16));
         scoreStat.setFill(NEON_GREEN);
         
-        Text waveStat = new Text("Wave: " + engine.getWave());
+        Text waveStat = new Text("Wave: " + frame.getWave());
         waveStat.setFont(Font.font("Consolas", 16));
         waveStat.setFill(NEON_CYAN);
         
@@ -0,0 +1,65 @@
+package ui;
+
+import java.util.Arrays;
+
+/**
+ * Last values pushed into the HUD's scene-graph nodes.
+ *
+ * updateHUD offers every value each frame through set(); only values that
+ * differ from the last push return true, so Text and Rectangle nodes are
+ * touched (and CSS/layout invalidated) only when something visible changed.
+ * Continuous values such as bar widths are expected to be quantized to whole
+ * pixels by the caller before they are offered.
+ */
+final class HudModel {
+    static final int WAVE = 0;
+    static final int SCORE = 1;
+    static final int TIMELINE = 2;
+    static final int KILLS = 3;
+    static final int FPS = 4;
+    static final int FPS_BAND = 5;
+    static final int WAVE_KILLS = 6;
+    static final int WAVE_KILLS_REQUIRED = 7;
+    static final int ELAPSED_SECONDS = 8;
+    static final int HEALTH_PX = 9;
+    static final int ENERGY_PX = 10;
+    static final int DASH_PX = 11;
+    static final int DASH_READY = 12;
+    static final int ULTIMATE_PX = 13;
+    static final int ULTIMATE_READY = 14;
+    static final int QUALITY = 15;
+    private static final int SLOTS = 16;
+
+    private final int[] pushed = new int[SLOTS];
+    private int updates = 0;
+
+    HudModel() {
+        invalidate();
+    }
+
+    /**
+     * Record value for slot and report whether it changed since the last push.
+     */
+    boolean set(int slot, int value) {
+        if (pushed[slot] == value) return false;
+        pushed[slot] = value;
+        updates++;
+        return true;
+    }
+
+    boolean set(int slot, boolean value) {
+        return set(slot, value ? 1 : 0);
+    }
+
+    /**
+     * Force every slot to be pushed again, e.g. after the HUD was rebuilt.
+     */
+    void invalidate() {
+        Arrays.fill(pushed, Integer.MIN_VALUE);
+    }
+
+    /**
+     * Number of node updates performed so far.
+     */
+    int getUpdates() { return updates; }
+}
@@ -0,0 +1,85 @@
+package ui;
+
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shared Color and Font instances for per-frame drawing.
+ *
+ * Colors are keyed by (hex, alpha bucket) with 256 alpha buckets, which is
+ * the precision the canvas rasterizes at anyway. Fonts are keyed by family,
+ * weight and size in half-point steps. Lookups allocate nothing once an
+ * entry exists, and equal keys always return the same instance, so batching
+ * can compare paints by identity.
+ *
+ * FX thread only; the maps are not synchronized.
+ */
+final class PaintCache {
+    private static final int ALPHA_BUCKETS = 256;
+    private static final int FONT_SIZE_STEPS = 2;     // half-point steps
+    private static final int MAX_FONT_SIZE = 128;
+
+    private static final Map<String, Color[]> colors = new HashMap<>();
+    private static final Map<String, Font[]> fonts = new HashMap<>();
+    private static final Map<String, Font[]> boldFonts = new HashMap<>();
+    private static final Map<String, Font[]> blackFonts = new HashMap<>();
+
+    private PaintCache() {}
+
+    static Color color(String hex) {
+        return color(hex, 1.0);
+    }
+
+    static Color color(String hex, double alpha) {
+        Color[] buckets = colors.get(hex);
+        if (buckets == null) {
+            buckets = new Color[ALPHA_BUCKETS];
+            colors.put(hex, buckets);
+        }
+        int bucket = alphaBucket(alpha);
+        Color c = buckets[bucket];
+        if (c == null) {
+            c = Color.web(hex, (double) bucket / (ALPHA_BUCKETS - 1));
+            buckets[bucket] = c;
+        }
+        return c;
+    }
+
+    static int alphaBucket(double alpha) {
+        if (!(alpha > 0)) return 0;
+        if (alpha >= 1) return ALPHA_BUCKETS - 1;
+        return (int) Math.round(alpha * (ALPHA_BUCKETS - 1));
+    }
+
+    static Font font(String family, double size) {
+        return font(family, null, size);
+    }
+
+    static Font font(String family, FontWeight weight, double size) {
+        Map<String, Font[]> byFamily;
+        if (weight == null || weight == FontWeight.NORMAL) byFamily = fonts;
+        else if (weight == FontWeight.BOLD) byFamily = boldFonts;
+        else if (weight == FontWeight.BLACK) byFamily = blackFonts;
+        else return Font.font(family, weight, size);
+
+        Font[] sizes = byFamily.get(family);
+        if (sizes == null) {
+            sizes = new Font[MAX_FONT_SIZE * FONT_SIZE_STEPS + 1];
+            byFamily.put(family, sizes);
+        }
+        int step = (int) Math.round(size * FONT_SIZE_STEPS);
+        if (step < 1 || step >= sizes.length) {
+            return weight == null ? Font.font(family, size) : Font.font(family, weight, size);
+        }
+        Font f = sizes[step];
+        if (f == null) {
+            double snapped = (double) step / FONT_SIZE_STEPS;
+            f = weight == null ? Font.font(family, snapped) : Font.font(family, weight, snapped);
+            sizes[step] = f;
+        }
+        return f;
+    }
+}
@@ -0,0 +1,125 @@
+package ui;
+
+import game.GameEngine;
+import util.Constants;
+
+/**
+ * Frame-time driven quality level for the effect knobs.
+ *
+ * Each frame reports its interval (pulse to pulse) and the work GameView did
+ * in it. Both are smoothed with an exponential moving average. Quality drops
+ * when the average interval misses the budget, and rises again only when the
+ * average work leaves plenty of room - the interval alone cannot show
+ * headroom, since it sits at the vsync rate whenever frames are on time.
+ *
+ * Hysteresis comes from three things: separate thresholds for going down
+ * and up, a condition that must hold for a run of frames (short to drop,
+ * long to recover) and a hold period after every change, so one boss
+ * explosion does not make the level flap.
+ *
+ * FX thread only.
+ */
+final class QualityGovernor {
+
+    enum Level {
+        LOW(0.25, 3, 0, 1, false, 2),
+        MEDIUM(0.5, 6, 1, 2, true, 5),
+        HIGH(1.0, GameEngine.DEFAULT_TRAIL_LENGTH, 2, Integer.MAX_VALUE, true, Constants.HUD_PANEL_REFRESH_HZ);
+
+        /** Scale applied to every particle burst. */
+        final double particleMultiplier;
+        /** Trail points kept per projectile. */
+        final int trailLength;
+        /** 0: none; 1: collectible and boss glows; 2: also text glows. */
+        final int glowLayers;
+        /** Most recent ScreenEffect flashes drawn per frame. */
+        final int maxScreenEffects;
+        final boolean vignette;
+        /** Strategic map / threat panel redraws per second. */
+        final int panelRefreshHz;
+
+        Level(double particleMultiplier, int trailLength, int glowLayers,
+              int maxScreenEffects, boolean vignette, int panelRefreshHz) {
+            this.particleMultiplier = particleMultiplier;
+            this.trailLength = trailLength;
+            this.glowLayers = glowLayers;
+            this.maxScreenEffects = maxScreenEffects;
+            this.vignette = vignette;
+            this.panelRefreshHz = panelRefreshHz;
+        }
+    }
+
+    private static final double SMOOTHING = 0.05;          // EWMA weight of the newest frame
+    private static final double DOWNGRADE_INTERVAL = 1.2;  // x budget: below ~50 fps at 60 Hz
+    private static final double UPGRADE_INTERVAL = 1.05;   // x budget: frames must be on time
+    private static final double UPGRADE_WORK = 0.5;        // x budget: at least half the frame spare
+    private static final int DOWNGRADE_FRAMES = 45;
+    private static final int UPGRADE_FRAMES = 240;
+    private static final int HOLD_FRAMES = 120;
+    private static final long STALL_NANOS = 250_000_000L;  // pauses and window drags, not load
+
+    private final long budgetNanos;
+    private Level level = Level.HIGH;
+    private double avgInterval;
+    private double avgWork;
+    private int slowFrames = 0;
+    private int fastFrames = 0;
+    private int hold = 0;
+    private int changes = 0;
+
+    QualityGovernor(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+        reset();
+    }
+
+    /**
+     * Feed one frame; returns true when the level changed.
+     */
+    boolean record(long intervalNanos, long workNanos) {
+        if (intervalNanos <= 0 || intervalNanos > STALL_NANOS) return false;
+        avgInterval += (intervalNanos - avgInterval) * SMOOTHING;
+        avgWork += (workNanos - avgWork) * SMOOTHING;
+
+        if (hold > 0) {
+            hold--;
+            return false;
+        }
+
+        boolean slow = avgInterval > budgetNanos * DOWNGRADE_INTERVAL;
+        boolean fast = avgInterval < budgetNanos * UPGRADE_INTERVAL && avgWork < budgetNanos * UPGRADE_WORK;
+        slowFrames = slow ? slowFrames + 1 : 0;
+        fastFrames = fast ? fastFrames + 1 : 0;
+
+        if (slowFrames >= DOWNGRADE_FRAMES && level.ordinal() > 0) {
+            return change(Level.values()[level.ordinal() - 1]);
+        }
+        if (fastFrames >= UPGRADE_FRAMES && level.ordinal() < Level.values().length - 1) {
+            return change(Level.values()[level.ordinal() + 1]);
+        }
+        return false;
+    }
+
+    private boolean change(Level next) {
+        level = next;
+        changes++;
+        slowFrames = fastFrames = 0;
+        hold = HOLD_FRAMES;
+        return true;
+    }
+
+    /**
+     * Back to HIGH with fresh averages, e.g. for a new game.
+     */
+    void reset() {
+        level = Level.HIGH;
+        avgInterval = budgetNanos;
+        avgWork = 0;
+        slowFrames = fastFrames = 0;
+        hold = 0;
+    }
+
+    Level getLevel() { return level; }
+    double getAverageInterval() { return avgInterval; }
+    double getAverageWork() { return avgWork; }
+    int getChanges() { return changes; }
+}
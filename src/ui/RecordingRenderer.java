@@ -0,0 +1,286 @@
+package ui;
+
+import javafx.scene.image.Image;
+import javafx.scene.paint.Paint;
+import javafx.scene.text.Font;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Renderer that counts what a frame costs.
+ *
+ * Per frame it records draw calls, state changes (and how many of those set a
+ * value that was already current), image draws and bytes allocated by the
+ * rendering thread. With a null delegate nothing is drawn, so render code
+ * can be measured without a display; otherwise every command is forwarded,
+ * which is how GameView collects its debug numbers on screen.
+ *
+ * Statistics are kept in primitive fields so recording itself does not
+ * allocate.
+ */
+public class RecordingRenderer implements Renderer {
+    private static final int MAX_SAVE_DEPTH = 32;
+
+    private final Renderer delegate;
+    private final com.sun.management.ThreadMXBean threadBean;
+
+    // Current state, used to spot redundant state changes
+    private Paint fill;
+    private Paint stroke;
+    private double lineWidth = 1;
+    private double globalAlpha = 1;
+    private Font font;
+    private final Paint[] savedFill = new Paint[MAX_SAVE_DEPTH];
+    private final Paint[] savedStroke = new Paint[MAX_SAVE_DEPTH];
+    private final double[] savedLineWidth = new double[MAX_SAVE_DEPTH];
+    private final double[] savedAlpha = new double[MAX_SAVE_DEPTH];
+    private final Font[] savedFont = new Font[MAX_SAVE_DEPTH];
+    private int saveDepth = 0;
+
+    // Running counters for the current frame
+    private int drawCalls;
+    private int imageDraws;
+    private int stateChanges;
+    private int redundantStateChanges;
+    private long frameStartAllocated;
+
+    // Published at endFrame
+    private int lastDrawCalls;
+    private int lastImageDraws;
+    private int lastStateChanges;
+    private int lastRedundantStateChanges;
+    private long lastAllocatedBytes = -1;
+    private long frames;
+
+    public RecordingRenderer() {
+        this(null);
+    }
+
+    public RecordingRenderer(Renderer delegate) {
+        this.delegate = delegate;
+        com.sun.management.ThreadMXBean bean = null;
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+            bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            if (!bean.isThreadAllocatedMemorySupported()) {
+                bean = null;
+            } else if (!bean.isThreadAllocatedMemoryEnabled()) {
+                bean.setThreadAllocatedMemoryEnabled(true);
+            }
+        }
+        this.threadBean = bean;
+    }
+
+    @Override
+    public void beginFrame() {
+        drawCalls = 0;
+        imageDraws = 0;
+        stateChanges = 0;
+        redundantStateChanges = 0;
+        frameStartAllocated = allocatedBytes();
+        if (delegate != null) delegate.beginFrame();
+    }
+
+    @Override
+    public void endFrame() {
+        if (delegate != null) delegate.endFrame();
+        long allocated = allocatedBytes();
+        lastAllocatedBytes = allocated < 0 ? -1 : allocated - frameStartAllocated;
+        lastDrawCalls = drawCalls;
+        lastImageDraws = imageDraws;
+        lastStateChanges = stateChanges;
+        lastRedundantStateChanges = redundantStateChanges;
+        frames++;
+    }
+
+    private long allocatedBytes() {
+        return threadBean == null ? -1 : threadBean.getCurrentThreadAllocatedBytes();
+    }
+
+    private void stateChange(boolean redundant) {
+        stateChanges++;
+        if (redundant) redundantStateChanges++;
+    }
+
+    private void draw() {
+        drawCalls++;
+    }
+
+    // ==== STATE ====
+
+    @Override
+    public void save() {
+        stateChange(false);
+        if (saveDepth < MAX_SAVE_DEPTH) {
+            savedFill[saveDepth] = fill;
+            savedStroke[saveDepth] = stroke;
+            savedLineWidth[saveDepth] = lineWidth;
+            savedAlpha[saveDepth] = globalAlpha;
+            savedFont[saveDepth] = font;
+        }
+        saveDepth++;
+        if (delegate != null) delegate.save();
+    }
+
+    @Override
+    public void restore() {
+        stateChange(false);
+        if (saveDepth > 0) {
+            saveDepth--;
+            if (saveDepth < MAX_SAVE_DEPTH) {
+                fill = savedFill[saveDepth];
+                stroke = savedStroke[saveDepth];
+                lineWidth = savedLineWidth[saveDepth];
+                globalAlpha = savedAlpha[saveDepth];
+                font = savedFont[saveDepth];
+            }
+        }
+        if (delegate != null) delegate.restore();
+    }
+
+    @Override
+    public void setFill(Paint paint) {
+        stateChange(Objects.equals(fill, paint));
+        fill = paint;
+        if (delegate != null) delegate.setFill(paint);
+    }
+
+    @Override
+    public void setStroke(Paint paint) {
+        stateChange(Objects.equals(stroke, paint));
+        stroke = paint;
+        if (delegate != null) delegate.setStroke(paint);
+    }
+
+    @Override
+    public void setLineWidth(double width) {
+        stateChange(lineWidth == width);
+        lineWidth = width;
+        if (delegate != null) delegate.setLineWidth(width);
+    }
+
+    @Override
+    public void setGlobalAlpha(double alpha) {
+        stateChange(globalAlpha == alpha);
+        globalAlpha = alpha;
+        if (delegate != null) delegate.setGlobalAlpha(alpha);
+    }
+
+    @Override
+    public void setFont(Font font) {
+        stateChange(Objects.equals(this.font, font));
+        this.font = font;
+        if (delegate != null) delegate.setFont(font);
+    }
+
+    @Override
+    public void setLineDashes(double... dashes) {
+        stateChange(false);
+        if (delegate != null) delegate.setLineDashes(dashes);
+    }
+
+    // ==== DRAWING ====
+
+    @Override
+    public void clearRect(double x, double y, double w, double h) {
+        draw();
+        if (delegate != null) delegate.clearRect(x, y, w, h);
+    }
+
+    @Override
+    public void fillRect(double x, double y, double w, double h) {
+        draw();
+        if (delegate != null) delegate.fillRect(x, y, w, h);
+    }
+
+    @Override
+    public void strokeRect(double x, double y, double w, double h) {
+        draw();
+        if (delegate != null) delegate.strokeRect(x, y, w, h);
+    }
+
+    @Override
+    public void fillOval(double x, double y, double w, double h) {
+        draw();
+        if (delegate != null) delegate.fillOval(x, y, w, h);
+    }
+
+    @Override
+    public void strokeOval(double x, double y, double w, double h) {
+        draw();
+        if (delegate != null) delegate.strokeOval(x, y, w, h);
+    }
+
+    @Override
+    public void fillRoundRect(double x, double y, double w, double h, double arcWidth, double arcHeight) {
+        draw();
+        if (delegate != null) delegate.fillRoundRect(x, y, w, h, arcWidth, arcHeight);
+    }
+
+    @Override
+    public void strokeRoundRect(double x, double y, double w, double h, double arcWidth, double arcHeight) {
+        draw();
+        if (delegate != null) delegate.strokeRoundRect(x, y, w, h, arcWidth, arcHeight);
+    }
+
+    @Override
+    public void strokeLine(double x1, double y1, double x2, double y2) {
+        draw();
+        if (delegate != null) delegate.strokeLine(x1, y1, x2, y2);
+    }
+
+    @Override
+    public void fillPolygon(double[] xPoints, double[] yPoints, int count) {
+        draw();
+        if (delegate != null) delegate.fillPolygon(xPoints, yPoints, count);
+    }
+
+    @Override
+    public void fillText(String text, double x, double y) {
+        draw();
+        if (delegate != null) delegate.fillText(text, x, y);
+    }
+
+    @Override
+    public void drawImage(Image image, double x, double y) {
+        draw();
+        imageDraws++;
+        if (delegate != null) delegate.drawImage(image, x, y);
+    }
+
+    @Override
+    public void drawImage(Image image, double x, double y, double w, double h) {
+        draw();
+        imageDraws++;
+        if (delegate != null) delegate.drawImage(image, x, y, w, h);
+    }
+
+    // ==== STATISTICS (last completed frame) ====
+
+    public int getDrawCalls() { return lastDrawCalls; }
+    public int getImageDraws() { return lastImageDraws; }
+    public int getStateChanges() { return lastStateChanges; }
+    public int getRedundantStateChanges() { return lastRedundantStateChanges; }
+
+    /**
+     * Bytes allocated on the rendering thread during the last frame, or -1
+     * if the JVM cannot measure it.
+     */
+    public long getAllocatedBytes() { return lastAllocatedBytes; }
+    public long getFrameCount() { return frames; }
+
+    /**
+     * Forget the tracked state, e.g. after drawing to the target directly.
+     */
+    public void resetState() {
+        fill = null;
+        stroke = null;
+        lineWidth = 1;
+        globalAlpha = 1;
+        font = null;
+        saveDepth = 0;
+        Arrays.fill(savedFill, null);
+        Arrays.fill(savedStroke, null);
+        Arrays.fill(savedFont, null);
+    }
+}
@@ -0,0 +1,52 @@
+package ui;
+
+import javafx.scene.image.Image;
+import javafx.scene.paint.Paint;
+import javafx.scene.text.Font;
+
+/**
+ * Drawing commands used by GameView and its panels.
+ *
+ * Mirrors the subset of GraphicsContext the game uses, so the JavaFX backend
+ * is a straight delegation and other backends (recording, batching) can sit
+ * in between without the drawing code changing.
+ */
+public interface Renderer {
+    // ==== STATE ====
+    void save();
+    void restore();
+    void setFill(Paint paint);
+    void setStroke(Paint paint);
+    void setLineWidth(double width);
+    void setGlobalAlpha(double alpha);
+    void setFont(Font font);
+    void setLineDashes(double... dashes);
+
+    // ==== DRAWING ====
+    void clearRect(double x, double y, double w, double h);
+    void fillRect(double x, double y, double w, double h);
+    void strokeRect(double x, double y, double w, double h);
+    void fillOval(double x, double y, double w, double h);
+    void strokeOval(double x, double y, double w, double h);
+    void fillRoundRect(double x, double y, double w, double h, double arcWidth, double arcHeight);
+    void strokeRoundRect(double x, double y, double w, double h, double arcWidth, double arcHeight);
+    void strokeLine(double x1, double y1, double x2, double y2);
+    void fillPolygon(double[] xPoints, double[] yPoints, int count);
+    void fillText(String text, double x, double y);
+    void drawImage(Image image, double x, double y);
+    void drawImage(Image image, double x, double y, double w, double h);
+
+    /**
+     * Frame boundaries; backends that keep per-frame statistics reset and
+     * publish them here. Drawing backends ignore them.
+     */
+    default void beginFrame() {}
+    default void endFrame() {}
+
+    /**
+     * Commands between beginBatch and flushBatch may be reordered to group
+     * primitives by paint state. Backends without batching draw immediately.
+     */
+    default void beginBatch() {}
+    default void flushBatch() {}
+}
@@ -0,0 +1,198 @@
+package ui;
+
+import game.GameEngine.EnemyType;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.CycleMethod;
+import javafx.scene.paint.RadialGradient;
+import javafx.scene.paint.Stop;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Lazily rasterized sprites for the entity pass.
+ *
+ * Each sprite is the shadow, glow, gradient body and (for enemies) eye that
+ * render() used to build from gradients and Color.web on every frame. Images
+ * are square with the entity centre in the middle, so drawing is a single
+ * drawImage at (x - width / 2, y - height / 2). Dynamic parts - health bars,
+ * the boss outline pulse and the shield ring - are still drawn per frame.
+ *
+ * Must be used from the FX thread, since sprites are made with Canvas.snapshot.
+ */
+class SpriteAtlas {
+    static final int EYE_ANGLE_STEPS = 24;
+    static final int GLOW_STEPS = 8;
+    private static final double PAD = 2;
+
+    private static final Color SHADOW = Color.web("#000", 0.25);
+    private static final Color PLAYER_SHADOW = Color.web("#000", 0.3);
+    private static final Color EYE_WHITE = Color.WHITE;
+    private static final Color PUPIL = Color.web("#1a1a1a");
+    private static final Color PLAYER_GLOW = Color.web("#22c55e");
+    private static final Color INVINCIBLE_GLOW = Color.web("#fbbf24");
+    private static final Color PLAYER_HIGHLIGHT = Color.web("#ffffff", 0.7);
+    private static final RadialGradient PLAYER_BODY = new RadialGradient(0, 0, 0.3, 0.3, 1, true, CycleMethod.NO_CYCLE,
+        new Stop(0, Color.web("#ffffff")),
+        new Stop(0.5, Color.web("#e0f0e8")),
+        new Stop(1, Color.web("#90c0a0"))
+    );
+    private static final Color PLAYER_BULLET = Color.web("#22c55e");
+    private static final Color ENEMY_BULLET = Color.web("#ef4444");
+
+    private final Map<EnemyType, Image[]> enemySprites = new EnumMap<>(EnemyType.class);
+    private final Image[] playerSprites = new Image[GLOW_STEPS + 1];
+    private final Image[] projectileSprites = new Image[2];
+    private final SnapshotParameters params = new SnapshotParameters();
+    private final Canvas scratch = new Canvas();
+    private int spritesBuilt = 0;
+
+    SpriteAtlas() {
+        params.setFill(Color.TRANSPARENT);
+    }
+
+    static double enemySize(EnemyType type) {
+        return type == EnemyType.BOSS ? 44 : type == EnemyType.TANK ? 32 : 24;
+    }
+
+    static Color enemyBodyColor(EnemyType type) {
+        switch (type) {
+            case CHASER: return Color.web("#d4a574");
+            case SHOOTER: return Color.web("#e8c090");
+            case TANK: return Color.web("#8b7355");
+            case TELEPORTER: return Color.web("#c4b0d4");
+            case INVISIBLE: return Color.web("#9ca3af");
+            case SUMMONER: return Color.web("#e8a4c4");
+            case BOSS: return Color.web("#ff6b6b");
+            default: return Color.web("#d4a574");
+        }
+    }
+
+    static Color enemyGlowColor(EnemyType type) {
+        switch (type) {
+            case CHASER: return Color.web("#22c55e");
+            case SHOOTER: return Color.web("#f59e0b");
+            case TANK: return Color.web("#6b7280");
+            case TELEPORTER: return Color.web("#a855f7");
+            case INVISIBLE: return Color.web("#6b7280");
+            case SUMMONER: return Color.web("#ec4899");
+            case BOSS: return Color.web("#ef4444");
+            default: return Color.web("#f97316");
+        }
+    }
+
+    /**
+     * Enemy with its eye facing the nearest of EYE_ANGLE_STEPS directions.
+     */
+    Image enemy(EnemyType type, boolean hit, double angle) {
+        Image[] sprites = enemySprites.computeIfAbsent(type, t -> new Image[2 * EYE_ANGLE_STEPS]);
+        int step = Math.floorMod((int) Math.round(angle / (2 * Math.PI) * EYE_ANGLE_STEPS), EYE_ANGLE_STEPS);
+        int index = (hit ? EYE_ANGLE_STEPS : 0) + step;
+        if (sprites[index] == null) {
+            sprites[index] = renderEnemy(type, hit, step * 2 * Math.PI / EYE_ANGLE_STEPS);
+        }
+        return sprites[index];
+    }
+
+    /**
+     * Player body and glow. pulse in [0, 1] selects the invincibility glow
+     * strength and is ignored when not invincible.
+     */
+    Image player(boolean invincible, double pulse) {
+        int index = invincible
+            ? 1 + Math.min(GLOW_STEPS - 1, (int) (Math.max(0, pulse) * GLOW_STEPS))
+            : 0;
+        if (playerSprites[index] == null) {
+            double glowAlpha = invincible ? 0.10 + 0.30 * (index - 1 + 0.5) / GLOW_STEPS : 0.15;
+            playerSprites[index] = renderPlayer(invincible ? INVINCIBLE_GLOW : PLAYER_GLOW, glowAlpha);
+        }
+        return playerSprites[index];
+    }
+
+    Image projectile(boolean isPlayer) {
+        int index = isPlayer ? 0 : 1;
+        if (projectileSprites[index] == null) {
+            projectileSprites[index] = renderProjectile(isPlayer ? PLAYER_BULLET : ENEMY_BULLET);
+        }
+        return projectileSprites[index];
+    }
+
+    int getSpritesBuilt() { return spritesBuilt; }
+
+    // ==== RASTERIZATION ====
+
+    private GraphicsContext begin(double extent) {
+        double side = Math.ceil(extent + 2 * PAD);
+        scratch.setWidth(side);
+        scratch.setHeight(side);
+        GraphicsContext g = scratch.getGraphicsContext2D();
+        g.clearRect(0, 0, side, side);
+        return g;
+    }
+
+    private Image end() {
+        spritesBuilt++;
+        return scratch.snapshot(params, null);
+    }
+
+    private Image renderEnemy(EnemyType type, boolean hit, double angle) {
+        double size = enemySize(type);
+        GraphicsContext g = begin(size + 8);
+        double c = scratch.getWidth() / 2;
+        Color body = enemyBodyColor(type);
+
+        g.setFill(SHADOW);
+        g.fillOval(c - size/2 + 3, c + size/3, size - 2, size/4);
+
+        g.setFill(enemyGlowColor(type).deriveColor(0, 1, 1, 0.2));
+        g.fillOval(c - size/2 - 4, c - size/2 - 4, size + 8, size + 8);
+
+        g.setFill(new RadialGradient(0, 0, 0.3, 0.3, 1, true, CycleMethod.NO_CYCLE,
+            new Stop(0, hit ? Color.WHITE : body.brighter()),
+            new Stop(0.7, hit ? Color.web("#dddddd") : body),
+            new Stop(1, hit ? Color.web("#aaaaaa") : body.darker())
+        ));
+        g.fillOval(c - size/2, c - size/2, size, size);
+
+        double eyeX = c + Math.cos(angle) * size/5;
+        double eyeY = c + Math.sin(angle) * size/5;
+        g.setFill(EYE_WHITE);
+        g.fillOval(eyeX - 4, eyeY - 4, 8, 8);
+        g.setFill(PUPIL);
+        g.fillOval(eyeX - 2, eyeY - 2, 4, 4);
+        return end();
+    }
+
+    private Image renderPlayer(Color glow, double glowAlpha) {
+        GraphicsContext g = begin(60);
+        double c = scratch.getWidth() / 2;
+
+        g.setFill(PLAYER_SHADOW);
+        g.fillOval(c - 12 + 3, c + 8, 24, 8);
+
+        g.setFill(glow.deriveColor(0, 1, 1, glowAlpha));
+        g.fillOval(c - 30, c - 30, 60, 60);
+        g.setFill(glow.deriveColor(0, 1, 1, glowAlpha + 0.1));
+        g.fillOval(c - 22, c - 22, 44, 44);
+
+        g.setFill(PLAYER_BODY);
+        g.fillOval(c - 16, c - 16, 32, 32);
+
+        g.setFill(PLAYER_HIGHLIGHT);
+        g.fillOval(c - 10, c - 12, 10, 7);
+        return end();
+    }
+
+    private Image renderProjectile(Color color) {
+        GraphicsContext g = begin(16);
+        double c = scratch.getWidth() / 2;
+        g.setFill(color.deriveColor(0, 1, 1, 0.3));
+        g.fillOval(c - 8, c - 8, 16, 16);
+        g.setFill(color);
+        g.fillOval(c - 4, c - 4, 8, 8);
+        return end();
+    }
+}
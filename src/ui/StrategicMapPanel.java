@@ -0,0 +1,126 @@
+package ui;
+
+import game.RenderSnapshot;
+import javafx.application.Platform;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import map.GridMap;
+
+/**
+ * Right-panel strategic map.
+ *
+ * Background and walls form a static layer that is snapshotted once and only
+ * rebuilt when GridMap.modifyTile reports a change; each refresh blits it and
+ * draws the entity dots on top.
+ */
+class StrategicMapPanel implements GridMap.TileListener {
+    private static final Color BACKGROUND = Color.web("#0f172a");
+    private static final Color WALL = Color.web("#1e3a5f");
+    private static final Color BORDER = Color.web("#1e3a5f");
+    private static final Color HEALTH = Color.web("#ef4444");
+    private static final Color ENERGY = Color.web("#fbbf24");
+    private static final Color AMMO = Color.web("#06b6d4");
+    private static final Color OTHER_PICKUP = Color.web("#a855f7");
+    private static final Color CHASER = Color.web("#10b981");
+    private static final Color SHOOTER = Color.web("#fbbf24");
+    private static final Color TANK = Color.web("#6b7280");
+    private static final Color BOSS = Color.web("#ef4444");
+    private static final Color OTHER_ENEMY = Color.web("#f97316");
+    private static final Color PLAYER_GLOW = Color.web("#fbbf24", 0.3);
+    private static final Color PLAYER = Color.web("#fbbf24");
+
+    private final Canvas canvas;
+    private final Renderer renderer;
+    private final GridMap map;
+    private final SnapshotParameters params = new SnapshotParameters();
+    private WritableImage staticLayer;
+    private boolean staticDirty = true;
+
+    StrategicMapPanel(Canvas canvas, Renderer renderer, GridMap map) {
+        this.canvas = canvas;
+        this.renderer = renderer;
+        this.map = map;
+        map.addTileListener(this);
+    }
+
+    void dispose() {
+        map.removeTileListener(this);
+    }
+
+    @Override
+    public void onTileChanged(int x, int y, boolean walkable) {
+        // Timeline changes are applied on the simulation thread
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> onTileChanged(x, y, walkable));
+            return;
+        }
+        staticDirty = true;
+    }
+
+    void draw(RenderSnapshot snapshot) {
+        Renderer mgc = renderer;
+        double mapWidth = canvas.getWidth(), mapHeight = canvas.getHeight();
+        double scale = mapWidth / map.getSize();
+        double scaleY = mapHeight / map.getSize();
+
+        if (staticDirty || staticLayer == null) {
+            drawStatic(mgc, mapWidth, mapHeight, scale, scaleY);
+            staticLayer = canvas.snapshot(params, staticLayer);
+            staticDirty = false;
+        } else {
+            mgc.drawImage(staticLayer, 0, 0);
+        }
+
+        // Collectibles as colored dots
+        for (int i = 0; i < snapshot.getPickupCount(); i++) {
+            switch (snapshot.getPickupType(i)) {
+                case HEALTH: mgc.setFill(HEALTH); break;
+                case ENERGY: mgc.setFill(ENERGY); break;
+                case AMMO: mgc.setFill(AMMO); break;
+                default: mgc.setFill(OTHER_PICKUP);
+            }
+            mgc.fillOval(snapshot.getPickupX(i) * scale - 2, snapshot.getPickupY(i) * scaleY - 2, 5, 5);
+        }
+
+        // Enemies as colored dots
+        for (int i = 0; i < snapshot.getMarkerCount(); i++) {
+            switch (snapshot.getMarkerType(i)) {
+                case CHASER: mgc.setFill(CHASER); break;
+                case SHOOTER: mgc.setFill(SHOOTER); break;
+                case TANK: mgc.setFill(TANK); break;
+                case BOSS: mgc.setFill(BOSS); break;
+                default: mgc.setFill(OTHER_ENEMY);
+            }
+            mgc.fillOval(snapshot.getMarkerX(i) * scale - 3, snapshot.getMarkerY(i) * scaleY - 3, 7, 7);
+        }
+
+        // Player (yellow with glow effect)
+        double px = snapshot.getPlayerX() * scale;
+        double py = snapshot.getPlayerY() * scaleY;
+        mgc.setFill(PLAYER_GLOW);
+        mgc.fillOval(px - 8, py - 8, 16, 16);
+        mgc.setFill(PLAYER);
+        mgc.fillOval(px - 4, py - 4, 8, 8);
+
+        // Border
+        mgc.setStroke(BORDER);
+        mgc.setLineWidth(1);
+        mgc.strokeRect(0, 0, mapWidth, mapHeight);
+    }
+
+    private void drawStatic(Renderer mgc, double mapWidth, double mapHeight, double scale, double scaleY) {
+        mgc.setFill(BACKGROUND);
+        mgc.fillRect(0, 0, mapWidth, mapHeight);
+
+        mgc.setFill(WALL);
+        for (int i = 0; i < map.getSize(); i++) {
+            for (int j = 0; j < map.getSize(); j++) {
+                if (!map.getNode(i, j).isWalkable()) {
+                    mgc.fillRect(i * scale, j * scaleY, scale, scaleY);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package ui;
+
+import dsa.SummedAreaTable;
+import game.GameEngine.EnemyType;
+import game.RenderSnapshot;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.paint.Color;
+import java.util.Arrays;
+
+/**
+ * Right-panel threat heat grid.
+ *
+ * Background, grid lines and border are painted once. Each refresh bins the
+ * enemies into a summed-area table, quantizes every cell to a colour level
+ * and repaints only the cells whose level changed. Cells are inset by one
+ * pixel, so repainting them never touches the grid lines.
+ */
+class ThreatPanel {
+    static final int GRID_SIZE = 12;
+
+    private static final Color BACKGROUND = Color.web("#0f172a");
+    private static final Color GRID_LINE = Color.web("#1e3a5f", 0.5);
+    private static final Color BORDER = Color.web("#1e3a5f");
+    // Indexed by level; level 0 means no threat and shows the background
+    private static final Color[] LEVEL_COLORS = {
+        BACKGROUND,
+        Color.web("#3b82f6"), // Blue - minimal
+        Color.web("#06b6d4"), // Cyan - low
+        Color.web("#fbbf24"), // Yellow
+        Color.web("#f97316"), // Orange
+        Color.web("#ef4444")  // Red - high
+    };
+
+    private final Canvas canvas;
+    private final Renderer renderer;
+    private final byte[] levels = new byte[GRID_SIZE * GRID_SIZE];
+    private SummedAreaTable threatTable;
+    private boolean staticDrawn = false;
+    private int cellsRepainted = 0;
+
+    ThreatPanel(Canvas canvas, Renderer renderer) {
+        this.canvas = canvas;
+        this.renderer = renderer;
+    }
+
+    void draw(RenderSnapshot snapshot) {
+        Renderer tgc = renderer;
+        double mapWidth = canvas.getWidth(), mapHeight = canvas.getHeight();
+        double cellW = mapWidth / GRID_SIZE;
+        double cellH = mapHeight / GRID_SIZE;
+
+        if (!staticDrawn) {
+            drawStatic(tgc, mapWidth, mapHeight, cellW, cellH);
+            Arrays.fill(levels, (byte) 0);
+            staticDrawn = true;
+        }
+
+        int mapSize = snapshot.getMapSize();
+        double mapScale = (double) mapSize / GRID_SIZE;
+
+        // Bin enemy threat per tile once, then answer each cell with O(1) box sums
+        // (outer 9x9 + inner 5x5 box approximates the old linear falloff over ~5 tiles)
+        if (threatTable == null || threatTable.getWidth() != mapSize) {
+            threatTable = new SummedAreaTable(mapSize, mapSize);
+        }
+        threatTable.clear();
+        for (int i = 0; i < snapshot.getMarkerCount(); i++) {
+            EnemyType type = snapshot.getMarkerType(i);
+            double threatValue = 1.0;
+            if (type == EnemyType.BOSS) threatValue = 3.0;
+            else if (type == EnemyType.TANK) threatValue = 2.0;
+            else if (type == EnemyType.SHOOTER) threatValue = 1.5;
+            threatTable.add((int) snapshot.getMarkerX(i), (int) snapshot.getMarkerY(i), threatValue);
+        }
+        threatTable.build();
+
+        for (int i = 0; i < GRID_SIZE; i++) {
+            for (int j = 0; j < GRID_SIZE; j++) {
+                int centerX = (int) ((i + 0.5) * mapScale);
+                int centerY = (int) ((j + 0.5) * mapScale);
+
+                double threat = 0.5 * threatTable.sum(centerX - 4, centerY - 4, centerX + 4, centerY + 4)
+                              + 0.5 * threatTable.sum(centerX - 2, centerY - 2, centerX + 2, centerY + 2);
+
+                byte level = level(threat);
+                int cell = i * GRID_SIZE + j;
+                if (levels[cell] != level) {
+                    levels[cell] = level;
+                    tgc.setFill(LEVEL_COLORS[level]);
+                    tgc.fillRect(i * cellW + 1, j * cellH + 1, cellW - 2, cellH - 2);
+                    cellsRepainted++;
+                }
+            }
+        }
+    }
+
+    private static byte level(double threat) {
+        if (threat > 3) return 5;
+        if (threat > 2) return 4;
+        if (threat > 1) return 3;
+        if (threat > 0.5) return 2;
+        if (threat > 0) return 1;
+        return 0;
+    }
+
+    private void drawStatic(Renderer tgc, double mapWidth, double mapHeight, double cellW, double cellH) {
+        tgc.setFill(BACKGROUND);
+        tgc.fillRect(0, 0, mapWidth, mapHeight);
+
+        tgc.setStroke(GRID_LINE);
+        tgc.setLineWidth(1);
+        for (int i = 0; i <= GRID_SIZE; i++) {
+            tgc.strokeLine(i * cellW, 0, i * cellW, mapHeight);
+            tgc.strokeLine(0, i * cellH, mapWidth, i * cellH);
+        }
+
+        tgc.setStroke(BORDER);
+        tgc.setLineWidth(1);
+        tgc.strokeRect(0, 0, mapWidth, mapHeight);
+    }
+
+    /**
+     * Force a full repaint on the next draw.
+     */
+    void invalidate() {
+        staticDrawn = false;
+    }
+
+    int getCellsRepainted() { return cellsRepainted; }
+}
@@ -0,0 +1,191 @@
+package ui;
+
+import javafx.application.Platform;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import map.GridMap;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Pre-rendered static tile layer, one per timeline theme.
+ *
+ * Floors and walls are rasterized once into chunk images of CHUNK_TILES x
+ * CHUNK_TILES tiles, so a 25x25 map is drawn with a single drawImage. The
+ * cache listens to GridMap.modifyTile and repaints only the changed tiles;
+ * a change in tile pixel size (window resize) rebuilds everything lazily.
+ */
+class TileLayerCache implements GridMap.TileListener {
+    static final int CHUNK_TILES = 32;
+    private static final int WALL_EDGE = 5;
+    private static final Color WALL_SHADE = Color.web("#000", 0.3);
+
+    private final GridMap map;
+    private final int size;
+    private final int chunksPerSide;
+    private final Map<TimelineTheme, Layer> layers = new EnumMap<>(TimelineTheme.class);
+    private int tilePx = 0;
+    private int tilesRepainted = 0;
+
+    TileLayerCache(GridMap map) {
+        this.map = map;
+        this.size = map.getSize();
+        this.chunksPerSide = (size + CHUNK_TILES - 1) / CHUNK_TILES;
+        map.addTileListener(this);
+    }
+
+    void dispose() {
+        map.removeTileListener(this);
+        layers.clear();
+    }
+
+    @Override
+    public void onTileChanged(int x, int y, boolean walkable) {
+        // Timeline changes are applied on the simulation thread
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> onTileChanged(x, y, walkable));
+            return;
+        }
+        for (Layer layer : layers.values()) {
+            layer.dirty.set(x * size + y);
+        }
+    }
+
+    /**
+     * Draw the part of the map inside the view. tileSize may be fractional;
+     * chunks are rasterized at the rounded size and scaled on draw.
+     */
+    void draw(Renderer gc, TimelineTheme theme, double tileSize,
+              double cameraX, double cameraY, double viewWidth, double viewHeight) {
+        int px = Math.max(2 * WALL_EDGE, (int) Math.round(tileSize));
+        if (px != tilePx) {
+            layers.clear();
+            tilePx = px;
+        }
+        Layer layer = layers.computeIfAbsent(theme, Layer::new);
+        layer.flushDirty();
+
+        double chunkSize = CHUNK_TILES * tileSize;
+        int cx0 = Math.max(0, (int) Math.floor(cameraX / chunkSize));
+        int cy0 = Math.max(0, (int) Math.floor(cameraY / chunkSize));
+        int cx1 = Math.min(chunksPerSide - 1, (int) Math.floor((cameraX + viewWidth) / chunkSize));
+        int cy1 = Math.min(chunksPerSide - 1, (int) Math.floor((cameraY + viewHeight) / chunkSize));
+
+        for (int cx = cx0; cx <= cx1; cx++) {
+            for (int cy = cy0; cy <= cy1; cy++) {
+                WritableImage chunk = layer.chunk(cx, cy);
+                double w = chunk.getWidth() / px * tileSize;
+                double h = chunk.getHeight() / px * tileSize;
+                gc.drawImage(chunk, cx * chunkSize - cameraX, cy * chunkSize - cameraY, w, h);
+            }
+        }
+    }
+
+    /**
+     * Tiles rasterized since the cache was created, for debugging invalidation.
+     */
+    int getTilesRepainted() { return tilesRepainted; }
+
+    private class Layer {
+        final TimelineTheme theme;
+        final WritableImage[] chunks = new WritableImage[chunksPerSide * chunksPerSide];
+        final BitSet dirty = new BitSet(size * size);
+        final int[] floorA;
+        final int[] floorB;
+        final int[] wall;
+
+        Layer(TimelineTheme theme) {
+            this.theme = theme;
+            floorA = solidTile(argb(theme.floorA));
+            floorB = solidTile(argb(theme.floorB));
+            wall = wallTile(argb(theme.wallMain), argb(theme.wallLight));
+        }
+
+        WritableImage chunk(int cx, int cy) {
+            int index = cx * chunksPerSide + cy;
+            if (chunks[index] == null) {
+                int tilesX = Math.min(CHUNK_TILES, size - cx * CHUNK_TILES);
+                int tilesY = Math.min(CHUNK_TILES, size - cy * CHUNK_TILES);
+                WritableImage image = new WritableImage(tilesX * tilePx, tilesY * tilePx);
+                chunks[index] = image;
+                for (int i = 0; i < tilesX; i++) {
+                    for (int j = 0; j < tilesY; j++) {
+                        paintTile(cx * CHUNK_TILES + i, cy * CHUNK_TILES + j);
+                    }
+                }
+            }
+            return chunks[index];
+        }
+
+        void flushDirty() {
+            for (int cell = dirty.nextSetBit(0); cell >= 0; cell = dirty.nextSetBit(cell + 1)) {
+                int x = cell / size;
+                int y = cell % size;
+                // Chunks not built yet will pick the change up when first drawn
+                if (chunks[(x / CHUNK_TILES) * chunksPerSide + y / CHUNK_TILES] != null) {
+                    paintTile(x, y);
+                }
+            }
+            dirty.clear();
+        }
+
+        private void paintTile(int x, int y) {
+            WritableImage image = chunks[(x / CHUNK_TILES) * chunksPerSide + y / CHUNK_TILES];
+            int[] pixels;
+            if (map.getNode(x, y).isWalkable()) {
+                pixels = (x + y) % 2 == 0 ? floorA : floorB;
+            } else {
+                pixels = wall;
+            }
+            PixelWriter writer = image.getPixelWriter();
+            writer.setPixels((x % CHUNK_TILES) * tilePx, (y % CHUNK_TILES) * tilePx, tilePx, tilePx,
+                PixelFormat.getIntArgbInstance(), pixels, 0, tilePx);
+            tilesRepainted++;
+        }
+    }
+
+    private int[] solidTile(int color) {
+        int[] pixels = new int[tilePx * tilePx];
+        Arrays.fill(pixels, color);
+        return pixels;
+    }
+
+    /**
+     * Wall with the same 3D edges as the old per-frame drawing: light top/left
+     * strips, then a 30% black strip over the bottom/right.
+     */
+    private int[] wallTile(int main, int light) {
+        int[] pixels = new int[tilePx * tilePx];
+        int shadeEdge = tilePx - WALL_EDGE;
+        double shade = WALL_SHADE.getOpacity();
+        for (int y = 0; y < tilePx; y++) {
+            for (int x = 0; x < tilePx; x++) {
+                int color = (x < WALL_EDGE || y < WALL_EDGE) ? light : main;
+                if (x >= shadeEdge || y >= shadeEdge) {
+                    color = darken(color, shade);
+                }
+                pixels[y * tilePx + x] = color;
+            }
+        }
+        return pixels;
+    }
+
+    private static int argb(Color c) {
+        return ((int) Math.round(c.getOpacity() * 255) << 24)
+            | ((int) Math.round(c.getRed() * 255) << 16)
+            | ((int) Math.round(c.getGreen() * 255) << 8)
+            | (int) Math.round(c.getBlue() * 255);
+    }
+
+    private static int darken(int color, double amount) {
+        double keep = 1 - amount;
+        int r = (int) Math.round(((color >> 16) & 0xff) * keep);
+        int g = (int) Math.round(((color >> 8) & 0xff) * keep);
+        int b = (int) Math.round((color & 0xff) * keep);
+        return (color & 0xff000000) | (r << 16) | (g << 8) | b;
+    }
+}
@@ -0,0 +1,35 @@
+package ui;
+
+import javafx.scene.paint.Color;
+
+/**
+ * Per-timeline map palette, parsed once instead of on every frame.
+ */
+enum TimelineTheme {
+    PAST("#0d1520", "#0a1218", "#1a3545", "#2a4555", "#3b82f6"),
+    PRESENT("#0f1a18", "#0c1614", "#1a3530", "#254540", "#22c55e"),
+    FUTURE("#120d20", "#0f0a18", "#351a4c", "#452a5c", "#a855f7");
+
+    final Color floorA;
+    final Color floorB;
+    final Color wallMain;
+    final Color wallLight;
+    final Color accent;
+
+    TimelineTheme(String floorA, String floorB, String wallMain, String wallLight, String accent) {
+        this.floorA = Color.web(floorA);
+        this.floorB = Color.web(floorB);
+        this.wallMain = Color.web(wallMain);
+        this.wallLight = Color.web(wallLight);
+        this.accent = Color.web(accent);
+    }
+
+    /**
+     * Theme for a timeline name as used by GameView; unknown names get PRESENT.
+     */
+    static TimelineTheme of(String timeline) {
+        if ("PAST".equals(timeline)) return PAST;
+        if ("FUTURE".equals(timeline)) return FUTURE;
+        return PRESENT;
+    }
+}
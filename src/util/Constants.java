@@ -28,6 +28,12 @@ public final class Constants {
     public static final int PRESENT_MODIFIER = 0;
     public static final int FUTURE_MODIFIER = 100;
     public static final int TIMELINE_SHIFT_COOLDOWN = 3000; // ms
+    public static final long REWIND_DURATION_MS = 3000; // default GameSettings rewind duration
+    public static final long REWIND_MAX_DURATION_MS = 10000; // history kept for the longest setting
+    public static final long REWIND_SAMPLE_MS = 16; // player rewind samples, independent of frame rate
+    public static final int REWIND_KEYFRAME_INTERVAL = 30; // ticks between full rewind frames
+    public static final int REWIND_BUFFER_BYTES = 1 << 19; // delta-encoded world history (~20 KB/s in play)
+    public static final int REWIND_COOLDOWN = 10000; // ms
 
     // ==================== PLAYER ====================
     public static final int MAX_HEALTH = 100;
@@ -36,6 +42,8 @@ public final class Constants {
     public static final int MOVE_COST = 1;
     public static final int ATTACK_COST = 10;
     public static final int ABILITY_COST = 20;
+    public static final long PLAYER_TICK_MS = 50; // background energy regeneration
+    public static final int PLAYER_SCHEDULER_THREADS = 2;
 
     // ==================== AI ====================
     public static final int AI_UPDATE_INTERVAL = 100; // ms
@@ -43,18 +51,25 @@ public final class Constants {
     public static final double OBSTACLE_RATIO = 0.2;
     public static final int HEAT_MAP_DECAY_INTERVAL = 5000; // ms
     public static final double HEAT_MAP_DECAY_FACTOR = 0.9;
+    public static final int ALT_LANDMARK_COUNT = 8; // landmarks for A* ALT heuristic
 
     // ==================== GAME LOOP ====================
     public static final int TARGET_FPS = 60;
     public static final long FRAME_TIME_NS = 1_000_000_000 / TARGET_FPS;
     public static final int TICK_RATE = 20; // Game logic updates per second
     public static final long TICK_TIME_MS = 1000 / TICK_RATE;
+    public static final int HUD_PANEL_REFRESH_HZ = 10; // strategic map / threat panel redraws
+    public static final boolean THREADED_SIMULATION = true; // tick GameView's simulation off the FX thread
+    public static final boolean ADAPTIVE_QUALITY = true; // scale effects against the FRAME_TIME_NS budget
 
     // ==================== SAVE/LOAD ====================
     public static final String SAVE_DIRECTORY = "saves/";
     public static final String SAVE_EXTENSION = ".chrono";
     public static final String CONFIG_FILE = "config.json";
     public static final int MAX_SAVE_SLOTS = 10;
+    public static final String PROFILE_DIRECTORY = "profiles/";
+    public static final String ECHO_DIRECTORY = "echoes/";
+    public static final String ECHO_EXTENSION = ".echoes";
 
     // ==================== COLORS (RGB values) ====================
     protected static final int[] COLOR_PAST = {100, 100, 180};      // Blueish
@@ -73,6 +88,7 @@ public final class Constants {
     public static final String KEY_SHIFT_PAST = "1";
     public static final String KEY_SHIFT_PRESENT = "2";
     public static final String KEY_SHIFT_FUTURE = "3";
+    public static final String KEY_REWIND = "T";
     public static final String KEY_PAUSE = "ESCAPE";
     public static final String KEY_INTERACT = "E";
 
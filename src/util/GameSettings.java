@@ -6,6 +6,7 @@ package util;
  * Responsibilities:
  * - Store the player's selected difficulty
  * - Store the current game level/wave
+ * - Store the rewind duration
  * - Provide a central point for global game state
  * 
  * This class is the single source of truth for difficulty selection.
@@ -28,6 +29,10 @@ public class GameSettings {
     
     // Current game level (can be used for level-based scaling across systems)
     private static int currentLevel = 1;
+    
+    // How far a rewind goes back, in milliseconds of play; read by the
+    // simulation thread
+    private static volatile long rewindDuration = Constants.REWIND_DURATION_MS;
 
     /**
      * Sets the game difficulty.
@@ -68,6 +73,25 @@ public class GameSettings {
         return currentLevel;
     }
     
+    /**
+     * Sets how far a rewind goes back.
+     * Clamped to the history the game keeps (REWIND_MAX_DURATION_MS).
+     * 
+     * @param millis Rewind duration in milliseconds
+     */
+    public static void setRewindDuration(long millis) {
+        rewindDuration = Math.max(0, Math.min(Constants.REWIND_MAX_DURATION_MS, millis));
+    }
+    
+    /**
+     * Gets how far a rewind goes back.
+     * 
+     * @return Rewind duration in milliseconds
+     */
+    public static long getRewindDuration() {
+        return rewindDuration;
+    }
+    
     /**
      * Resets game settings to defaults.
      * Useful when starting a new game.
@@ -75,6 +99,7 @@ public class GameSettings {
     public static void reset() {
         selectedDifficulty = Difficulty.MEDIUM;
         currentLevel = 1;
+        rewindDuration = Constants.REWIND_DURATION_MS;
     }
     
     /**
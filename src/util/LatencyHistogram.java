@@ -0,0 +1,94 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size log-linear histogram of non-negative long values (nanoseconds).
+ *
+ * Values below SUB_BUCKETS are counted exactly; above that every power of
+ * two is split into SUB_BUCKETS linear buckets, so any recorded value is
+ * reported within about 3% (HDR-style). All storage is allocated up front and
+ * record() never allocates.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_MAGNITUDE = 40;            // ~18 minutes in ns
+    private static final int BUCKET_COUNT = (MAX_MAGNITUDE - SUB_BITS + 2) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount = 0;
+    private long sum = 0;
+    private long min = Long.MAX_VALUE;
+    private long max = 0;
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) return (int) Math.max(0, value);
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        if (magnitude > MAX_MAGNITUDE) return BUCKET_COUNT - 1;
+        int shift = magnitude - SUB_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * Smallest value that falls into the bucket.
+     */
+    public static long bucketLowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        return (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+    }
+
+    /**
+     * Largest value that falls into the bucket.
+     */
+    public static long bucketUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        return bucketLowerBound(bucket) + (1L << shift) - 1;
+    }
+
+    public void record(long value) {
+        if (value < 0) value = 0;
+        counts[bucketOf(value)]++;
+        totalCount++;
+        sum += value;
+        if (value < min) min = value;
+        if (value > max) max = value;
+    }
+
+    /**
+     * Value at the given percentile (0-100), reported as the middle of its
+     * bucket and clamped to the recorded min/max. Returns 0 when empty.
+     */
+    public long valueAtPercentile(double percentile) {
+        if (totalCount == 0) return 0;
+        long target = (long) Math.ceil(percentile / 100.0 * totalCount);
+        if (target < 1) target = 1;
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                long mid = (bucketLowerBound(i) + bucketUpperBound(i)) / 2;
+                return Math.max(min, Math.min(max, mid));
+            }
+        }
+        return max;
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    public long getCount() { return totalCount; }
+    public long getMax() { return max; }
+    public long getMin() { return totalCount == 0 ? 0 : min; }
+    public double getMean() { return totalCount == 0 ? 0 : (double) sum / totalCount; }
+
+    public int getBucketCount() { return BUCKET_COUNT; }
+    public long getCountAt(int bucket) { return counts[bucket]; }
+}
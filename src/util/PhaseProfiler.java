@@ -0,0 +1,105 @@
+package util;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Per-phase frame timer built on System.nanoTime.
+ *
+ * Usage per phase: {@code long t = profiler.start(); ...; profiler.stop(PHASE, t);}
+ * Each phase feeds two LatencyHistograms: a session histogram for export and
+ * a window histogram that the overlay reads and that is reset by
+ * rollWindow(). Recording never allocates.
+ *
+ * Phases may be recorded from more than one thread (the simulation thread
+ * times its ticks into the same profiler); record, rollWindow, reset and
+ * writeCsv synchronize on the profiler, and readers of getWindow/getSession
+ * should hold the same lock.
+ */
+public class PhaseProfiler {
+    private final String[] names;
+    private final LatencyHistogram[] session;
+    private final LatencyHistogram[] window;
+
+    public PhaseProfiler(String... names) {
+        this.names = names.clone();
+        this.session = new LatencyHistogram[names.length];
+        this.window = new LatencyHistogram[names.length];
+        for (int i = 0; i < names.length; i++) {
+            session[i] = new LatencyHistogram();
+            window[i] = new LatencyHistogram();
+        }
+    }
+
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Record the time since startNanos for a phase and return the current
+     * time, so consecutive phases can chain off one another.
+     */
+    public long stop(int phase, long startNanos) {
+        long now = System.nanoTime();
+        record(phase, now - startNanos);
+        return now;
+    }
+
+    public synchronized void record(int phase, long nanos) {
+        session[phase].record(nanos);
+        window[phase].record(nanos);
+    }
+
+    /**
+     * Start a fresh overlay window.
+     */
+    public synchronized void rollWindow() {
+        for (LatencyHistogram h : window) h.reset();
+    }
+
+    public synchronized void reset() {
+        for (LatencyHistogram h : session) h.reset();
+        rollWindow();
+    }
+
+    public int getPhaseCount() { return names.length; }
+    public String getName(int phase) { return names[phase]; }
+    public LatencyHistogram getWindow(int phase) { return window[phase]; }
+    public LatencyHistogram getSession(int phase) { return session[phase]; }
+
+    /**
+     * Write the session histograms as CSV: a summary table per phase
+     * followed by every non-empty bucket, both in microseconds/nanoseconds.
+     */
+    public synchronized void writeCsv(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            out.println("# summary");
+            out.println("phase,count,mean_us,p50_us,p90_us,p99_us,p999_us,max_us");
+            for (int i = 0; i < names.length; i++) {
+                LatencyHistogram h = session[i];
+                out.println(String.format(Locale.ROOT, "%s,%d,%.1f,%.1f,%.1f,%.1f,%.1f,%.1f",
+                    names[i], h.getCount(), h.getMean() / 1000.0,
+                    h.valueAtPercentile(50) / 1000.0, h.valueAtPercentile(90) / 1000.0,
+                    h.valueAtPercentile(99) / 1000.0, h.valueAtPercentile(99.9) / 1000.0,
+                    h.getMax() / 1000.0));
+            }
+            out.println("# histogram");
+            out.println("phase,bucket_low_ns,bucket_high_ns,count");
+            for (int i = 0; i < names.length; i++) {
+                LatencyHistogram h = session[i];
+                for (int b = 0; b < h.getBucketCount(); b++) {
+                    long count = h.getCountAt(b);
+                    if (count == 0) continue;
+                    out.println(names[i] + "," + LatencyHistogram.bucketLowerBound(b) + ","
+                        + LatencyHistogram.bucketUpperBound(b) + "," + count);
+                }
+            }
+        }
+    }
+}
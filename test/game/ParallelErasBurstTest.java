@@ -0,0 +1,65 @@
+package game;
+
+import timeline.Timeline.EventType;
+import timeline.TimelineManager.TimelineType;
+
+/**
+ * Bursts larger than a mailbox must not stall the eras, even when two eras
+ * flood each other in the same tick.
+ *
+ * Plain main() check, no test framework: compile src and test together and
+ * run game.ParallelErasBurstTest; exits non-zero on failure.
+ */
+public class ParallelErasBurstTest {
+
+    private static final int BURST = 5000; // > the 4096-row mailbox
+    private static final int BURST_TICK = 3;
+    private static final int TICKS = 10;
+
+    public static void main(String[] args) throws InterruptedException {
+        ParallelEras eras = new ParallelEras(42L, 0,
+            burst(EventType.ENEMY_KILLED),       // PAST -> FUTURE
+            burst(EventType.COLLECTIBLE_TAKEN),  // PRESENT -> PAST and FUTURE
+            burst(EventType.ENEMY_KILLED));      // FUTURE -> PRESENT
+        eras.start();
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (System.nanoTime() < deadline && !reached(eras, TICKS)) {
+            Thread.sleep(10);
+        }
+        boolean done = reached(eras, TICKS);
+        eras.stop();
+
+        check(done, "eras stalled at ticks " + eras.getTick(TimelineType.PAST) + "/"
+            + eras.getTick(TimelineType.PRESENT) + "/" + eras.getTick(TimelineType.FUTURE));
+        check(eras.getReceived(TimelineType.PAST) == BURST, "PAST received " + eras.getReceived(TimelineType.PAST));
+        check(eras.getReceived(TimelineType.PRESENT) == BURST, "PRESENT received " + eras.getReceived(TimelineType.PRESENT));
+        check(eras.getReceived(TimelineType.FUTURE) == 2 * BURST, "FUTURE received " + eras.getReceived(TimelineType.FUTURE));
+        System.out.println("ParallelErasBurstTest passed");
+    }
+
+    private static ParallelEras.EraDriver burst(EventType type) {
+        return new ParallelEras.EraDriver() {
+            @Override
+            public void step(GameEngine engine, int tick, ParallelEras.Outbox outbox) {
+                if (tick != BURST_TICK) return;
+                for (int i = 0; i < BURST; i++) outbox.post(type, i % 20, i / 20 % 20);
+            }
+
+            @Override
+            public void receive(GameEngine engine, EventType type, int x, int y) {
+                // Only delivery is under test
+            }
+        };
+    }
+
+    private static boolean reached(ParallelEras eras, int tick) {
+        for (TimelineType era : TimelineType.values()) {
+            if (eras.getTick(era) < tick) return false;
+        }
+        return true;
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}